@@ -0,0 +1,55 @@
+package algo;
+
+import java.util.List;
+import model.City;
+
+/**
+ * Listes des k plus proches voisins de chaque ville, calculées une fois par
+ * un arbre k-d et stockées à plat dans un {@code int[n*k]}.
+ */
+public class CandidateLists {
+    private final int k;
+    private final int[] neighbors;
+
+    public CandidateLists(int k, int[] neighbors) {
+        this.k = k;
+        this.neighbors = neighbors;
+    }
+
+    /** Construit les listes de k voisins (k est borné par n-1). */
+    public static CandidateLists build(List<City> cities, int k) {
+        int n = cities.size();
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = cities.get(i).x;
+            ys[i] = cities.get(i).y;
+        }
+        return build(new KdTree(xs, ys), k);
+    }
+
+    /** Construit les listes de k voisins à partir d'un arbre déjà construit. */
+    public static CandidateLists build(KdTree tree, int k) {
+        int n = tree.size();
+        k = Math.max(0, Math.min(k, n - 1));
+        int[] neighbors = new int[n * k];
+        for (int c = 0; c < n; c++)
+            tree.kNearest(c, k, neighbors, c * k);
+        return new CandidateLists(k, neighbors);
+    }
+
+    /** Nombre de voisins par ville. */
+    public int k() {
+        return k;
+    }
+
+    /** r-ième plus proche voisin de la ville c (r = 0 : le plus proche). */
+    public int neighbor(int c, int r) {
+        return neighbors[c * k + r];
+    }
+
+    /** Tableau à plat des voisins : ceux de c sont aux indices [c*k, c*k+k). */
+    public int[] neighbors() {
+        return neighbors;
+    }
+}
@@ -0,0 +1,173 @@
+package algo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Points de reprise d'une recherche : fichier binaire petit-boutiste commençant
+ * par un en-tête (magie, version, type de problème) suivi de l'état propre au
+ * solveur. Le fichier est écrit dans un fichier temporaire voisin puis renommé,
+ * de sorte qu'une reprise lit toujours un point complet.
+ */
+final class Checkpoint {
+    static final int KIND_TSP = 0;
+    static final int KIND_KNAPSACK = 1;
+
+    static final int HEADER_BYTES = 12;
+    private static final int MAGIC = 0x4B435442;     // "BTCK"
+    private static final int VERSION = 4;
+
+    private Checkpoint() { }
+
+    /** Tampon de la taille donnée (en-tête compris), en-tête déjà écrit. */
+    static ByteBuffer allocate(int kind, long stateBytes) {
+        long size = HEADER_BYTES + stateBytes;
+        if (size > Integer.MAX_VALUE)
+            throw new IllegalStateException("état trop volumineux pour un point de reprise : " + size + " octets");
+        return ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN)
+                .putInt(MAGIC).putInt(VERSION).putInt(kind);
+    }
+
+    /** Lit un point de reprise ; le tampon est positionné après l'en-tête. */
+    static ByteBuffer read(Path file, int kind) throws IOException {
+        ByteBuffer buf;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE)
+                throw new IOException(file + " : point de reprise invalide");
+            buf = ByteBuffer.allocate((int) size);
+            while (buf.hasRemaining()) {
+                if (channel.read(buf) < 0)
+                    throw new IOException(file + " : fin de fichier inattendue");
+            }
+        }
+        buf.flip();
+        buf.order(ByteOrder.LITTLE_ENDIAN);
+        if (buf.getInt() != MAGIC || buf.getInt() != VERSION)
+            throw new IOException(file + " : point de reprise invalide");
+        if (buf.getInt() != kind)
+            throw new IOException(file + " : point de reprise d'un autre problème");
+        return buf;
+    }
+
+    /** Écrit le tampon (de 0 à sa limite) dans un fichier temporaire, puis le renomme. */
+    static void writeAtomically(Path file, ByteBuffer data) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer view = data.duplicate();
+                view.position(0);
+                while (view.hasRemaining())
+                    channel.write(view);
+                channel.force(false);
+            }
+            try {
+                Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException ex) {
+            Files.deleteIfExists(tmp);
+            throw ex;
+        }
+    }
+
+    /**
+     * Empreinte d'une instance (coordonnées, poids...) : une reprise sur une
+     * autre instance de même taille est refusée.
+     */
+    static long fingerprint(double[] a, double[] b, double c) {
+        long h = a.length * 0x9E3779B97F4A7C15L ^ Double.doubleToLongBits(c);
+        for (int i = 0; i < a.length; i++) {
+            h = mix(h ^ Double.doubleToLongBits(a[i]));
+            h = mix(h ^ Double.doubleToLongBits(b[i]));
+        }
+        return h;
+    }
+
+    private static long mix(long z) {
+        z *= 0xBF58476D1CE4E5B9L;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Écriture des points de reprise dans un thread de fond : la recherche ne
+     * fait que copier son état. Un point demandé pendant qu'une écriture est
+     * en cours est sauté.
+     */
+    static final class Writer {
+        private final Path file;
+        private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "checkpoint");
+            t.setDaemon(true);
+            return t;
+        });
+        private Future<?> pending;
+        private volatile IOException failure;
+
+        Writer(Path file) {
+            this.file = file;
+        }
+
+        /** Vrai si l'écriture précédente n'est pas terminée. */
+        boolean isBusy() {
+            return pending != null && !pending.isDone();
+        }
+
+        /** Lance l'écriture du tampon. */
+        void submit(ByteBuffer data) {
+            pending = executor.submit(() -> {
+                try {
+                    writeAtomically(file, data);
+                } catch (IOException ex) {
+                    failure = ex;
+                }
+            });
+        }
+
+        /** Attend la fin de l'écriture en cours. */
+        void await() {
+            if (pending == null)
+                return;
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    pending.get();
+                    break;
+                } catch (InterruptedException ex) {
+                    interrupted = true;
+                } catch (ExecutionException ex) {
+                    failure = new IOException(ex.getCause());
+                    break;
+                }
+            }
+            if (interrupted)
+                Thread.currentThread().interrupt();
+        }
+
+        /** Écrit l'état final, attend la fin des écritures et arrête le thread. */
+        void close(ByteBuffer last) {
+            await();
+            submit(last);
+            await();
+            executor.shutdown();
+        }
+
+        /** Dernier échec d'écriture, ou null. */
+        IOException failure() {
+            return failure;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package algo;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Mémoire à long terme du TSP : nombre d'itérations passées par chaque arête
+ * {a, b} dans la route courante (fréquence de résidence). Les compteurs ne
+ * sont soldés qu'à la sortie d'une arête, en O(1) par arête d'un mouvement
+ * accepté ; une arête présente garde son itération d'entrée.
+ * <p>
+ * Jusqu'à {@value #MAX_DENSE_PAIRS} paires, les compteurs forment une matrice
+ * triangulaire à plat ; au-delà, seules les arêtes vers les voisins candidats
+ * sont suivies ({@code int[n*k]} aligné sur les listes), les autres restant à
+ * zéro.
+ */
+final class EdgeFrequency {
+    /** Nombre maximal de paires suivies par la matrice complète. */
+    static final int MAX_DENSE_PAIRS = 1 << 21;
+
+    private final int n;
+    private final CandidateLists candidates;   // null : matrice complète
+    private final int[] counts;                // itérations de présence soldées
+    private final int[] since;                 // itération d'entrée des arêtes présentes
+
+    /**
+     * @param candidates listes de voisins des compteurs creux, ignorées si
+     *                   la matrice complète tient dans {@link #MAX_DENSE_PAIRS}
+     */
+    EdgeFrequency(int n, CandidateLists candidates) {
+        this.n = n;
+        long pairs = (long) n * (n - 1) / 2;
+        this.candidates = (pairs <= MAX_DENSE_PAIRS) ? null : candidates;
+        int size = (this.candidates == null) ? (int) pairs : n * candidates.k();
+        this.counts = new int[size];
+        this.since = new int[size];
+    }
+
+    /** Vrai si la matrice complète est utilisée (aucune liste de candidats n'est nécessaire). */
+    static boolean isDense(int n) {
+        return (long) n * (n - 1) / 2 <= MAX_DENSE_PAIRS;
+    }
+
+    /** Indice de l'arête {a, b}, ou -1 si elle n'est pas suivie. */
+    private int index(int a, int b) {
+        if (a == b)
+            return -1;
+        int lo = Math.min(a, b), hi = Math.max(a, b);
+        if (candidates == null)
+            return TabuTenure.pairIndex(lo, hi, n);
+        int k = candidates.k();
+        for (int r = 0; r < k; r++) {
+            if (candidates.neighbor(lo, r) == hi)
+                return lo * k + r;
+        }
+        for (int r = 0; r < k; r++) {
+            if (candidates.neighbor(hi, r) == lo)
+                return hi * k + r;
+        }
+        return -1;
+    }
+
+    /** L'arête {a, b} entre dans la route à l'itération iter. */
+    void enter(int a, int b, int iter) {
+        int e = index(a, b);
+        if (e >= 0)
+            since[e] = iter;
+    }
+
+    /** L'arête {a, b} sort de la route à l'itération iter : sa présence est soldée. */
+    void leave(int a, int b, int iter) {
+        int e = index(a, b);
+        if (e >= 0)
+            counts[e] += iter - since[e];
+    }
+
+    /** Toutes les arêtes de la route entrent (ou sortent) à l'itération iter. */
+    void enterAll(TSPTour tour, int iter) {
+        for (int q = 0; q < n; q++)
+            enter(tour.cityAt(q), tour.cityAt((q + 1) % n), iter);
+    }
+
+    void leaveAll(TSPTour tour, int iter) {
+        for (int q = 0; q < n; q++)
+            leave(tour.cityAt(q), tour.cityAt((q + 1) % n), iter);
+    }
+
+    /** Itérations passées dans la route par l'arête {a, b}, absente de la route courante. */
+    int residence(int a, int b) {
+        int e = index(a, b);
+        return (e >= 0) ? counts[e] : 0;
+    }
+
+    /** Taille de l'état écrit par {@link #write}. */
+    long stateBytes() {
+        return 4 + 8L * counts.length;
+    }
+
+    /** Écrit les compteurs et les itérations d'entrée dans un point de reprise. */
+    void write(ByteBuffer buf) {
+        buf.putInt(counts.length);
+        buf.asIntBuffer().put(counts);
+        buf.position(buf.position() + 4 * counts.length);
+        buf.asIntBuffer().put(since);
+        buf.position(buf.position() + 4 * since.length);
+    }
+
+    /** Relit l'état écrit par {@link #write}. */
+    void read(ByteBuffer buf) {
+        int size = buf.getInt();
+        if (size != counts.length)
+            throw new IllegalStateException("mémoire de fréquences de " + size + " arêtes, " + counts.length + " attendues");
+        buf.asIntBuffer().get(counts);
+        buf.position(buf.position() + 4 * size);
+        buf.asIntBuffer().get(since);
+        buf.position(buf.position() + 4 * size);
+    }
+}
@@ -0,0 +1,73 @@
+package algo;
+
+import java.util.Arrays;
+
+/**
+ * Solutions d'élite de la mémoire à long terme : les {@code capacity}
+ * meilleures solutions distinctes (par leur empreinte) proposées, triées par
+ * coût croissant.
+ */
+final class ElitePool<S> {
+    private final double[] costs;
+    private final long[] hashes;
+    private final Object[] solutions;
+    private int size;
+
+    ElitePool(int capacity) {
+        this.costs = new double[capacity];
+        this.hashes = new long[capacity];
+        this.solutions = new Object[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** Coût de la k-ième solution, de la meilleure (0) à la moins bonne. */
+    double costAt(int k) {
+        return costs[k];
+    }
+
+    long hashAt(int k) {
+        return hashes[k];
+    }
+
+    @SuppressWarnings("unchecked")
+    S solutionAt(int k) {
+        return (S) solutions[k];
+    }
+
+    /**
+     * Garde la solution si elle est parmi les meilleures et absente du pool ;
+     * la moins bonne est alors évincée si le pool est plein. La solution est
+     * conservée telle quelle : l'appelant ne doit plus la modifier.
+     *
+     * @return vrai si la solution a été gardée
+     */
+    boolean offer(double cost, long hash, S solution) {
+        int capacity = costs.length;
+        for (int k = 0; k < size; k++) {
+            if (hashes[k] == hash)
+                return false;
+        }
+        if (capacity == 0 || (size == capacity && cost >= costs[size - 1]))
+            return false;
+        if (size < capacity)
+            size++;
+        int k = size - 1;
+        for (; k > 0 && costs[k - 1] > cost; k--) {
+            costs[k] = costs[k - 1];
+            hashes[k] = hashes[k - 1];
+            solutions[k] = solutions[k - 1];
+        }
+        costs[k] = cost;
+        hashes[k] = hash;
+        solutions[k] = solution;
+        return true;
+    }
+
+    void clear() {
+        Arrays.fill(solutions, null);
+        size = 0;
+    }
+}
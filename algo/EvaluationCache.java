@@ -0,0 +1,320 @@
+package algo;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import model.ContinuousObjective;
+
+/**
+ * Cache borné des valeurs d'une fonction continue coûteuse. Un point est
+ * identifié par ses coordonnées quantifiées (arrondies au multiple le plus
+ * proche de la résolution) : deux points de la même case partagent la valeur
+ * calculée pour le premier d'entre eux. Une résolution nulle ne regroupe que
+ * les points identiques.
+ * <p>
+ * Le nombre d'entrées est déduit d'un budget mémoire ; au-delà, une entrée
+ * est évincée par l'algorithme de l'horloge (CLOCK, approximation de LRU).
+ * Le cache est découpé en segments verrouillés séparément : plusieurs
+ * recherches ou threads d'évaluation peuvent le partager.
+ */
+public final class EvaluationCache {
+    /** Nombre maximal de segments (verrous indépendants). */
+    private static final int MAX_SEGMENTS = 16;
+
+    private final int dim;
+    private final double resolution;
+    private final Segment[] segments;
+    private final int segmentMask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param dimension    dimension des points
+     * @param resolution   pas de quantification des coordonnées (0 : points identiques)
+     * @param memoryBudget mémoire maximale des entrées, en octets
+     */
+    public EvaluationCache(int dimension, double resolution, long memoryBudget) {
+        if (dimension < 1)
+            throw new IllegalArgumentException("dimension invalide : " + dimension);
+        if (!(resolution >= 0))
+            throw new IllegalArgumentException("résolution invalide : " + resolution);
+        this.dim = dimension;
+        this.resolution = resolution;
+        // coordonnées, valeur, empreinte, bit de référence et deux emplacements de table
+        long entryBytes = 8L * dimension + 8 + 8 + 1 + 2 * 4;
+        long capacity = Math.max(1, Math.min(Integer.MAX_VALUE / 4, memoryBudget / entryBytes));
+        int count = Integer.highestOneBit((int) Math.max(1, Math.min(MAX_SEGMENTS, capacity / 64)));
+        this.segments = new Segment[count];
+        for (int s = 0; s < count; s++)
+            segments[s] = new Segment((int) Math.max(1, capacity / count), dimension);
+        this.segmentMask = count - 1;
+    }
+
+    public int dimension() {
+        return dim;
+    }
+
+    public double resolution() {
+        return resolution;
+    }
+
+    /** Nombre d'évaluations servies par le cache. */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /** Nombre d'évaluations transmises à la fonction. */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /** Nombre d'entrées évincées faute de place. */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /** Nombre d'entrées présentes. */
+    public int size() {
+        int n = 0;
+        for (Segment s : segments) {
+            synchronized (s) {
+                n += s.size;
+            }
+        }
+        return n;
+    }
+
+    /** Nombre maximal d'entrées. */
+    public int capacity() {
+        int n = 0;
+        for (Segment s : segments)
+            n += s.values.length;
+        return n;
+    }
+
+    /** Vide le cache et remet les compteurs à zéro. */
+    public void clear() {
+        for (Segment s : segments) {
+            synchronized (s) {
+                s.clear();
+            }
+        }
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
+
+    /**
+     * La fonction f derrière ce cache. Les points d'un lot absents du cache
+     * sont regroupés et évalués d'un seul appel à
+     * {@link ContinuousObjective#evaluateBatch}.
+     */
+    public ContinuousObjective wrap(ContinuousObjective f) {
+        return new ContinuousObjective() {
+            @Override
+            public double evaluate(double[] buffer, int offset, int dimension) {
+                return EvaluationCache.this.evaluate(f, buffer, offset);
+            }
+
+            @Override
+            public void evaluateBatch(double[] buffer, int from, int to, int dimension, double[] out) {
+                EvaluationCache.this.evaluateBatch(f, buffer, from, to, out);
+            }
+        };
+    }
+
+    /** Valeur de f au point buffer[offset..offset+dim), lue dans le cache si possible. */
+    public double evaluate(ContinuousObjective f, double[] buffer, int offset) {
+        long[] key = new long[dim];
+        long hash = quantize(buffer, offset, key);
+        Segment s = segmentOf(hash);
+        synchronized (s) {
+            int e = s.find(hash, key);
+            if (e >= 0) {
+                hits.increment();
+                return s.values[e];
+            }
+        }
+        misses.increment();
+        double value = f.evaluate(buffer, offset, dim);
+        put(s, hash, key, value);
+        return value;
+    }
+
+    /** Évalue les points [from, to) d'un lot dans out[from..to), les absents d'un seul appel à f. */
+    public void evaluateBatch(ContinuousObjective f, double[] buffer, int from, int to, double[] out) {
+        int n = to - from;
+        long[] keys = new long[n * dim];
+        long[] hashes = new long[n];
+        int[] missing = new int[n];
+        int m = 0;
+        long[] key = new long[dim];
+        for (int k = from; k < to; k++) {
+            long hash = quantize(buffer, k * dim, key);
+            Segment s = segmentOf(hash);
+            int e;
+            synchronized (s) {
+                e = s.find(hash, key);
+                if (e >= 0)
+                    out[k] = s.values[e];
+            }
+            if (e < 0) {
+                System.arraycopy(key, 0, keys, m * dim, dim);
+                hashes[m] = hash;
+                missing[m++] = k;
+            }
+        }
+        hits.add(n - m);
+        if (m == 0)
+            return;
+        misses.add(m);
+
+        // absents regroupés dans un lot à plat
+        double[] batch = new double[m * dim];
+        for (int i = 0; i < m; i++)
+            System.arraycopy(buffer, missing[i] * dim, batch, i * dim, dim);
+        double[] values = new double[m];
+        f.evaluateBatch(batch, 0, m, dim, values);
+        for (int i = 0; i < m; i++) {
+            out[missing[i]] = values[i];
+            System.arraycopy(keys, i * dim, key, 0, dim);
+            put(segmentOf(hashes[i]), hashes[i], key, values[i]);
+        }
+    }
+
+    private void put(Segment s, long hash, long[] key, double value) {
+        synchronized (s) {
+            if (s.find(hash, key) >= 0)
+                return;   // ajouté entre-temps par un autre thread
+            if (s.insert(hash, key, value))
+                evictions.increment();
+        }
+    }
+
+    /** Coordonnées quantifiées du point dans key ; renvoie leur empreinte. */
+    private long quantize(double[] buffer, int offset, long[] key) {
+        long h = 0x9E3779B97F4A7C15L;
+        for (int d = 0; d < dim; d++) {
+            double x = buffer[offset + d];
+            long q = (resolution > 0) ? Math.round(x / resolution) : Double.doubleToLongBits(x + 0.0);
+            key[d] = q;
+            h = (h ^ q) * 0xBF58476D1CE4E5B9L;
+            h ^= h >>> 31;
+        }
+        return h;
+    }
+
+    private Segment segmentOf(long hash) {
+        return segments[(int) (hash >>> 59) & segmentMask];
+    }
+
+    /**
+     * Segment du cache : entrées dans des tableaux à plat, indexées par une
+     * table à adressage ouvert sur leur empreinte. Accès sous le verrou du segment.
+     */
+    private static final class Segment {
+        private final int dim;
+        private final long[] coords;       // coordonnées quantifiées, à plat
+        private final double[] values;
+        private final long[] hashes;
+        private final boolean[] referenced;
+        private int size;
+        private int hand;                  // aiguille de l'horloge
+
+        // table : entrée + 1 (0 : emplacement libre)
+        private final int[] table;
+        private final int mask;
+
+        Segment(int capacity, int dim) {
+            this.dim = dim;
+            this.coords = new long[capacity * dim];
+            this.values = new double[capacity];
+            this.hashes = new long[capacity];
+            this.referenced = new boolean[capacity];
+            int tableSize = Integer.highestOneBit(Math.max(2, capacity * 2 - 1)) << 1;
+            this.table = new int[tableSize];
+            this.mask = tableSize - 1;
+        }
+
+        void clear() {
+            Arrays.fill(table, 0);
+            size = 0;
+            hand = 0;
+        }
+
+        /** Entrée de ce point, marquée comme référencée, ou -1. */
+        int find(long hash, long[] key) {
+            for (int slot = home(hash); table[slot] != 0; slot = (slot + 1) & mask) {
+                int e = table[slot] - 1;
+                if (hashes[e] == hash && sameKey(e, key)) {
+                    referenced[e] = true;
+                    return e;
+                }
+            }
+            return -1;
+        }
+
+        /** Ajoute une entrée ; vrai si une autre a dû être évincée. */
+        boolean insert(long hash, long[] key, double value) {
+            boolean evicted = false;
+            int e;
+            if (size < values.length) {
+                e = size++;
+            } else {
+                // horloge : la première entrée non référencée depuis le dernier passage
+                while (referenced[hand]) {
+                    referenced[hand] = false;
+                    hand = (hand + 1) % values.length;
+                }
+                e = hand;
+                hand = (hand + 1) % values.length;
+                removeSlot(slotOfEntry(e));
+                evicted = true;
+            }
+            System.arraycopy(key, 0, coords, e * dim, dim);
+            values[e] = value;
+            hashes[e] = hash;
+            referenced[e] = false;
+            int slot = home(hash);
+            while (table[slot] != 0)
+                slot = (slot + 1) & mask;
+            table[slot] = e + 1;
+            return evicted;
+        }
+
+        private boolean sameKey(int e, long[] key) {
+            int o = e * dim;
+            for (int d = 0; d < dim; d++) {
+                if (coords[o + d] != key[d])
+                    return false;
+            }
+            return true;
+        }
+
+        private int slotOfEntry(int e) {
+            int slot = home(hashes[e]);
+            while (table[slot] != e + 1)
+                slot = (slot + 1) & mask;
+            return slot;
+        }
+
+        private int home(long hash) {
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+
+        /** Suppression par décalage arrière, comme dans {@link FingerprintSet}. */
+        private void removeSlot(int slot) {
+            table[slot] = 0;
+            int hole = slot;
+            for (int j = (hole + 1) & mask; table[j] != 0; j = (j + 1) & mask) {
+                int h = home(hashes[table[j] - 1]);
+                boolean movable = (j > hole) ? (h <= hole || h > j) : (h <= hole && h > j);
+                if (movable) {
+                    table[hole] = table[j];
+                    table[j] = 0;
+                    hole = j;
+                }
+            }
+        }
+    }
+}
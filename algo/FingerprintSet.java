@@ -0,0 +1,120 @@
+package algo;
+
+import java.util.Arrays;
+
+/**
+ * Mémoire des {@code capacity} dernières solutions, indexée par leur empreinte
+ * de Zobrist dans une table à adressage ouvert de {@code long} primitifs.
+ * Lorsque la capacité est atteinte, la plus ancienne entrée est évincée (FIFO).
+ * <p>
+ * Le test {@link #mightContain(long)} est en O(1) ; une comparaison complète
+ * n'est nécessaire que lorsque deux empreintes coïncident, en parcourant les
+ * entrées de même empreinte via {@link #hashAt(int)} / {@link #solutionAt(int)}.
+ *
+ * @param <S> représentation des solutions conservées pour la comparaison complète
+ */
+public class FingerprintSet<S> {
+    private final long[] keys;
+    private final int[] counts;
+    private final int mask;
+
+    private final long[] fifoHashes;
+    private final Object[] fifoSolutions;
+    private int head;
+    private int size;
+
+    public FingerprintSet(int capacity) {
+        int tableSize = Integer.highestOneBit(Math.max(2, capacity * 2 - 1)) << 1;
+        this.keys = new long[tableSize];
+        this.counts = new int[tableSize];
+        this.mask = tableSize - 1;
+        this.fifoHashes = new long[capacity];
+        this.fifoSolutions = new Object[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return fifoHashes.length;
+    }
+
+    /** Vrai si une solution mémorisée a cette empreinte (collision possible). */
+    public boolean mightContain(long hash) {
+        for (int slot = home(hash); counts[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == hash)
+                return true;
+        }
+        return false;
+    }
+
+    /** Empreinte de la k-ième entrée, de la plus ancienne (0) à la plus récente. */
+    public long hashAt(int k) {
+        return fifoHashes[(head + k) % fifoHashes.length];
+    }
+
+    /** Solution de la k-ième entrée, de la plus ancienne (0) à la plus récente. */
+    @SuppressWarnings("unchecked")
+    public S solutionAt(int k) {
+        return (S) fifoSolutions[(head + k) % fifoSolutions.length];
+    }
+
+    /** Mémorise une solution ; évince la plus ancienne si la capacité est atteinte. */
+    public void add(long hash, S solution) {
+        int capacity = fifoHashes.length;
+        if (capacity == 0)
+            return;
+        if (size == capacity) {
+            remove(fifoHashes[head]);
+            fifoSolutions[head] = null;
+            head = (head + 1) % capacity;
+            size--;
+        }
+        int tail = (head + size) % capacity;
+        fifoHashes[tail] = hash;
+        fifoSolutions[tail] = solution;
+        size++;
+
+        int slot = home(hash);
+        while (counts[slot] != 0 && keys[slot] != hash)
+            slot = (slot + 1) & mask;
+        keys[slot] = hash;
+        counts[slot]++;
+    }
+
+    /** Vide la mémoire. */
+    public void clear() {
+        Arrays.fill(counts, 0);
+        Arrays.fill(fifoSolutions, null);
+        head = 0;
+        size = 0;
+    }
+
+    private int home(long hash) {
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    /** Décrémente le compteur de l'empreinte ; suppression par décalage arrière. */
+    private void remove(long hash) {
+        int slot = home(hash);
+        while (keys[slot] != hash || counts[slot] == 0)
+            slot = (slot + 1) & mask;
+        if (--counts[slot] > 0)
+            return;
+
+        int hole = slot;
+        for (int j = (hole + 1) & mask; counts[j] != 0; j = (j + 1) & mask) {
+            int h = home(keys[j]);
+            // l'entrée j peut combler le trou si son emplacement d'origine
+            // n'est pas situé (circulairement) dans ]hole, j]
+            boolean movable = (j > hole) ? (h <= hole || h > j) : (h <= hole && h > j);
+            if (movable) {
+                keys[hole] = keys[j];
+                counts[hole] = counts[j];
+                counts[j] = 0;
+                hole = j;
+            }
+        }
+    }
+}
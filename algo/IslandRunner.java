@@ -0,0 +1,136 @@
+package algo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+import model.CancelToken;
+
+/**
+ * Modèle en îles : N recherches tabou indépendantes, une par thread, qui
+ * s'exécutent par époques. À la fin de chaque époque, une île publie sa
+ * meilleure solution dans un {@link SharedBest} ; si la solution partagée est
+ * meilleure que la sienne, elle repart de celle-ci à l'époque suivante.
+ *
+ * @param <S> représentation des solutions
+ */
+public class IslandRunner<S> {
+
+    /** Une île : une recherche relancée à chaque époque. Utilisée par un seul thread. */
+    public interface Search<S> {
+        /**
+         * Lance une époque.
+         *
+         * @param start solution de départ, ou null pour un départ propre à la recherche
+         * @return la meilleure solution de l'époque
+         */
+        S run(S start);
+
+        /** Coût (à minimiser) de la dernière solution renvoyée par {@link #run}. */
+        double cost();
+    }
+
+    /** Résultat global et statistiques par île. */
+    public static final class Result<S> {
+        /** Meilleure solution, null si l'arrêt précède la fin de toute époque. */
+        public final S best;
+        public final double bestCost;
+        public final List<IslandStats> islands;
+
+        Result(S best, double bestCost, List<IslandStats> islands) {
+            this.best = best;
+            this.bestCost = bestCost;
+            this.islands = islands;
+        }
+    }
+
+    private final int islands;
+    private final int epochs;
+    private final long budgetNanos;
+    private CancelToken token;
+
+    /**
+     * @param islands     nombre de recherches (et de threads)
+     * @param epochs      nombre maximal d'époques par île
+     * @param budgetNanos durée au-delà de laquelle aucune époque n'est plus
+     *                    lancée (0 : sans limite)
+     */
+    public IslandRunner(int islands, int epochs, long budgetNanos) {
+        this.islands = islands;
+        this.epochs = epochs;
+        this.budgetNanos = budgetNanos;
+    }
+
+    /**
+     * Plus aucune époque n'est lancée une fois ce jeton annulé. Pour arrêter
+     * aussi l'époque en cours, les recherches doivent le consulter
+     * ({@link model.StopCriteria#cancelledBy}).
+     */
+    public void setCancelToken(CancelToken token) {
+        this.token = token;
+    }
+
+    /**
+     * Lance les îles et attend leur fin.
+     *
+     * @param factory crée la recherche de l'île d'indice donné ; appelée dans le
+     *                thread appelant, dans l'ordre des îles, ce qui permet d'y
+     *                dériver les générateurs aléatoires par {@code split()}
+     */
+    public Result<S> run(IntFunction<Search<S>> factory) throws InterruptedException, ExecutionException {
+        SharedBest<S> shared = new SharedBest<>();
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(islands);
+        try {
+            List<Future<IslandStats>> futures = new ArrayList<>();
+            for (int i = 0; i < islands; i++) {
+                final int island = i;
+                final Search<S> search = factory.apply(island);
+                futures.add(executor.submit(() -> runIsland(island, search, shared, start)));
+            }
+            List<IslandStats> stats = new ArrayList<>();
+            for (Future<IslandStats> f : futures)
+                stats.add(f.get());
+            SharedBest.Entry<S> best = shared.get();
+            return (best == null)
+                    ? new Result<>(null, Double.POSITIVE_INFINITY, stats)
+                    : new Result<>(best.solution, best.cost, stats);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private IslandStats runIsland(int island, Search<S> search, SharedBest<S> shared, long start) {
+        IslandStats stats = new IslandStats(island);
+        S from = null;
+        for (int e = 0; e < epochs; e++) {
+            if (budgetNanos > 0 && System.nanoTime() - start >= budgetNanos)
+                break;
+            if (Thread.currentThread().isInterrupted() || (token != null && token.isCancelled()))
+                break;
+
+            S best = search.run(from);
+            double cost = search.cost();
+            stats.epochs++;
+            if (cost < stats.bestCost)
+                stats.bestCost = cost;
+            if (shared.offer(best, cost, island))
+                stats.published++;
+
+            // époque suivante : depuis la meilleure solution partagée si elle
+            // bat celle de l'époque, sinon depuis cette dernière
+            SharedBest.Entry<S> global = shared.get();
+            if (global != null && global.cost < cost) {
+                from = global.solution;
+                stats.adopted++;
+            } else {
+                from = best;
+            }
+        }
+        stats.elapsedNanos = System.nanoTime() - start;
+        return stats;
+    }
+}
@@ -0,0 +1,26 @@
+package algo;
+
+/**
+ * Statistiques d'une île d'un {@link IslandRunner}.
+ */
+public class IslandStats {
+    public final int island;
+    public int epochs;
+    public double bestCost = Double.POSITIVE_INFINITY;
+    /** Nombre de fois où l'île a amélioré la meilleure solution partagée. */
+    public int published;
+    /** Nombre d'époques reparties de la meilleure solution partagée. */
+    public int adopted;
+    public long elapsedNanos;
+
+    public IslandStats(int island) {
+        this.island = island;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "Île %d : époques=%d, meilleur coût=%.2f, publications=%d, reprises=%d, %.0f ms",
+            island, epochs, bestCost, published, adopted, elapsedNanos / 1e6);
+    }
+}
@@ -0,0 +1,241 @@
+package algo;
+
+/**
+ * Arbre k-d en deux dimensions sur des points donnés par leurs coordonnées.
+ * L'arbre est implicite : une permutation des indices où chaque sous-intervalle
+ * [lo, hi) a pour racine son milieu, coupé alternativement selon x et y.
+ * Des points peuvent être retirés ({@link #remove}) : les requêtes les
+ * ignorent, ce qui donne le plus proche voisin restant en O(log n) en moyenne.
+ * Les requêtes réutilisent des tableaux internes : une instance ne doit pas
+ * être interrogée par plusieurs threads à la fois.
+ */
+public class KdTree {
+    private final double[] xs;
+    private final double[] ys;
+    private final int[] idx;
+
+    // tas max des k meilleurs candidats de la requête en cours
+    private double[] heapDist = new double[0];
+    private int[] heapPoint = new int[0];
+    private int heapSize;
+    private int heapCapacity;
+
+    // retraits : nombre de points restants de chaque sous-arbre, indexé par sa racine
+    private int[] live;
+    private int[] position;
+    private boolean[] removed;
+
+    // plus proche point restant de la requête en cours
+    private int nearestPoint;
+    private double nearestDist;
+
+    public KdTree(double[] xs, double[] ys) {
+        this.xs = xs;
+        this.ys = ys;
+        this.idx = new int[xs.length];
+        for (int i = 0; i < idx.length; i++)
+            idx[i] = i;
+        build(0, idx.length, 0);
+    }
+
+    public int size() {
+        return idx.length;
+    }
+
+    /**
+     * Écrit dans {@code out[offset..offset+k)} les k plus proches voisins du
+     * point {@code p} (lui-même exclu), du plus proche au plus lointain.
+     *
+     * @return le nombre de voisins écrits (au plus n-1, moins les points retirés)
+     */
+    public int kNearest(int p, int k, int[] out, int offset) {
+        k = Math.min(k, idx.length - 1);
+        if (k <= 0)
+            return 0;
+        if (heapDist.length < k) {
+            heapDist = new double[k];
+            heapPoint = new int[k];
+        }
+        heapSize = 0;
+        heapCapacity = k;
+        search(0, idx.length, 0, xs[p], ys[p], p);
+
+        // extraction du tas : du plus lointain au plus proche
+        int found = heapSize;
+        for (int r = found - 1; r >= 0; r--) {
+            out[offset + r] = heapPoint[0];
+            pop();
+        }
+        return found;
+    }
+
+    /** Retire le point p des résultats des requêtes suivantes. */
+    public void remove(int p) {
+        if (live == null)
+            initRemovals();
+        if (removed[p])
+            return;
+        removed[p] = true;
+        int target = position[p];
+        int lo = 0, hi = idx.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            live[mid]--;
+            if (target == mid)
+                break;
+            if (target < mid) hi = mid;
+            else lo = mid + 1;
+        }
+    }
+
+    /** Plus proche point restant de (qx, qy), ou -1 s'il n'en reste aucun. */
+    public int nearest(double qx, double qy) {
+        nearestPoint = -1;
+        nearestDist = Double.POSITIVE_INFINITY;
+        nearest(0, idx.length, 0, qx, qy);
+        return nearestPoint;
+    }
+
+    private void initRemovals() {
+        int n = idx.length;
+        live = new int[n];
+        position = new int[n];
+        removed = new boolean[n];
+        for (int i = 0; i < n; i++)
+            position[idx[i]] = i;
+        countLive(0, n);
+    }
+
+    private void countLive(int lo, int hi) {
+        if (lo >= hi)
+            return;
+        int mid = (lo + hi) >>> 1;
+        live[mid] = hi - lo;
+        countLive(lo, mid);
+        countLive(mid + 1, hi);
+    }
+
+    private boolean isEmpty(int mid) {
+        return live != null && live[mid] == 0;
+    }
+
+    private boolean isRemoved(int p) {
+        return removed != null && removed[p];
+    }
+
+    private void nearest(int lo, int hi, int depth, double qx, double qy) {
+        if (lo >= hi)
+            return;
+        int mid = (lo + hi) >>> 1;
+        if (isEmpty(mid))
+            return;
+        int p = idx[mid];
+        if (!isRemoved(p)) {
+            double dx = xs[p] - qx, dy = ys[p] - qy;
+            double d = dx * dx + dy * dy;
+            if (d < nearestDist) {
+                nearestDist = d;
+                nearestPoint = p;
+            }
+        }
+        double diff = ((depth & 1) == 0) ? qx - xs[p] : qy - ys[p];
+        if (diff < 0) {
+            nearest(lo, mid, depth + 1, qx, qy);
+            if (diff * diff < nearestDist)
+                nearest(mid + 1, hi, depth + 1, qx, qy);
+        } else {
+            nearest(mid + 1, hi, depth + 1, qx, qy);
+            if (diff * diff < nearestDist)
+                nearest(lo, mid, depth + 1, qx, qy);
+        }
+    }
+
+    private void build(int lo, int hi, int depth) {
+        if (hi - lo <= 1)
+            return;
+        int mid = (lo + hi) >>> 1;
+        select(lo, hi - 1, mid, (depth & 1) == 0 ? xs : ys);
+        build(lo, mid, depth + 1);
+        build(mid + 1, hi, depth + 1);
+    }
+
+    /** Place en position k l'élément de rang k de idx[lo..hi] selon coord (quickselect). */
+    private void select(int lo, int hi, int k, double[] coord) {
+        while (hi > lo) {
+            double pivot = coord[idx[(lo + hi) >>> 1]];
+            int i = lo, j = hi;
+            while (i <= j) {
+                while (coord[idx[i]] < pivot) i++;
+                while (coord[idx[j]] > pivot) j--;
+                if (i <= j) {
+                    int t = idx[i]; idx[i] = idx[j]; idx[j] = t;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) hi = j;
+            else if (k >= i) lo = i;
+            else return;
+        }
+    }
+
+    private void search(int lo, int hi, int depth, double qx, double qy, int exclude) {
+        if (lo >= hi)
+            return;
+        int mid = (lo + hi) >>> 1;
+        if (isEmpty(mid))
+            return;
+        int p = idx[mid];
+        if (p != exclude && !isRemoved(p)) {
+            double dx = xs[p] - qx, dy = ys[p] - qy;
+            offer(dx * dx + dy * dy, p);
+        }
+        double diff = ((depth & 1) == 0) ? qx - xs[p] : qy - ys[p];
+        if (diff < 0) {
+            search(lo, mid, depth + 1, qx, qy, exclude);
+            if (heapSize < heapCapacity || diff * diff < heapDist[0])
+                search(mid + 1, hi, depth + 1, qx, qy, exclude);
+        } else {
+            search(mid + 1, hi, depth + 1, qx, qy, exclude);
+            if (heapSize < heapCapacity || diff * diff < heapDist[0])
+                search(lo, mid, depth + 1, qx, qy, exclude);
+        }
+    }
+
+    private void offer(double d, int p) {
+        if (heapSize < heapCapacity) {
+            int i = heapSize++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (heapDist[parent] >= d) break;
+                heapDist[i] = heapDist[parent];
+                heapPoint[i] = heapPoint[parent];
+                i = parent;
+            }
+            heapDist[i] = d;
+            heapPoint[i] = p;
+        } else if (d < heapDist[0]) {
+            siftDown(0, d, p);
+        }
+    }
+
+    private void pop() {
+        heapSize--;
+        if (heapSize > 0)
+            siftDown(0, heapDist[heapSize], heapPoint[heapSize]);
+    }
+
+    private void siftDown(int i, double d, int p) {
+        while (true) {
+            int c = 2 * i + 1;
+            if (c >= heapSize) break;
+            if (c + 1 < heapSize && heapDist[c + 1] > heapDist[c]) c++;
+            if (heapDist[c] <= d) break;
+            heapDist[i] = heapDist[c];
+            heapPoint[i] = heapPoint[c];
+            i = c;
+        }
+        heapDist[i] = d;
+        heapPoint[i] = p;
+    }
+}
@@ -0,0 +1,16 @@
+package algo;
+
+/**
+ * Constructions de la solution de départ du sac à dos.
+ */
+public enum KnapsackConstruction {
+    /** Items pris dans un ordre aléatoire, chacun s'il tient encore. */
+    RANDOM,
+    /** Items par rapport valeur/poids décroissant, chacun s'il tient encore. */
+    GREEDY,
+    /**
+     * Glouton randomisé : chaque item est tiré au hasard parmi les meilleurs
+     * rapports valeur/poids qui tiennent encore (liste restreinte de candidats).
+     */
+    RANDOMIZED_GREEDY
+}
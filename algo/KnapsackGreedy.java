@@ -0,0 +1,136 @@
+package algo;
+
+import java.util.stream.IntStream;
+
+/**
+ * Constructions gloutonnes et borne de Dantzig du sac à dos, sur les poids et
+ * valeurs à plat. L'ordre par rapport valeur/poids est calculé une fois
+ * (O(n log n)) ; chaque construction est ensuite en O(n).
+ */
+final class KnapsackGreedy {
+    private final double[] weights;
+    private final double[] values;
+    private final double capacity;
+    private final int[] order;     // rapport valeur/poids décroissant
+
+    KnapsackGreedy(double[] weights, double[] values, double capacity) {
+        this.weights = weights;
+        this.values = values;
+        this.capacity = capacity;
+        this.order = IntStream.range(0, weights.length).boxed()
+                .sorted((a, b) -> Double.compare(ratio(b), ratio(a)))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    /** Rapport valeur/poids ; +∞ pour un item sans poids et de valeur positive. */
+    double ratio(int i) {
+        if (weights[i] > 0)
+            return values[i] / weights[i];
+        return (values[i] > 0) ? Double.POSITIVE_INFINITY : 0;
+    }
+
+    /** Solution de départ selon la construction choisie ; toujours réalisable. */
+    boolean[] build(KnapsackConstruction construction, SearchRandom random, int candidates) {
+        switch (construction) {
+            case RANDOM:
+                return randomOrder(random);
+            case RANDOMIZED_GREEDY:
+                return randomizedGreedy(random, candidates);
+            default:
+                return greedy();
+        }
+    }
+
+    /** Items par rapport décroissant, chacun s'il tient. */
+    boolean[] greedy() {
+        boolean[] sol = new boolean[weights.length];
+        double room = capacity;
+        for (int i : order) {
+            if (weights[i] <= room) {
+                sol[i] = true;
+                room -= weights[i];
+            }
+        }
+        return sol;
+    }
+
+    /** Items dans un ordre aléatoire (mélange de Fisher-Yates), chacun s'il tient. */
+    boolean[] randomOrder(SearchRandom random) {
+        int n = weights.length;
+        int[] shuffled = new int[n];
+        for (int i = 0; i < n; i++)
+            shuffled[i] = i;
+        for (int i = n - 1; i > 0; i--) {
+            int k = random.nextInt(i + 1);
+            int tmp = shuffled[i];
+            shuffled[i] = shuffled[k];
+            shuffled[k] = tmp;
+        }
+        boolean[] sol = new boolean[n];
+        double room = capacity;
+        for (int i : shuffled) {
+            if (weights[i] <= room) {
+                sol[i] = true;
+                room -= weights[i];
+            }
+        }
+        return sol;
+    }
+
+    /**
+     * Glouton randomisé : l'item ajouté est tiré parmi les {@code candidates}
+     * premiers items (par rapport décroissant) qui tiennent encore. Un item
+     * qui ne tient plus ne tiendra plus jamais : chacun est examiné une fois.
+     */
+    boolean[] randomizedGreedy(SearchRandom random, int candidates) {
+        boolean[] sol = new boolean[weights.length];
+        int[] window = new int[candidates];
+        int size = 0;
+        int next = 0;
+        double room = capacity;
+        while (true) {
+            while (size < candidates && next < order.length) {
+                int i = order[next++];
+                if (weights[i] <= room)
+                    window[size++] = i;
+            }
+            if (size == 0)
+                return sol;
+            int pick = random.nextInt(size);
+            int item = window[pick];
+            window[pick] = window[--size];
+            sol[item] = true;
+            room -= weights[item];
+            // retire de la liste les candidats qui ne tiennent plus
+            int kept = 0;
+            for (int k = 0; k < size; k++) {
+                if (weights[window[k]] <= room)
+                    window[kept++] = window[k];
+            }
+            size = kept;
+        }
+    }
+
+    /**
+     * Borne de Dantzig : valeur de la relaxation linéaire (items par rapport
+     * décroissant, le premier qui ne tient pas pris en fraction). Aucune
+     * solution ne la dépasse.
+     */
+    double dantzigBound() {
+        double room = capacity;
+        double bound = 0;
+        for (int i : order) {
+            if (values[i] <= 0)
+                break;
+            if (weights[i] <= room) {
+                room -= weights[i];
+                bound += values[i];
+            } else {
+                bound += values[i] * (room / weights[i]);
+                break;
+            }
+        }
+        return bound;
+    }
+}
@@ -0,0 +1,155 @@
+package algo;
+
+import java.util.Arrays;
+import java.util.List;
+import model.Item;
+
+/**
+ * Solution courante du sac à dos sous forme de bitset {@code long[]}, avec son
+ * poids et sa valeur tenus à jour à chaque bascule. Les mouvements de 1 ou 2
+ * bits sont évalués en O(1) sans rien allouer.
+ */
+public class KnapsackSolution {
+    private final double[] weights;
+    private final double[] values;
+    private final long[] bits;
+    private final int size;
+    private double weight;
+    private double value;
+    private long hash;
+
+    /** Solution vide (aucun item) sur les poids et valeurs donnés. */
+    public KnapsackSolution(double[] weights, double[] values) {
+        this.weights = weights;
+        this.values  = values;
+        this.size    = weights.length;
+        this.bits    = new long[(size + 63) >>> 6];
+    }
+
+    /** Copie les poids et valeurs des items dans des tableaux primitifs. */
+    public static KnapsackSolution of(List<Item> items) {
+        double[] w = new double[items.size()];
+        double[] v = new double[items.size()];
+        for (int i = 0; i < w.length; i++) {
+            w[i] = items.get(i).weight;
+            v[i] = items.get(i).value;
+        }
+        return new KnapsackSolution(w, v);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double weight() {
+        return weight;
+    }
+
+    public double value() {
+        return value;
+    }
+
+    /** Empreinte de Zobrist de la solution. */
+    public long hash() {
+        return hash;
+    }
+
+    /** Empreinte de la solution obtenue en basculant i et j (ignorés s'ils sont &lt; 0). */
+    public long flipHash(int i, int j) {
+        long h = hash;
+        if (i >= 0) h ^= Zobrist.itemKey(i);
+        if (j >= 0) h ^= Zobrist.itemKey(j);
+        return h;
+    }
+
+    /** Vrai si l'item i est dans le sac. */
+    public boolean get(int i) {
+        return (bits[i >>> 6] & (1L << i)) != 0;
+    }
+
+    /** Variation de poids si l'on bascule l'item i. */
+    public double deltaWeight(int i) {
+        return get(i) ? -weights[i] : weights[i];
+    }
+
+    /** Variation de valeur si l'on bascule l'item i. */
+    public double deltaValue(int i) {
+        return get(i) ? -values[i] : values[i];
+    }
+
+    /** Bascule l'item i et met à jour le poids et la valeur. */
+    public void flip(int i) {
+        weight += deltaWeight(i);
+        value  += deltaValue(i);
+        hash   ^= Zobrist.itemKey(i);
+        bits[i >>> 6] ^= 1L << i;
+    }
+
+    /** Remplace le contenu par la solution binaire donnée. */
+    public void set(boolean[] sol) {
+        Arrays.fill(bits, 0L);
+        weight = 0;
+        value = 0;
+        hash = 0;
+        for (int i = 0; i < size; i++)
+            if (sol[i]) flip(i);
+    }
+
+    /**
+     * Remplace le contenu par un bitset, avec le poids et la valeur tenus à
+     * jour par la recherche (relus d'un point de reprise : les recalculer
+     * changerait leurs arrondis).
+     */
+    public void restore(long[] words, double weight, double value) {
+        System.arraycopy(words, 0, bits, 0, bits.length);
+        this.weight = weight;
+        this.value = value;
+        hash = 0;
+        for (int i = 0; i < size; i++)
+            if (get(i)) hash ^= Zobrist.itemKey(i);
+    }
+
+    /** Remplace le contenu par celui d'une autre solution de même instance. */
+    public void copyFrom(KnapsackSolution other) {
+        System.arraycopy(other.bits, 0, bits, 0, bits.length);
+        weight = other.weight;
+        value  = other.value;
+        hash   = other.hash;
+    }
+
+    /** Copie indépendante de la solution. */
+    public KnapsackSolution copy() {
+        KnapsackSolution c = new KnapsackSolution(weights, values);
+        c.copyFrom(this);
+        return c;
+    }
+
+    /** Copie des mots du bitset. */
+    public long[] bitsCopy() {
+        return Arrays.copyOf(bits, bits.length);
+    }
+
+    /**
+     * Compare la solution obtenue en basculant i et j (ignorés s'ils sont &lt; 0)
+     * à un bitset mémorisé, sans construire le voisin.
+     */
+    public boolean flipEquals(int i, int j, long[] other) {
+        int wi = (i >= 0) ? i >>> 6 : -1, wj = (j >= 0) ? j >>> 6 : -1;
+        for (int k = 0; k < bits.length; k++) {
+            long word = bits[k];
+            if (k == wi) word ^= 1L << i;
+            if (k == wj) word ^= 1L << j;
+            if (word != other[k])
+                return false;
+        }
+        return true;
+    }
+
+    /** Convertit en vecteur binaire. */
+    public boolean[] toBooleanArray() {
+        boolean[] sol = new boolean[size];
+        for (int i = 0; i < size; i++)
+            sol[i] = get(i);
+        return sol;
+    }
+}
@@ -0,0 +1,65 @@
+package algo;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+
+/**
+ * Parcours d'un voisinage découpé en intervalles d'indices d'ancrage, évalués
+ * sur un {@link ForkJoinPool}. Chaque intervalle renvoie son meilleur
+ * mouvement ; les résultats sont combinés dans l'ordre des intervalles, avec
+ * préférence à gauche en cas d'égalité, de sorte que le mouvement retenu est
+ * exactement celui d'un parcours séquentiel.
+ */
+final class ParallelScan {
+
+    /** Nombre d'intervalles visés par thread, pour l'équilibrage par vol de tâches. */
+    private static final int CHUNKS_PER_THREAD = 8;
+
+    /** Meilleur mouvement d'un intervalle [from, to) d'indices d'ancrage. */
+    interface RangeScanner<M> {
+        M scan(int from, int to);
+    }
+
+    private ParallelScan() {
+    }
+
+    /**
+     * Parcourt les indices d'ancrage [0, n).
+     *
+     * @param combine renvoie le meilleur de (gauche, droite), la gauche en cas d'égalité
+     */
+    static <M> M run(ForkJoinPool pool, int n, RangeScanner<M> scanner, BinaryOperator<M> combine) {
+        int grain = Math.max(1, n / (pool.getParallelism() * CHUNKS_PER_THREAD));
+        return pool.invoke(new Task<>(scanner, combine, 0, n, grain));
+    }
+
+    private static final class Task<M> extends RecursiveTask<M> {
+        private static final long serialVersionUID = 1L;
+
+        private final RangeScanner<M> scanner;
+        private final BinaryOperator<M> combine;
+        private final int from;
+        private final int to;
+        private final int grain;
+
+        Task(RangeScanner<M> scanner, BinaryOperator<M> combine, int from, int to, int grain) {
+            this.scanner = scanner;
+            this.combine = combine;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+
+        @Override
+        protected M compute() {
+            if (to - from <= grain)
+                return scanner.scan(from, to);
+            int mid = (from + to) >>> 1;
+            Task<M> left = new Task<>(scanner, combine, from, mid, grain);
+            left.fork();
+            M right = new Task<>(scanner, combine, mid, to, grain).compute();
+            return combine.apply(left.join(), right);
+        }
+    }
+}
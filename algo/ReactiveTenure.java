@@ -0,0 +1,191 @@
+package algo;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Durée tabou réactive (Battiti et Tecchiolli) : l'empreinte de chaque
+ * solution courante est cherchée dans un historique. Une solution revue après
+ * un cycle court allonge la durée de 10 % ; une longue période sans répétition
+ * (plus longue que la moyenne mobile des cycles, qui part de la longueur
+ * maximale d'un cycle) la raccourcit de 10 %. Quand trop de solutions ont été
+ * revues plusieurs fois, la recherche est « chaotique » et doit s'évader par
+ * une marche aléatoire.
+ * <p>
+ * L'historique est une table à adressage ouvert de taille fixe, vidée quand
+ * elle est à moitié pleine et après chaque évasion.
+ */
+final class ReactiveTenure {
+    /** Emplacements de l'historique des empreintes. */
+    static final int HISTORY = 1 << 16;
+
+    private static final double INCREASE = 1.1;
+    private static final double DECREASE = 0.9;
+    /** Visites d'une même solution au-delà desquelles elle compte comme chaotique. */
+    private static final int REPETITIONS = 3;
+    /** Solutions chaotiques au-delà desquelles la recherche s'évade. */
+    private static final int CHAOTIC = 3;
+    /** Poids d'un nouveau cycle dans la moyenne mobile. */
+    private static final double CYCLE_WEIGHT = 0.1;
+
+    private final int minTenure;
+    private final int maxTenure;
+    private final int cycleMax;
+
+    private double tenure;
+    private double meanCycle;
+    private int lastChange;
+    private int chaotic;
+    private int escapes;
+
+    // historique : empreinte -> dernière visite, nombre de visites (0 : emplacement libre)
+    private final long[] keys = new long[HISTORY];
+    private final int[] lastVisit = new int[HISTORY];
+    private final int[] visits = new int[HISTORY];
+    private int used;
+
+    // trajectoire : (itération, durée) à chaque changement de la durée entière
+    private int[] trajectory = new int[32];
+    private int points;
+
+    /**
+     * @param initial  durée de départ
+     * @param cycleMax longueur au-delà de laquelle une répétition n'est plus un cycle
+     */
+    ReactiveTenure(int initial, int minTenure, int maxTenure, int cycleMax) {
+        this.minTenure = minTenure;
+        this.maxTenure = maxTenure;
+        this.cycleMax = cycleMax;
+        this.tenure = Math.max(minTenure, Math.min(maxTenure, initial));
+        // sans cycle observé, la durée ne baisse qu'après cycleMax itérations sans répétition
+        this.meanCycle = cycleMax;
+        record(0);
+    }
+
+    /** Durée tabou courante. */
+    int tenure() {
+        return (int) tenure;
+    }
+
+    /** Nombre d'évasions. */
+    int escapes() {
+        return escapes;
+    }
+
+    /** Paires (itération, durée) à chaque changement, à plat, depuis l'itération 0. */
+    int[] trajectory() {
+        return Arrays.copyOf(trajectory, 2 * points);
+    }
+
+    /** Nombre de mouvements aléatoires d'une évasion : la moitié du cycle moyen. */
+    int escapeSteps() {
+        return 1 + (int) Math.min(maxTenure, (1 + meanCycle) / 2);
+    }
+
+    /**
+     * Note la solution courante de l'itération iter et ajuste la durée.
+     *
+     * @return vrai si la recherche doit s'évader (l'historique est alors vidé)
+     */
+    boolean visit(long hash, int iter) {
+        int slot = home(hash);
+        while (visits[slot] != 0 && keys[slot] != hash)
+            slot = (slot + 1) & (HISTORY - 1);
+        if (visits[slot] != 0) {
+            int cycle = iter - lastVisit[slot];
+            lastVisit[slot] = iter;
+            if (++visits[slot] > REPETITIONS && ++chaotic > CHAOTIC) {
+                chaotic = 0;
+                escapes++;
+                clearHistory();
+                return true;
+            }
+            if (cycle < cycleMax) {
+                meanCycle = CYCLE_WEIGHT * cycle + (1 - CYCLE_WEIGHT) * meanCycle;
+                change(Math.max(tenure * INCREASE, tenure + 1), iter);
+                return false;
+            }
+        } else {
+            if (2 * used >= HISTORY) {
+                clearHistory();
+                return visit(hash, iter);
+            }
+            keys[slot] = hash;
+            lastVisit[slot] = iter;
+            visits[slot] = 1;
+            used++;
+        }
+        if (iter - lastChange > meanCycle)
+            change(Math.min(tenure * DECREASE, tenure - 1), iter);
+        return false;
+    }
+
+    private void change(double value, int iter) {
+        int before = (int) tenure;
+        tenure = Math.max(minTenure, Math.min(maxTenure, value));
+        lastChange = iter;
+        if ((int) tenure != before)
+            record(iter);
+    }
+
+    private void record(int iter) {
+        if (2 * points + 2 > trajectory.length)
+            trajectory = Arrays.copyOf(trajectory, 2 * trajectory.length);
+        trajectory[2 * points] = iter;
+        trajectory[2 * points + 1] = (int) tenure;
+        points++;
+    }
+
+    private void clearHistory() {
+        Arrays.fill(visits, 0);
+        used = 0;
+    }
+
+    private static int home(long hash) {
+        return (int) (hash ^ (hash >>> 32)) & (HISTORY - 1);
+    }
+
+    /** Taille de l'état écrit par {@link #write}. */
+    long stateBytes() {
+        return 8 + 8 + 3 * 4 + 4 + 16L * used + 4 + 8L * points;
+    }
+
+    /** Écrit l'état (durée, moyenne, compteurs, historique, trajectoire) dans un point de reprise. */
+    void write(ByteBuffer buf) {
+        buf.putDouble(tenure).putDouble(meanCycle)
+           .putInt(lastChange).putInt(chaotic).putInt(escapes);
+        buf.putInt(used);
+        for (int slot = 0; slot < HISTORY; slot++) {
+            if (visits[slot] != 0)
+                buf.putLong(keys[slot]).putInt(lastVisit[slot]).putInt(visits[slot]);
+        }
+        buf.putInt(points);
+        for (int k = 0; k < 2 * points; k++)
+            buf.putInt(trajectory[k]);
+    }
+
+    /** Relit l'état écrit par {@link #write}. */
+    void read(ByteBuffer buf) {
+        tenure = buf.getDouble();
+        meanCycle = buf.getDouble();
+        lastChange = buf.getInt();
+        chaotic = buf.getInt();
+        escapes = buf.getInt();
+        clearHistory();
+        int entries = buf.getInt();
+        for (int e = 0; e < entries; e++) {
+            long hash = buf.getLong();
+            int slot = home(hash);
+            while (visits[slot] != 0)
+                slot = (slot + 1) & (HISTORY - 1);
+            keys[slot] = hash;
+            lastVisit[slot] = buf.getInt();
+            visits[slot] = buf.getInt();
+            used++;
+        }
+        points = buf.getInt();
+        trajectory = new int[Math.max(32, 2 * points)];
+        for (int k = 0; k < 2 * points; k++)
+            trajectory[k] = buf.getInt();
+    }
+}
@@ -0,0 +1,96 @@
+package algo;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Alternance des phases de la mémoire à long terme, déclenchée par la
+ * stagnation : après {@code stagnation} itérations sans amélioration du
+ * meilleur, la recherche entre tour à tour en diversification (mouvements
+ * notés avec une pénalité de fréquence pendant {@code stagnation / 2}
+ * itérations, ou jusqu'à un nouveau meilleur) et en intensification (relance
+ * depuis une solution d'élite).
+ */
+final class SearchPhases {
+
+    /** Changement de phase signalé après une itération. */
+    enum Switch {
+        NONE,
+        /** Début d'une diversification. */
+        DIVERSIFY,
+        /** Fin d'une diversification. */
+        END_DIVERSIFICATION,
+        /** Intensification : relance depuis une solution d'élite. */
+        RESTART
+    }
+
+    private final int stagnation;
+    private final int diversificationLength;
+    private int stale;            // itérations sans amélioration depuis le dernier changement
+    private int remaining;        // itérations de diversification restantes (0 : phase normale)
+    private boolean restartNext;  // la prochaine stagnation relance au lieu de diversifier
+    private int diversifications;
+    private int restarts;
+
+    SearchPhases(int stagnation) {
+        this.stagnation = stagnation;
+        this.diversificationLength = Math.max(1, stagnation / 2);
+    }
+
+    /** Vrai pendant une diversification : les mouvements sont pénalisés. */
+    boolean diversifying() {
+        return remaining > 0;
+    }
+
+    int diversifications() {
+        return diversifications;
+    }
+
+    int restarts() {
+        return restarts;
+    }
+
+    /** Note la fin d'une itération et renvoie le changement de phase à effectuer. */
+    Switch afterIteration(boolean improved) {
+        if (remaining > 0) {
+            if (improved || --remaining == 0) {
+                remaining = 0;
+                stale = 0;
+                return Switch.END_DIVERSIFICATION;
+            }
+            return Switch.NONE;
+        }
+        stale = improved ? 0 : stale + 1;
+        if (stale < stagnation)
+            return Switch.NONE;
+        stale = 0;
+        if (restartNext) {
+            restartNext = false;
+            restarts++;
+            return Switch.RESTART;
+        }
+        restartNext = true;
+        diversifications++;
+        remaining = diversificationLength;
+        return Switch.DIVERSIFY;
+    }
+
+    /** Taille de l'état écrit par {@link #write}. */
+    static int stateBytes() {
+        return 5 * 4;
+    }
+
+    /** Écrit l'état (compteurs et phase courante) dans un point de reprise. */
+    void write(ByteBuffer buf) {
+        buf.putInt(stale).putInt(remaining).putInt(restartNext ? 1 : 0)
+           .putInt(diversifications).putInt(restarts);
+    }
+
+    /** Relit l'état écrit par {@link #write}. */
+    void read(ByteBuffer buf) {
+        stale = buf.getInt();
+        remaining = buf.getInt();
+        restartNext = buf.getInt() != 0;
+        diversifications = buf.getInt();
+        restarts = buf.getInt();
+    }
+}
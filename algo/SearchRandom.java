@@ -0,0 +1,50 @@
+package algo;
+
+/**
+ * Générateur SplitMix64 d'une exécution de recherche. Son état tient dans un
+ * {@code long} enregistré dans les points de reprise, ce que
+ * {@link java.util.SplittableRandom} ne permet pas : chaque appel à
+ * {@code optimize} en tire la graine du générateur de la recherche.
+ */
+final class SearchRandom {
+    private static final long GAMMA = 0x9E3779B97F4A7C15L;
+
+    private long state;
+
+    SearchRandom(long state) {
+        this.state = state;
+    }
+
+    /** État courant ; {@code new SearchRandom(state())} poursuit la même séquence. */
+    long state() {
+        return state;
+    }
+
+    long nextLong() {
+        long z = (state += GAMMA);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /** Entier uniforme dans [0, bound). */
+    int nextInt(int bound) {
+        int r = (int) (nextLong() >>> 33);
+        int m = bound - 1;
+        if ((bound & m) == 0)
+            return r & m;
+        // rejet des tirages de la dernière tranche incomplète
+        for (int u = r; u - (r = u % bound) + m < 0; u = (int) (nextLong() >>> 33))
+            ;
+        return r;
+    }
+
+    /** Réel uniforme dans [0, 1). */
+    double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    boolean nextBoolean() {
+        return nextLong() < 0;
+    }
+}
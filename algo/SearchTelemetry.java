@@ -0,0 +1,69 @@
+package algo;
+
+import model.SamplingPolicy;
+import model.SearchListener;
+
+/**
+ * Compteurs d'une recherche et notification échantillonnée d'un
+ * {@link SearchListener}. Sans écouteur, {@link #iteration} ne fait rien.
+ */
+final class SearchTelemetry {
+    private final SearchListener listener;
+    private final SamplingPolicy policy;
+    private final boolean active;
+    private final long start;
+    private long last;
+
+    private long neighborsEvaluated;
+    private long tabuRejections;
+    private long aspirationHits;
+
+    SearchTelemetry(SearchListener listener, SamplingPolicy policy) {
+        this.listener = listener;
+        this.policy = policy;
+        this.active = listener != SearchListener.NONE && policy != SamplingPolicy.NEVER;
+        this.start = active ? System.nanoTime() : 0L;
+        this.last = start;
+    }
+
+    /** Ajoute les compteurs d'un parcours du voisinage. */
+    void count(long evaluated, long rejections, long aspirations) {
+        neighborsEvaluated += evaluated;
+        tabuRejections += rejections;
+        aspirationHits += aspirations;
+    }
+
+    long neighborsEvaluated() {
+        return neighborsEvaluated;
+    }
+
+    long tabuRejections() {
+        return tabuRejections;
+    }
+
+    long aspirationHits() {
+        return aspirationHits;
+    }
+
+    /** Reprend les compteurs d'une recherche interrompue. */
+    void restore(long evaluated, long rejections, long aspirations) {
+        neighborsEvaluated = evaluated;
+        tabuRejections = rejections;
+        aspirationHits = aspirations;
+    }
+
+    /** Fin d'une itération : notifie l'écouteur si la politique la retient. */
+    void iteration(int iteration, double currentCost, double bestCost, boolean improved) {
+        if (!active)
+            return;
+        boolean clock = policy.usesClock();
+        long now = clock ? System.nanoTime() : 0L;
+        if (!policy.samples(iteration, improved, now - last))
+            return;
+        if (!clock)
+            now = System.nanoTime();
+        last = now;
+        listener.onIteration(iteration, currentCost, bestCost,
+                neighborsEvaluated, tabuRejections, aspirationHits, now - start);
+    }
+}
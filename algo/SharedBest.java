@@ -0,0 +1,49 @@
+package algo;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Meilleure solution connue, partagée entre plusieurs recherches et mise à
+ * jour sans verrou par compare-and-set.
+ *
+ * @param <S> représentation des solutions
+ */
+public class SharedBest<S> {
+
+    /** Solution publiée, avec son coût (à minimiser) et l'île qui l'a trouvée. */
+    public static final class Entry<S> {
+        public final S solution;
+        public final double cost;
+        public final int island;
+
+        Entry(S solution, double cost, int island) {
+            this.solution = solution;
+            this.cost = cost;
+            this.island = island;
+        }
+    }
+
+    private final AtomicReference<Entry<S>> best = new AtomicReference<>();
+
+    /**
+     * Publie une solution si elle est strictement meilleure que la solution
+     * partagée. La solution ne doit plus être modifiée ensuite.
+     *
+     * @return vrai si elle est devenue la meilleure
+     */
+    public boolean offer(S solution, double cost, int island) {
+        Entry<S> candidate = new Entry<>(solution, cost, island);
+        while (true) {
+            Entry<S> current = best.get();
+            if (current != null && current.cost <= cost)
+                return false;
+            if (best.compareAndSet(current, candidate))
+                return true;
+        }
+    }
+
+    /** Meilleure entrée publiée, ou null. */
+    public Entry<S> get() {
+        return best.get();
+    }
+}
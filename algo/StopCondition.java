@@ -0,0 +1,101 @@
+package algo;
+
+import model.CancelToken;
+import model.StopCriteria;
+
+/**
+ * État des critères d'arrêt pendant une recherche. L'horloge et le jeton ne
+ * sont lus que toutes les {@link StopCriteria#checkInterval()} évaluations ;
+ * la raison de l'arrêt, une fois fixée, est visible de tous les threads d'un
+ * parcours parallèle.
+ */
+final class StopCondition {
+    private final boolean maximize;
+    private final boolean timed;
+    private final long deadline;
+    private final CancelToken token;
+    private final int maxStale;
+    private final double target;
+    private final int checkInterval;
+
+    private int stale;
+    private long pending;
+    private volatile StopCriteria.Reason reason;
+
+    /**
+     * @param maximize vrai si le coût est une valeur à maximiser (coût cible atteint par le haut)
+     */
+    StopCondition(StopCriteria criteria, boolean maximize) {
+        this.maximize = maximize;
+        this.timed = criteria.budgetNanos() > 0;
+        this.deadline = timed ? System.nanoTime() + criteria.budgetNanos() : 0L;
+        this.token = criteria.token();
+        this.maxStale = criteria.maxStaleIterations();
+        this.target = criteria.target();
+        this.checkInterval = criteria.checkInterval();
+        if (token != null && token.isCancelled())
+            reason = StopCriteria.Reason.CANCELLED;
+    }
+
+    /** Évaluations de voisins entre deux appels à {@link #interrupted()} pendant un parcours. */
+    int checkInterval() {
+        return checkInterval;
+    }
+
+    /** Vrai si un critère a arrêté la recherche (sans lire l'horloge). */
+    boolean isStopped() {
+        return reason != null;
+    }
+
+    /** Raison de l'arrêt, MAX_ITERATIONS si aucun critère n'a été atteint. */
+    StopCriteria.Reason reason() {
+        StopCriteria.Reason r = reason;
+        return (r == null) ? StopCriteria.Reason.MAX_ITERATIONS : r;
+    }
+
+    /** Itérations consécutives sans amélioration. */
+    int staleIterations() {
+        return stale;
+    }
+
+    /** Reprend le compte d'itérations sans amélioration d'une recherche interrompue. */
+    void restoreStale(int iterations) {
+        stale = iterations;
+    }
+
+    /** Lit le jeton et l'horloge ; vrai si la recherche doit s'arrêter. */
+    boolean interrupted() {
+        if (reason != null)
+            return true;
+        if (token != null && token.isCancelled())
+            reason = StopCriteria.Reason.CANCELLED;
+        else if (timed && System.nanoTime() - deadline >= 0)
+            reason = StopCriteria.Reason.TIME_BUDGET;
+        return reason != null;
+    }
+
+    /**
+     * Fin d'une itération : met à jour le compte d'itérations sans
+     * amélioration, compare le meilleur coût à la cible, et lit l'horloge si
+     * assez de voisins ont été évalués depuis la dernière lecture.
+     *
+     * @return vrai si la recherche doit s'arrêter
+     */
+    boolean afterIteration(long evaluated, double bestCost, boolean improved) {
+        if (reason != null)
+            return true;
+        stale = improved ? 0 : stale + 1;
+        if (maxStale > 0 && stale >= maxStale) {
+            reason = StopCriteria.Reason.NO_IMPROVEMENT;
+        } else if (!Double.isNaN(target) && (maximize ? bestCost >= target : bestCost <= target)) {
+            reason = StopCriteria.Reason.TARGET_REACHED;
+        } else {
+            pending += Math.max(1, evaluated);
+            if (pending >= checkInterval) {
+                pending = 0;
+                return interrupted();
+            }
+        }
+        return reason != null;
+    }
+}
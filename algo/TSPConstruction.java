@@ -0,0 +1,24 @@
+package algo;
+
+/**
+ * Constructions de la route de départ du TSP. Les trois heuristiques
+ * géométriques sont en O(n log n) et utilisent les coordonnées des villes.
+ */
+public enum TSPConstruction {
+    /** Permutation aléatoire des villes. */
+    RANDOM,
+    /**
+     * Plus proche voisin : depuis une ville tirée au hasard, aller à chaque
+     * fois à la plus proche ville non visitée (arbre k-d avec retraits).
+     */
+    NEAREST_NEIGHBOR,
+    /**
+     * Appariement glouton des arêtes : les arêtes des listes de candidats,
+     * de la plus courte à la plus longue, tant qu'elles ne créent ni ville de
+     * degré 3 ni cycle ; les fragments sont ensuite reliés par plus proche
+     * extrémité.
+     */
+    GREEDY_EDGE,
+    /** Ordre des villes le long d'une courbe de Hilbert couvrant l'instance. */
+    SPACE_FILLING_CURVE
+}
@@ -0,0 +1,13 @@
+package algo;
+
+/**
+ * Voisinages disponibles pour la Recherche Tabou du TSP.
+ */
+public enum TSPNeighborhood {
+    /** Échange des villes de deux positions. */
+    SWAP,
+    /** Inversion du segment entre deux arêtes (2-opt). */
+    TWO_OPT,
+    /** Déplacement d'un segment de 1 à 3 villes, éventuellement inversé (Or-opt). */
+    OR_OPT
+}
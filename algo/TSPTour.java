@@ -0,0 +1,440 @@
+package algo;
+
+import model.DistanceOracle;
+
+/**
+ * Route courante du TSP (tableau d'indices de ville) avec la position de
+ * chaque ville, son empreinte de Zobrist et sa longueur. L'empreinte et
+ * l'égalité portent sur le cycle (l'ensemble des arêtes non orientées), pas
+ * sur les positions : une route tournée ou parcourue à l'envers est la même.
+ * <p>
+ * Les mouvements sont décrits par (i, j, k) :
+ * <ul>
+ *   <li>{@link TSPNeighborhood#SWAP} : échange des positions i &lt; j ;</li>
+ *   <li>{@link TSPNeighborhood#TWO_OPT} : inversion des positions i+1..j (i &lt; j) ;</li>
+ *   <li>{@link TSPNeighborhood#OR_OPT} : le segment de |k| villes commençant en i
+ *       est réinséré entre les positions j et j+1, inversé si k &lt; 0.</li>
+ * </ul>
+ * Les deltas sont calculés sur les seules arêtes touchées ; la longueur après
+ * application est recalculée en entier pour rester exacte.
+ */
+public class TSPTour {
+    private final DistanceOracle oracle;
+    private final int[] tour;
+    private final int[] pos;
+    private final int n;
+    private int[] segment = new int[3];         // segment déplacé par un Or-opt
+    private long hash;
+    private double length;
+
+    public TSPTour(int[] route, DistanceOracle oracle) {
+        this.oracle = oracle;
+        this.tour = route.clone();
+        this.n = route.length;
+        this.pos = new int[n];
+        for (int k = 0; k < n; k++)
+            pos[tour[k]] = k;
+        this.hash = hash(tour);
+        this.length = length(tour, oracle);
+    }
+
+    /** Calcule la distance totale d’une route (boucle fermée). */
+    public static double length(int[] route, DistanceOracle oracle) {
+        double distance = 0;
+        for (int i = 0; i < route.length - 1; i++) {
+            distance += oracle.distance(route[i], route[i + 1]);
+        }
+        distance += oracle.distance(route[route.length - 1], route[0]);
+        return distance;
+    }
+
+    /** Empreinte de Zobrist d'une route : XOR des clés de ses arêtes non orientées. */
+    public static long hash(int[] route) {
+        long h = 0;
+        for (int k = 0; k < route.length; k++)
+            h ^= Zobrist.edgeKey(route[k], route[(k + 1) % route.length]);
+        return h;
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public double length() {
+        return length;
+    }
+
+    public long hash() {
+        return hash;
+    }
+
+    /** Ville à la position k. */
+    public int cityAt(int k) {
+        return tour[k];
+    }
+
+    /** Position de la ville c. */
+    public int positionOf(int c) {
+        return pos[c];
+    }
+
+    /** Copie de la route. */
+    public int[] toArray() {
+        return tour.clone();
+    }
+
+    /** Vrai si la route forme le même cycle que {@code other}. */
+    public boolean sameAs(int[] other) {
+        return sameCycle(tour, other);
+    }
+
+    /** Vrai si les deux routes forment le même cycle, à rotation et sens près. */
+    static boolean sameCycle(int[] a, int[] b) {
+        int n = a.length;
+        if (b.length != n)
+            return false;
+        if (n == 0)
+            return true;
+        int start = -1;
+        for (int q = 0; q < n && start < 0; q++) {
+            if (b[q] == a[0])
+                start = q;
+        }
+        if (start < 0)
+            return false;
+        boolean forward = true, backward = true;
+        for (int q = 1; q < n && (forward || backward); q++) {
+            forward &= a[q] == b[(start + q) % n];
+            backward &= a[q] == b[(start - q + n) % n];
+        }
+        return forward || backward;
+    }
+
+    private double dist(int a, int b) {
+        return oracle.distance(tour[a], tour[b]);
+    }
+
+    // ----- deltas -----
+
+    /** Variation de longueur du mouvement (i, j, k) du voisinage donné. */
+    public double delta(TSPNeighborhood type, int i, int j, int k) {
+        switch (type) {
+            case TWO_OPT: return twoOptDelta(i, j);
+            case OR_OPT:  return orOptDelta(i, j, k);
+            default:      return swapDelta(i, j);
+        }
+    }
+
+    /**
+     * Variation de longueur de la route (boucle fermée) si l'on échange les
+     * positions i &lt; j. Seules les arêtes touchées par l'échange sont évaluées.
+     */
+    public double swapDelta(int i, int j) {
+        if (n <= 3)
+            return 0; // toutes les tournées ont la même longueur
+        int pi = (i - 1 + n) % n, ni = (i + 1) % n;
+        int pj = (j - 1 + n) % n, nj = (j + 1) % n;
+
+        if (ni == j) {
+            // i juste avant j : (pi,i)(i,j)(j,nj) -> (pi,j)(j,i)(i,nj)
+            return dist(pi, j) + dist(i, nj)
+                 - dist(pi, i) - dist(j, nj);
+        }
+        if (nj == i) {
+            // j juste avant i (i = 0, j = n-1) : (pj,j)(j,i)(i,ni) -> (pj,i)(i,j)(j,ni)
+            return dist(i, pj) + dist(ni, j)
+                 - dist(j, pj) - dist(i, ni);
+        }
+        return dist(pi, j) + dist(ni, j)
+             + dist(i, pj) + dist(i, nj)
+             - dist(pi, i) - dist(i, ni)
+             - dist(pj, j) - dist(j, nj);
+    }
+
+    /** Vrai si le 2-opt (i, j) modifie la route : i+2 &lt;= j, arêtes non adjacentes. */
+    public boolean isValidTwoOpt(int i, int j) {
+        return i >= 0 && j < n && j - i >= 2 && !(i == 0 && j == n - 1);
+    }
+
+    /**
+     * 2-opt (i, j) : les arêtes (i,i+1) et (j,j+1) sont remplacées par (i,j)
+     * et (i+1,j+1).
+     */
+    public double twoOptDelta(int i, int j) {
+        int nj = (j + 1) % n;
+        return dist(i, j) + dist(i + 1, nj)
+             - dist(i, i + 1) - dist(j, nj);
+    }
+
+    /**
+     * Vrai si l'Or-opt (i, j, k) est défini : segment de 1 à 3 villes, point
+     * d'insertion j hors du segment et distinct de la position qui le précède.
+     */
+    public boolean isValidOrOpt(int i, int j, int k) {
+        int len = Math.abs(k);
+        if (len < 1 || n < len + 3)
+            return false;
+        int dj = (j - i + n) % n;
+        return dj >= len && dj <= n - 2;
+    }
+
+    /**
+     * Or-opt : (p,s1)(sL,nx)(x,y) sont remplacées par (p,nx)(x,s1)(sL,y),
+     * ou (x,sL)(s1,y) si le segment est inversé.
+     */
+    public double orOptDelta(int i, int j, int k) {
+        int len = Math.abs(k);
+        int p  = (i - 1 + n) % n;
+        int s1 = i, sL = (i + len - 1) % n, nx = (i + len) % n;
+        int x  = j, y = (j + 1) % n;
+        double added = (k > 0)
+                ? dist(x, s1) + dist(sL, y)
+                : dist(x, sL) + dist(s1, y);
+        return dist(p, nx) + added
+             - dist(p, s1) - dist(sL, nx) - dist(x, y);
+    }
+
+    // ----- voisin virtuel : positions modifiées et ville placée à chacune -----
+
+    /** Nombre de positions modifiées par le mouvement. */
+    public int changedCount(TSPNeighborhood type, int i, int j, int k) {
+        switch (type) {
+            case TWO_OPT: return j - i;
+            case OR_OPT:  return (j - i + n) % n + 1;
+            default:      return 2;
+        }
+    }
+
+    /** t-ième position modifiée par le mouvement. */
+    public int changedPosition(TSPNeighborhood type, int i, int j, int k, int t) {
+        switch (type) {
+            case TWO_OPT: return i + 1 + t;
+            case OR_OPT:  return (i + t) % n;
+            default:      return (t == 0) ? i : j;
+        }
+    }
+
+    /** Ville placée à la position q après le mouvement, sans l'appliquer. */
+    public int neighborCity(TSPNeighborhood type, int i, int j, int k, int q) {
+        switch (type) {
+            case TWO_OPT:
+                return (q > i && q <= j) ? tour[i + 1 + j - q] : tour[q];
+            case OR_OPT: {
+                int len = Math.abs(k);
+                int dj = (j - i + n) % n;
+                int o = (q - i + n) % n;
+                if (o > dj)
+                    return tour[q];
+                if (o <= dj - len)
+                    return tour[(q + len) % n];
+                int s = o - (dj - len + 1);
+                return (k > 0) ? tour[(i + s) % n] : tour[(i + len - 1 - s) % n];
+            }
+            default:
+                return (q == i) ? tour[j] : (q == j) ? tour[i] : tour[q];
+        }
+    }
+
+    /**
+     * Empreinte de la route après le mouvement, en O(1) : les clés des arêtes
+     * retirées et créées sont basculées.
+     */
+    public long neighborHash(TSPNeighborhood type, int i, int j, int k) {
+        switch (type) {
+            case TWO_OPT: {
+                int nj = (j + 1) % n;
+                return hash ^ edgeKey(i, i + 1) ^ edgeKey(j, nj)
+                            ^ edgeKey(i, j) ^ edgeKey(i + 1, nj);
+            }
+            case OR_OPT: {
+                int len = Math.abs(k);
+                int p  = (i - 1 + n) % n;
+                int sL = (i + len - 1) % n, nx = (i + len) % n;
+                int y  = (j + 1) % n;
+                return hash ^ edgeKey(p, i) ^ edgeKey(sL, nx) ^ edgeKey(j, y)
+                            ^ edgeKey(p, nx)
+                            ^ edgeKey(j, (k > 0) ? i : sL) ^ edgeKey((k > 0) ? sL : i, y);
+            }
+            default: {
+                int pi = (i - 1 + n) % n, ni = (i + 1) % n;
+                int pj = (j - 1 + n) % n, nj = (j + 1) % n;
+                if (ni == j)
+                    return hash ^ edgeKey(pi, i) ^ edgeKey(j, nj) ^ edgeKey(pi, j) ^ edgeKey(i, nj);
+                if (nj == i)
+                    return hash ^ edgeKey(pj, j) ^ edgeKey(i, ni) ^ edgeKey(pj, i) ^ edgeKey(ni, j);
+                return hash ^ edgeKey(pi, i) ^ edgeKey(i, ni) ^ edgeKey(pj, j) ^ edgeKey(j, nj)
+                            ^ edgeKey(pi, j) ^ edgeKey(j, ni) ^ edgeKey(pj, i) ^ edgeKey(i, nj);
+            }
+        }
+    }
+
+    /** Clé de l'arête entre les villes des positions a et b. */
+    private long edgeKey(int a, int b) {
+        return Zobrist.edgeKey(tour[a], tour[b]);
+    }
+
+    /**
+     * Compare la route obtenue par le mouvement à {@code other}, sans la
+     * construire : même cycle, à rotation et sens près.
+     */
+    public boolean neighborEquals(TSPNeighborhood type, int i, int j, int k, int[] other) {
+        if (other.length != n)
+            return false;
+        if (n == 0)
+            return true;
+        int first = neighborCity(type, i, j, k, 0);
+        int start = -1;
+        for (int q = 0; q < n && start < 0; q++) {
+            if (other[q] == first)
+                start = q;
+        }
+        if (start < 0)
+            return false;
+        boolean forward = true, backward = true;
+        for (int q = 1; q < n && (forward || backward); q++) {
+            int c = neighborCity(type, i, j, k, q);
+            forward &= c == other[(start + q) % n];
+            backward &= c == other[(start - q + n) % n];
+        }
+        return forward || backward;
+    }
+
+    /**
+     * Écrit dans {@code out} les villes extrémités des arêtes modifiées par le
+     * mouvement (avant application).
+     *
+     * @return le nombre de villes écrites (au plus 6)
+     */
+    public int endpoints(TSPNeighborhood type, int i, int j, int k, int[] out) {
+        switch (type) {
+            case TWO_OPT:
+                out[0] = tour[i]; out[1] = tour[i + 1];
+                out[2] = tour[j]; out[3] = tour[(j + 1) % n];
+                return 4;
+            case OR_OPT: {
+                int len = Math.abs(k);
+                out[0] = tour[(i - 1 + n) % n]; out[1] = tour[i];
+                out[2] = tour[(i + len - 1) % n]; out[3] = tour[(i + len) % n];
+                out[4] = tour[j]; out[5] = tour[(j + 1) % n];
+                return 6;
+            }
+            default:
+                out[0] = tour[(i - 1 + n) % n]; out[1] = tour[i]; out[2] = tour[(i + 1) % n];
+                out[3] = tour[(j - 1 + n) % n]; out[4] = tour[j]; out[5] = tour[(j + 1) % n];
+                return 6;
+        }
+    }
+
+    /**
+     * Écrit dans {@code out} les arêtes retirées par le mouvement (avant
+     * application), deux villes par arête.
+     *
+     * @return le nombre d'arêtes écrites (au plus 4)
+     */
+    public int removedEdges(TSPNeighborhood type, int i, int j, int k, int[] out) {
+        if (type != TSPNeighborhood.SWAP)
+            return endpoints(type, i, j, k, out) / 2;
+        int pi = (i - 1 + n) % n, ni = (i + 1) % n;
+        int pj = (j - 1 + n) % n, nj = (j + 1) % n;
+        if (ni == j) {
+            edge(out, 0, pi, i);
+            edge(out, 1, j, nj);
+            return 2;
+        }
+        if (nj == i) {
+            edge(out, 0, pj, j);
+            edge(out, 1, i, ni);
+            return 2;
+        }
+        edge(out, 0, pi, i);
+        edge(out, 1, i, ni);
+        edge(out, 2, pj, j);
+        edge(out, 3, j, nj);
+        return 4;
+    }
+
+    /**
+     * Écrit dans {@code out} les arêtes créées par le mouvement (avant
+     * application), deux villes par arête.
+     *
+     * @return le nombre d'arêtes écrites (au plus 4)
+     */
+    public int addedEdges(TSPNeighborhood type, int i, int j, int k, int[] out) {
+        switch (type) {
+            case TWO_OPT:
+                edge(out, 0, i, j);
+                edge(out, 1, i + 1, (j + 1) % n);
+                return 2;
+            case OR_OPT: {
+                int len = Math.abs(k);
+                int sL = (i + len - 1) % n;
+                edge(out, 0, (i - 1 + n) % n, (i + len) % n);
+                edge(out, 1, j, (k > 0) ? i : sL);
+                edge(out, 2, (k > 0) ? sL : i, (j + 1) % n);
+                return 3;
+            }
+            default: {
+                int pi = (i - 1 + n) % n, ni = (i + 1) % n;
+                int pj = (j - 1 + n) % n, nj = (j + 1) % n;
+                if (ni == j) {
+                    edge(out, 0, pi, j);
+                    edge(out, 1, i, nj);
+                    return 2;
+                }
+                if (nj == i) {
+                    edge(out, 0, pj, i);
+                    edge(out, 1, ni, j);
+                    return 2;
+                }
+                edge(out, 0, pi, j);
+                edge(out, 1, j, ni);
+                edge(out, 2, pj, i);
+                edge(out, 3, i, nj);
+                return 4;
+            }
+        }
+    }
+
+    /** Écrit l'arête e entre les villes des positions a et b. */
+    private void edge(int[] out, int e, int a, int b) {
+        out[2 * e] = tour[a];
+        out[2 * e + 1] = tour[b];
+    }
+
+    // ----- application -----
+
+    /** Applique le mouvement, puis met à jour positions, empreinte et longueur. */
+    public void apply(TSPNeighborhood type, int i, int j, int k) {
+        hash = neighborHash(type, i, j, k);
+        switch (type) {
+            case TWO_OPT:
+                for (int a = i + 1, b = j; a < b; a++, b--) {
+                    int t = tour[a]; tour[a] = tour[b]; tour[b] = t;
+                }
+                break;
+            case OR_OPT: {
+                int len = Math.abs(k);
+                int dj = (j - i + n) % n;
+                if (len > segment.length)
+                    segment = new int[len];
+                for (int s = 0; s < len; s++)
+                    segment[s] = tour[(i + s) % n];
+                for (int o = 0; o <= dj - len; o++)
+                    tour[(i + o) % n] = tour[(i + o + len) % n];
+                for (int s = 0; s < len; s++)
+                    tour[(i + dj - len + 1 + s) % n] = (k > 0) ? segment[s] : segment[len - 1 - s];
+                break;
+            }
+            default: {
+                int t = tour[i]; tour[i] = tour[j]; tour[j] = t;
+            }
+        }
+        int count = changedCount(type, i, j, k);
+        for (int t = 0; t < count; t++) {
+            int q = changedPosition(type, i, j, k, t);
+            pos[tour[q]] = q;
+        }
+        // longueur exacte, identique à une évaluation complète du voisin
+        length = length(tour, oracle);
+    }
+}
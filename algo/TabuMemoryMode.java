@@ -0,0 +1,11 @@
+package algo;
+
+/**
+ * Type de mémoire à court terme utilisée par les recherches tabou.
+ */
+public enum TabuMemoryMode {
+    /** Mémorise les solutions complètes visitées (comparaison élément par élément). */
+    SOLUTION,
+    /** Mémorise les attributs des mouvements effectués (test en O(1)). */
+    ATTRIBUTE
+}
@@ -0,0 +1,283 @@
+package algo;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Régions tabou d'une recherche continue : boules de rayon fixe autour des
+ * points récemment visités, chacune active jusqu'à son itération d'expiration.
+ * Les distances sont mesurées en coordonnées normalisées (chaque dimension
+ * ramenée à [0, 1] par ses bornes).
+ * <p>
+ * Les centres sont rangés dans une grille uniforme de pas égal au rayon, sur
+ * la projection des points selon au plus {@value #PROJECTIONS} directions (les
+ * axes si la dimension est petite, des directions unitaires fixes sinon) :
+ * une projection ne rallonge pas les distances, donc un point d'une boule a
+ * sa case à au plus une case de celle du centre. Un test ne visite que 3^p
+ * cases de la table de hachage et ne calcule la distance complète qu'aux
+ * centres qu'elles contiennent, ce qui écarte la plupart des régions. Le coût
+ * croît encore avec leur nombre : en grande dimension, une trajectoire récente
+ * se projette dans peu de cases, qu'il faut alors parcourir.
+ */
+final class TabuRegions {
+    /** Nombre maximal de directions de projection de la grille. */
+    static final int PROJECTIONS = 3;
+
+    private final int dim;
+    private final double[] lower;
+    private final double[] scale;        // 1 / (max - min), 0 pour une dimension fixe
+    private final double radius;
+    private final double radius2;
+    private final int p;
+    private final double[] directions;   // p vecteurs unitaires à plat, null : les p premiers axes
+
+    // régions, dans l'ordre d'ajout (anneau)
+    private final double[] centers;      // coordonnées normalisées, à plat
+    private final double[] projections;  // projections des centres, à plat (p par région)
+    private final long[] cellOf;
+    private final int[] expiry;
+    private final int[] next;            // chaînage des régions d'une même case
+    private final int[] prev;
+    private int head;
+    private int size;
+
+    // table à adressage ouvert : case -> première région + 1 (0 : emplacement libre)
+    private final long[] keys;
+    private final int[] firsts;
+    private final int mask;
+
+    // point normalisé, projections et case de la requête en cours
+    private final double[] point;
+    private final double[] projected;
+    private final long[] cell;
+
+    /**
+     * @param capacity nombre maximal de régions actives ; au-delà la plus ancienne est retirée
+     * @param radius   rayon des boules en coordonnées normalisées (&gt; 0)
+     */
+    TabuRegions(double[] lower, double[] upper, double radius, int capacity) {
+        if (!(radius > 0))
+            throw new IllegalArgumentException("rayon tabou invalide : " + radius);
+        this.dim = lower.length;
+        this.lower = lower.clone();
+        this.scale = new double[dim];
+        for (int d = 0; d < dim; d++)
+            scale[d] = (upper[d] > lower[d]) ? 1 / (upper[d] - lower[d]) : 0;
+        this.radius = radius;
+        this.radius2 = radius * radius;
+        this.p = Math.min(dim, PROJECTIONS);
+        this.directions = (dim <= PROJECTIONS) ? null : randomDirections(dim, p);
+
+        capacity = Math.max(capacity, 0);
+        this.centers = new double[capacity * dim];
+        this.projections = new double[capacity * p];
+        this.cellOf = new long[capacity];
+        this.expiry = new int[capacity];
+        this.next = new int[capacity];
+        this.prev = new int[capacity];
+        int tableSize = Integer.highestOneBit(Math.max(2, capacity * 2 - 1)) << 1;
+        this.keys = new long[tableSize];
+        this.firsts = new int[tableSize];
+        this.mask = tableSize - 1;
+        this.point = new double[dim];
+        this.projected = new double[p];
+        this.cell = new long[p];
+    }
+
+    /** Directions unitaires tirées d'une graine fixe : la grille ne dépend pas de la recherche. */
+    private static double[] randomDirections(int dim, int p) {
+        SplittableRandom random = new SplittableRandom(0x5EEDL);
+        double[] dirs = new double[p * dim];
+        for (int k = 0; k < p; k++) {
+            double norm = 0;
+            for (int d = 0; d < dim; d++) {
+                double v = random.nextDouble() * 2 - 1;
+                dirs[k * dim + d] = v;
+                norm += v * v;
+            }
+            norm = Math.sqrt(norm);
+            for (int d = 0; d < dim; d++)
+                dirs[k * dim + d] /= norm;
+        }
+        return dirs;
+    }
+
+    /** Nombre de régions actives. */
+    int size() {
+        return size;
+    }
+
+    /** Retire toutes les régions. */
+    void clear() {
+        Arrays.fill(firsts, 0);
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * Ajoute la boule centrée en x[offset..offset+dim), active tant que
+     * l'itération courante est inférieure à {@code expiresAt}.
+     */
+    void add(double[] x, int offset, int expiresAt) {
+        int capacity = cellOf.length;
+        if (capacity == 0)
+            return;
+        if (size == capacity)
+            removeOldest();
+        int r = (head + size) % capacity;
+        size++;
+        for (int d = 0; d < dim; d++)
+            centers[r * dim + d] = (x[offset + d] - lower[d]) * scale[d];
+        project(centers, r * dim);
+        System.arraycopy(projected, 0, projections, r * p, p);
+        long key = cellKey();
+        cellOf[r] = key;
+        expiry[r] = expiresAt;
+
+        int slot = slotOf(key);
+        if (firsts[slot] == 0)
+            keys[slot] = key;
+        int first = firsts[slot] - 1;
+        next[r] = first;
+        prev[r] = -1;
+        if (first >= 0)
+            prev[first] = r;
+        firsts[slot] = r + 1;
+    }
+
+    /** Retire les régions expirées à l'itération iter (les plus anciennes d'abord). */
+    void expire(int iter) {
+        while (size > 0 && expiry[head] <= iter)
+            removeOldest();
+    }
+
+    /** Vrai si x[offset..offset+dim) est dans une région active à l'itération iter. */
+    boolean contains(double[] x, int offset, int iter) {
+        if (size == 0)
+            return false;
+        for (int d = 0; d < dim; d++)
+            point[d] = (x[offset + d] - lower[d]) * scale[d];
+        project(point, 0);
+        return search(0, iter);
+    }
+
+    /** Parcourt les cases voisines (±1 sur chaque direction) de la case du point. */
+    private boolean search(int k, int iter) {
+        if (k == p)
+            return scanCell(cellKey(), iter);
+        long c = cell[k];
+        for (long dc = -1; dc <= 1; dc++) {
+            cell[k] = c + dc;
+            boolean found = search(k + 1, iter);
+            if (found) {
+                cell[k] = c;
+                return true;
+            }
+        }
+        cell[k] = c;
+        return false;
+    }
+
+    private boolean scanCell(long key, int iter) {
+        for (int slot = home(key); firsts[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot] != key)
+                continue;
+            for (int r = firsts[slot] - 1; r >= 0; r = next[r]) {
+                if (expiry[r] > iter && within(r))
+                    return true;
+            }
+            return false;
+        }
+        return false;
+    }
+
+    private boolean within(int r) {
+        // filtre sur les projections, qui minorent la distance
+        for (int k = 0; k < p; k++) {
+            double diff = projected[k] - projections[r * p + k];
+            if (diff * diff > radius2)
+                return false;
+        }
+        double sum = 0;
+        int o = r * dim;
+        for (int d = 0; d < dim; d++) {
+            double diff = point[d] - centers[o + d];
+            sum += diff * diff;
+            if (sum > radius2)
+                return false;
+        }
+        return true;
+    }
+
+    /** Projections (dans projected) et case (dans cell) du point normalisé v[offset..offset+dim). */
+    private void project(double[] v, int offset) {
+        for (int k = 0; k < p; k++) {
+            double s;
+            if (directions == null) {
+                s = v[offset + k];
+            } else {
+                s = 0;
+                for (int d = 0; d < dim; d++)
+                    s += v[offset + d] * directions[k * dim + d];
+            }
+            projected[k] = s;
+            cell[k] = (long) Math.floor(s / radius);
+        }
+    }
+
+    /** Clé de la case courante cell[0..p). */
+    private long cellKey() {
+        long h = 0x9E3779B97F4A7C15L;
+        for (int k = 0; k < p; k++) {
+            h ^= cell[k];
+            h *= 0xBF58476D1CE4E5B9L;
+            h ^= h >>> 31;
+        }
+        return h;
+    }
+
+    private void removeOldest() {
+        int r = head;
+        head = (head + 1) % cellOf.length;
+        size--;
+
+        // retrait de la liste de sa case ; la case est libérée si elle devient vide
+        long key = cellOf[r];
+        int slot = slotOf(key);
+        if (prev[r] >= 0)
+            next[prev[r]] = next[r];
+        else
+            firsts[slot] = next[r] + 1;
+        if (next[r] >= 0)
+            prev[next[r]] = prev[r];
+        if (firsts[slot] == 0)
+            removeSlot(slot);
+    }
+
+    /** Emplacement de la case dans la table (libre si elle n'y est pas). */
+    private int slotOf(long key) {
+        int slot = home(key);
+        while (firsts[slot] != 0 && keys[slot] != key)
+            slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    private int home(long key) {
+        return (int) (key ^ (key >>> 32)) & mask;
+    }
+
+    /** Suppression par décalage arrière, comme dans {@link FingerprintSet}. */
+    private void removeSlot(int slot) {
+        int hole = slot;
+        for (int j = (hole + 1) & mask; firsts[j] != 0; j = (j + 1) & mask) {
+            int h = home(keys[j]);
+            boolean movable = (j > hole) ? (h <= hole || h > j) : (h <= hole && h > j);
+            if (movable) {
+                keys[hole] = keys[j];
+                firsts[hole] = firsts[j];
+                firsts[j] = 0;
+                hole = j;
+            }
+        }
+    }
+}
@@ -1,17 +1,135 @@
 package algo;
 
+import model.ContinuousObjective;
 import model.IterationListener;
-import java.util.LinkedList;
+import model.SamplingPolicy;
+import model.SearchListener;
+import model.StopCriteria;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
 
 public class TabuSearchContinuous {
+    /** Candidats tirés par itération par défaut. */
+    public static final int DEFAULT_BATCH_SIZE = 64;
+    /** Demi-largeur par défaut du voisinage, en fraction de l'intervalle de chaque dimension. */
+    public static final double DEFAULT_STEP = 0.1;
+
+    /** Fonction historique à une dimension : f(x)=x·cos(3πx). */
+    public static final ContinuousObjective X_COS_3PI_X =
+            (x, offset, dimension) -> x[offset] * Math.cos(3 * Math.PI * x[offset]);
+
     private int maxIter;
     private int tabuListSize;
-    private LinkedList<Double> tabuList;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private double step = DEFAULT_STEP;
+    private double tabuRadius = Double.NaN;
+    private ForkJoinPool pool;
+    private EvaluationCache cache;
+    private SplittableRandom random = new SplittableRandom();
+    private StopCriteria stopCriteria = StopCriteria.NONE;
+    private double[] best;         // meilleur point de la recherche en cours
+    private double bestValue;
+    private int iterations;
+    private StopCriteria.Reason stopReason = StopCriteria.Reason.MAX_ITERATIONS;
+
+    private TabuRegions tabuRegions;   // boules autour des points courants récents
 
     public TabuSearchContinuous(int maxIter, int tabuListSize) {
         this.maxIter = maxIter;
         this.tabuListSize = tabuListSize;
-        this.tabuList = new LinkedList<>();
+    }
+
+    /**
+     * Fixe la graine du générateur propre à cette recherche : deux recherches
+     * de même graine et de mêmes paramètres suivent la même trajectoire. Les
+     * appels successifs à {@link #optimize} poursuivent la même séquence.
+     */
+    public void setSeed(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Utilise ce générateur, par exemple un enfant obtenu par
+     * {@link SplittableRandom#split()} pour une recherche parmi d'autres.
+     * Il ne doit pas être partagé avec un autre thread.
+     */
+    public void setRandom(SplittableRandom random) {
+        this.random = random;
+    }
+
+    /**
+     * Ajoute des critères d'arrêt (durée, stagnation, valeur cible de f,
+     * annulation) au nombre maximal d'itérations. Quand l'un d'eux est
+     * atteint, {@link #optimize} rend le meilleur point trouvé jusque-là.
+     * L'horloge et le jeton sont lus après chaque lot, quel que soit
+     * {@link StopCriteria#checkInterval()}.
+     */
+    public void setStopCriteria(StopCriteria criteria) {
+        this.stopCriteria = criteria;
+    }
+
+    /** Nombre de candidats tirés et évalués à chaque itération (64 par défaut). */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1)
+            throw new IllegalArgumentException("taille de lot invalide : " + batchSize);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Demi-largeur du voisinage, en fraction de l'intervalle de chaque
+     * dimension : un candidat s'écarte du point courant d'au plus
+     * step × (max - min) sur chaque coordonnée.
+     */
+    public void setStepSize(double step) {
+        this.step = step;
+    }
+
+    /**
+     * Rayon des régions tabou, en fraction de l'intervalle de chaque dimension
+     * (distance euclidienne en coordonnées normalisées). Chaque point courant
+     * rend tabou la boule de ce rayon qui l'entoure pendant tabuListSize
+     * itérations. Par défaut, la longueur moyenne d'un pas :
+     * step × √(dimension / 3). En grande dimension les candidats sont presque
+     * tous à cette distance du point courant ; un rayon plus petit ne
+     * rendrait plus aucun candidat tabou.
+     */
+    public void setTabuRadius(double radius) {
+        this.tabuRadius = radius;
+    }
+
+    /**
+     * Évalue les candidats de chaque lot en parallèle sur ce pool (null :
+     * séquentiel). Les candidats sont tirés avant l'évaluation : la
+     * trajectoire est la même qu'en séquentiel. La fonction doit alors
+     * pouvoir être appelée par plusieurs threads.
+     */
+    public void setForkJoinPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Fait passer les évaluations par ce cache (null : aucun). Le cache peut
+     * être partagé entre plusieurs recherches de la même fonction et de même
+     * dimension ; ses compteurs de succès et d'échecs servent à régler sa
+     * résolution.
+     */
+    public void setEvaluationCache(EvaluationCache cache) {
+        this.cache = cache;
+    }
+
+    /** Nombre d'itérations effectuées par le dernier appel à {@link #optimize}. */
+    public int getIterationCount() {
+        return iterations;
+    }
+
+    /** Raison de l'arrêt du dernier appel à {@link #optimize}. */
+    public StopCriteria.Reason getStopReason() {
+        return stopReason;
+    }
+
+    /** Valeur du meilleur point du dernier appel à {@link #optimize}. */
+    public double getBestValue() {
+        return bestValue;
     }
 
     /**
@@ -24,43 +142,152 @@ public class TabuSearchContinuous {
      * @return le x qui maximise f(x)
      */
     public double optimize(double start, double end, IterationListener listener) {
+        return optimize(start, end, listener, SamplingPolicy.at(1, 2, 10, maxIter));
+    }
+
+    /**
+     * Comme {@link #optimize(double, double, IterationListener)}, en notifiant
+     * les itérations retenues par la politique.
+     */
+    public double optimize(double start, double end, IterationListener listener, SamplingPolicy policy) {
+        return optimize(start, end,
+            (iter, currentVal, bestVal, evaluated, rejected, aspirations, nanos) ->
+                listener.onIteration(
+                        iter,
+                        "Iteration " + iter +
+                                " : best x = " + best[0] +
+                                ", f(x) = " + bestVal),
+            policy);
+    }
+
+    /**
+     * Optimise f(x)=x·cos(3πx) sur [start,end], voir
+     * {@link #optimize(ContinuousObjective, double[], double[], SearchListener, SamplingPolicy)}.
+     *
+     * @return le x qui maximise f(x)
+     */
+    public double optimize(double start, double end, SearchListener listener, SamplingPolicy policy) {
+        return optimize(X_COS_3PI_X, new double[] { start }, new double[] { end }, listener, policy)[0];
+    }
+
+    /**
+     * Maximise f sur le pavé [lower, upper] par Recherche Tabou, jusqu'à
+     * maxIter itérations ou au premier critère d'arrêt atteint. À chaque
+     * itération, un lot de candidats est tiré autour du point courant dans un
+     * tampon à plat puis évalué d'un bloc (en parallèle si un pool est fixé) ;
+     * le meilleur candidat non tabou devient le point courant, un candidat
+     * tabou n'étant retenu que s'il bat le meilleur point (aspiration). Les
+     * boules autour des points courants des tabuListSize dernières itérations
+     * sont tabou (voir {@link #setTabuRadius}).
+     *
+     * @param lower    bornes inférieures, une par dimension
+     * @param upper    bornes supérieures, une par dimension
+     * @param listener reçoit les itérations retenues par la politique
+     *                 (valeurs du point courant et du meilleur point)
+     * @return le meilleur point trouvé
+     */
+    public double[] optimize(ContinuousObjective f, double[] lower, double[] upper,
+                             SearchListener listener, SamplingPolicy policy) {
+        int dim = lower.length;
+        if (upper.length != dim || dim == 0)
+            throw new IllegalArgumentException("bornes invalides : " + lower.length + " et " + upper.length + " dimensions");
+        double[] radius = new double[dim];
+        for (int d = 0; d < dim; d++) {
+            if (!(lower[d] <= upper[d]))
+                throw new IllegalArgumentException("bornes invalides en dimension " + d + " : [" + lower[d] + ", " + upper[d] + "]");
+            radius[d] = step * (upper[d] - lower[d]);
+        }
+        if (cache != null) {
+            if (cache.dimension() != dim)
+                throw new IllegalArgumentException("cache de dimension " + cache.dimension() + " pour " + dim + " dimensions");
+            f = cache.wrap(f);
+        }
+        SearchTelemetry telemetry = new SearchTelemetry(listener, policy);
+        StopCondition stop = new StopCondition(stopCriteria, true);
+        iterations = 0;
+        double radiusNorm = Double.isNaN(tabuRadius) ? step * Math.sqrt(dim / 3.0) : tabuRadius;
+        tabuRegions = new TabuRegions(lower, upper, (radiusNorm > 0) ? radiusNorm : Double.MIN_NORMAL, tabuListSize);
+
         // point initial aléatoire
-        double bestX = start + Math.random() * (end - start);
-        double bestVal = evaluate(bestX);
+        double[] current = new double[dim];
+        for (int d = 0; d < dim; d++)
+            current[d] = lower[d] + random.nextDouble() * (upper[d] - lower[d]);
+        double currentValue = f.evaluate(current, 0, dim);
+        best = current.clone();
+        bestValue = currentValue;
+        tabuRegions.add(current, 0, tabuListSize);
+
+        // lot de candidats à plat et leurs valeurs
+        double[] batch = new double[batchSize * dim];
+        double[] values = new double[batchSize];
 
         // boucle principale
-        for (int iter = 1; iter <= maxIter; iter++) {
-            // génération d'un candidat dans le voisinage continu
-            double candidate = bestX + (Math.random() - 0.5);
-            candidate = Math.max(start, Math.min(end, candidate));
-
-            // si déjà tabou, on passe
-            if (tabuList.contains(candidate)) {
-                continue;
+        for (int iter = 1; iter <= maxIter && !stop.isStopped(); iter++) {
+            iterations = iter;
+            tabuRegions.expire(iter);
+            // tirage du lot dans le voisinage du point courant
+            for (int k = 0, o = 0; k < batchSize; k++) {
+                for (int d = 0; d < dim; d++, o++) {
+                    double x = current[d] + (2 * random.nextDouble() - 1) * radius[d];
+                    batch[o] = Math.max(lower[d], Math.min(upper[d], x));
+                }
             }
+            evaluateBatch(f, batch, dim, values);
 
-            // évaluation et mise à jour
-            double candidateVal = evaluate(candidate);
-            if (candidateVal > bestVal) {
-                bestX = candidate;
-                bestVal = candidateVal;
-                tabuList.add(candidate);
-                if (tabuList.size() > tabuListSize) {
-                    tabuList.removeFirst();
+            // meilleur candidat admissible (aspiration incluse)
+            int chosen = -1;
+            long rejected = 0, aspirations = 0;
+            for (int k = 0; k < batchSize; k++) {
+                double v = values[k];
+                if (Double.isNaN(v) || (chosen >= 0 && v <= values[chosen]))
+                    continue;
+                if (tabuRegions.contains(batch, k * dim, iter)) {
+                    if (v <= bestValue) {
+                        rejected++;
+                        continue;
+                    }
+                    aspirations++;
                 }
+                chosen = k;
             }
+            telemetry.count(batchSize, rejected, aspirations);
 
-            // notification uniquement aux itérations 1,2,10 et dernière
-            if (iter == 1 || iter == 2 || iter == 10 || iter == maxIter) {
-                listener.onIteration(
-                        iter,
-                        "Iteration " + iter +
-                                " : best x = " + bestX +
-                                ", f(x) = " + bestVal);
+            boolean improved = false;
+            if (chosen >= 0) {
+                System.arraycopy(batch, chosen * dim, current, 0, dim);
+                currentValue = values[chosen];
+                tabuRegions.add(current, 0, iter + tabuListSize);
+                improved = currentValue > bestValue;
+                if (improved) {
+                    System.arraycopy(current, 0, best, 0, dim);
+                    bestValue = currentValue;
+                }
             }
+
+            // notification selon la politique d'échantillonnage
+            telemetry.iteration(iter, currentValue, bestValue, improved);
+            // les évaluations dominent le coût d'une itération : l'horloge et
+            // le jeton sont lus après chaque lot, pas toutes les checkInterval évaluations
+            if (!stop.afterIteration(batchSize, bestValue, improved))
+                stop.interrupted();
         }
 
-        return bestX;
+        stopReason = stop.reason();
+        return best.clone();
+    }
+
+    /** Évalue tout le lot, en séquentiel ou par intervalles de candidats sur le pool. */
+    private void evaluateBatch(ContinuousObjective f, double[] batch, int dim, double[] values) {
+        if (pool == null || batchSize == 1) {
+            f.evaluateBatch(batch, 0, batchSize, dim, values);
+            return;
+        }
+        ParallelScan.run(pool, batchSize,
+                (from, to) -> {
+                    f.evaluateBatch(batch, from, to, dim, values);
+                    return null;
+                },
+                (left, right) -> null);
     }
 
     /** Fonction à maximiser : f(x)=x·cos(3πx) */
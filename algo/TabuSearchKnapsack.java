@@ -1,26 +1,309 @@
 package algo;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import model.Item;
 import model.IterationListener;  // includes List, LinkedList, ArrayList, Arrays, etc.
+import model.SamplingPolicy;
+import model.SearchListener;
+import model.StopCriteria;
 
 /**
  * Recherche Tabou pour le problème du sac à dos.
- * Ne notifie le listener qu'aux itérations 1, 2, 10 et maxIter.
  */
 public class TabuSearchKnapsack {
     private final int maxIter;
     private final int tabuListSize;
     private final List<Item> items;
     private final double capacity;
-    private final LinkedList<boolean[]> tabuList;
+    private FingerprintSet<long[]> tabuList;
+    private TabuMemoryMode memoryMode = TabuMemoryMode.SOLUTION;
+    private KnapsackConstruction construction = KnapsackConstruction.GREEDY;
+    private KnapsackGreedy greedy;          // ordre par rapport, calculé au premier appel
+    private ForkJoinPool pool;
+    private boolean reactive;
+    private int stagnation;
+    private double frequencyPenalty = DEFAULT_FREQUENCY_PENALTY;
+    private boolean[] initialSolution;
+    private SplittableRandom random = new SplittableRandom();
+    private StopCriteria stopCriteria = StopCriteria.NONE;
+    private int revisits;
+    private int iterations;
+    private StopCriteria.Reason stopReason = StopCriteria.Reason.MAX_ITERATIONS;
+    private Path checkpointFile;
+    private SamplingPolicy checkpointPolicy = SamplingPolicy.NEVER;
+    private IOException checkpointError;
+    private ByteBuffer resumeState;
+
+    // état de la recherche en cours
+    private SearchRandom runRandom;
+    private KnapsackSolution current;
+    private boolean[] bestSolution;
+    private double bestValue;
+    private int iter;
+    private TabuTenure tenure;     // null en mode SOLUTION
+    private double maxOutValue;    // plus grande valeur hors du sac
+    private double maxOutRatio;    // plus grand rapport valeur/poids hors du sac
+    private double maxRemovalGain; // plus grand gain d'un retrait : -min des valeurs du sac
+    private StopCondition stop;
+    private ReactiveTenure reactiveTenure;   // null hors mode réactif
+    private int activeTenure;                // durée tabou courante
+    private SearchPhases phases;             // null sans mémoire à long terme
+    private int[] inclusions;                // itérations passées dans le sac, soldées à la sortie
+    private int[] inSince;                   // itération d'entrée des items du sac
+    private double[] flipPenalty;            // pénalité de fréquence de chaque flip
+    private boolean penalized;               // vrai en diversification
+    private ElitePool<boolean[]> elites;     // coût = -valeur
+    private boolean[] phaseBest;             // meilleure solution de la phase en cours
+    private double phaseBestValue;
+    private long phaseBestHash;
+
+    /** Taille de la liste restreinte de candidats du glouton randomisé. */
+    private static final int RANDOMIZED_GREEDY_CANDIDATES = 5;
+
+    /** Borne de la durée tabou réactive (et de la liste des solutions). */
+    private static final int REACTIVE_MAX_TENURE = 256;
+
+    /** Poids par défaut de la pénalité de fréquence, en valeurs moyennes d'item. */
+    public static final double DEFAULT_FREQUENCY_PENALTY = 1.0;
+
+    /** Nombre de solutions d'élite gardées pour les relances. */
+    private static final int ELITE_SIZE = 5;
+
+    /** Meilleur mouvement (i, j) retenu lors d'un parcours du voisinage ; j = -1 : flip simple. */
+    private static final class Move {
+        int i = -1;
+        int j = -1;
+        double value = Double.NEGATIVE_INFINITY;
+        double score = Double.NEGATIVE_INFINITY;   // valeur, pénalité de fréquence déduite
+        long evaluated;
+        long tabuRejections;
+        long aspirationHits;
+
+        /** Meilleur des deux (la gauche en cas d'égalité), compteurs cumulés. */
+        static Move combine(Move left, Move right) {
+            Move best = (right.score > left.score) ? right : left;
+            Move other = (best == left) ? right : left;
+            best.evaluated += other.evaluated;
+            best.tabuRejections += other.tabuRejections;
+            best.aspirationHits += other.aspirationHits;
+            return best;
+        }
+    }
 
     public TabuSearchKnapsack(int maxIter, int tabuListSize, List<Item> items, double capacity) {
         this.maxIter      = maxIter;
         this.tabuListSize = tabuListSize;
         this.items        = items;
         this.capacity     = capacity;
-        this.tabuList     = new LinkedList<>();
+        this.tabuList     = new FingerprintSet<>(tabuListSize);
+    }
+
+    /**
+     * Choisit la mémoire tabou : solutions complètes (par défaut) ou attributs,
+     * c.-à-d. indices des items basculés, interdits pendant tabuListSize itérations.
+     */
+    public void setMemoryMode(TabuMemoryMode memoryMode) {
+        this.memoryMode = memoryMode;
+    }
+
+    /**
+     * Choisit la construction de la solution de départ : glouton par rapport
+     * valeur/poids (par défaut), glouton randomisé ou ordre aléatoire. Toutes
+     * sont réalisables en une passe, quelle que soit la capacité.
+     */
+    public void setConstruction(KnapsackConstruction construction) {
+        this.construction = construction;
+    }
+
+    /**
+     * Évalue le voisinage en parallèle sur ce pool (null : séquentiel). Le
+     * mouvement retenu est le même qu'en séquentiel : à valeur égale, le
+     * premier dans l'ordre de parcours l'emporte.
+     */
+    public void setForkJoinPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Fixe la graine du générateur propre à cette recherche : deux recherches
+     * de même graine et de mêmes paramètres suivent la même trajectoire. Les
+     * appels successifs à {@link #optimize} poursuivent la même séquence.
+     */
+    public void setSeed(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Utilise ce générateur, par exemple un enfant obtenu par
+     * {@link SplittableRandom#split()} pour une recherche parmi d'autres.
+     * Il ne doit pas être partagé avec un autre thread.
+     */
+    public void setRandom(SplittableRandom random) {
+        this.random = random;
+    }
+
+    /**
+     * Ajoute des critères d'arrêt (durée, stagnation, valeur cible,
+     * annulation) au nombre maximal d'itérations. Quand l'un d'eux est
+     * atteint, {@link #optimize} rend la meilleure solution trouvée jusque-là.
+     */
+    public void setStopCriteria(StopCriteria criteria) {
+        this.stopCriteria = criteria;
+    }
+
+    /**
+     * Enregistre l'état complet de la recherche (solutions courante et
+     * meilleure, mémoire tabou, itération, générateur, compteurs) dans ce
+     * fichier aux itérations retenues par la politique, puis à la fin de
+     * {@link #optimize}. Le fichier est écrit par un thread de fond, dans un
+     * fichier temporaire renommé ensuite ; un point demandé pendant
+     * l'écriture du précédent est sauté.
+     *
+     * @param file fichier de reprise, ou null pour ne plus en écrire
+     */
+    public void setCheckpoint(Path file, SamplingPolicy policy) {
+        this.checkpointFile = file;
+        this.checkpointPolicy = policy;
+    }
+
+    /**
+     * Fait reprendre le prochain appel à {@link #optimize} au point enregistré
+     * dans ce fichier : la suite de la recherche est celle qu'aurait suivie la
+     * recherche interrompue. Les items, la capacité, la taille de la liste
+     * tabou, la mémoire, le mode réactif et la mémoire à long terme doivent
+     * être les mêmes ; maxIter peut être augmenté pour prolonger une
+     * recherche terminée.
+     *
+     * @throws IOException si le fichier est illisible ou enregistré avec
+     *                     d'autres items ou d'autres paramètres
+     */
+    public void resumeFrom(Path file) throws IOException {
+        ByteBuffer state = Checkpoint.read(file, Checkpoint.KIND_KNAPSACK);
+        if (state.remaining() < 36
+                || state.getLong() != instanceFingerprint()
+                || state.getInt() != items.size()
+                || state.getInt() != tabuListSize
+                || state.getInt() != memoryMode.ordinal()
+                || state.getInt() != (reactive ? 1 : 0)
+                || state.getInt() != stagnation
+                || Double.compare(state.getDouble(), frequencyPenalty) != 0)
+            throw new IOException(file + " : point de reprise d'une autre instance ou d'autres paramètres");
+        this.resumeState = state;
+    }
+
+    /** Échec d'écriture d'un point de reprise lors du dernier appel à {@link #optimize}, ou null. */
+    public IOException getCheckpointError() {
+        return checkpointError;
+    }
+
+    /**
+     * Active la recherche tabou réactive : la durée tabou (taille de la
+     * fenêtre de solutions interdites, ou durée des items) part de
+     * tabuListSize, s'allonge quand la recherche revient sur une solution
+     * après un cycle court et raccourcit après une longue période sans
+     * répétition ; des flips aléatoires font sortir la recherche d'un cyclage
+     * chronique. La durée reste entre 1 et max(tabuListSize, min(256, n/2)).
+     */
+    public void setReactive(boolean reactive) {
+        this.reactive = reactive;
+    }
+
+    /**
+     * Active la mémoire à long terme : chaque item compte les itérations
+     * passées dans le sac. Après {@code stagnation} itérations sans
+     * amélioration de la meilleure solution, la recherche alterne entre
+     * diversification (pendant stagnation/2 itérations, un flip est noté sur
+     * sa valeur diminuée d'une pénalité s'il ramène l'item dans l'état où il
+     * a le plus souvent été) et intensification (relance depuis l'une des
+     * meilleures solutions des phases précédentes). Le critère d'aspiration
+     * reste évalué sur la valeur réelle.
+     *
+     * @param stagnation itérations sans amélioration avant un changement de phase, 0 pour désactiver
+     */
+    public void setLongTermMemory(int stagnation) {
+        this.stagnation = Math.max(0, stagnation);
+    }
+
+    /**
+     * Poids de la pénalité de fréquence en diversification : ramener un item
+     * dans l'état qu'il a occupé à chaque itération coûte ce nombre de valeurs
+     * moyennes d'item ({@value #DEFAULT_FREQUENCY_PENALTY} par défaut).
+     */
+    public void setFrequencyPenalty(double weight) {
+        this.frequencyPenalty = weight;
+    }
+
+    /** Nombre de diversifications du dernier appel à {@link #optimize}. */
+    public int getDiversificationCount() {
+        return (phases != null) ? phases.diversifications() : 0;
+    }
+
+    /** Nombre de relances depuis une solution d'élite du dernier appel à {@link #optimize}. */
+    public int getRestartCount() {
+        return (phases != null) ? phases.restarts() : 0;
+    }
+
+    /**
+     * Trajectoire de la durée tabou du dernier appel à {@link #optimize} :
+     * paires (itération, durée) à plat, une par changement, depuis l'itération 0.
+     */
+    public int[] getTenureTrajectory() {
+        return (reactiveTenure != null) ? reactiveTenure.trajectory() : new int[] { 0, tabuListSize };
+    }
+
+    /** Durée tabou à la fin du dernier appel à {@link #optimize}. */
+    public int getTenure() {
+        return (reactiveTenure != null) ? activeTenure : tabuListSize;
+    }
+
+    /** Nombre d'évasions par flips aléatoires du dernier appel à {@link #optimize} (mode réactif). */
+    public int getEscapeCount() {
+        return (reactiveTenure != null) ? reactiveTenure.escapes() : 0;
+    }
+
+    /**
+     * Fait partir le prochain appel à {@link #optimize} de cette solution au
+     * lieu de la construction ; ignorée si elle dépasse la capacité.
+     *
+     * @param solution solution de départ, ou null pour la construction
+     */
+    public void setInitialSolution(boolean[] solution) {
+        this.initialSolution = (solution == null) ? null : solution.clone();
+    }
+
+    /** Valeur de la meilleure solution du dernier appel à {@link #optimize}. */
+    public double getBestValue() {
+        return bestValue;
+    }
+
+    /**
+     * Borne supérieure de Dantzig (relaxation linéaire) : aucune solution ne
+     * dépasse cette valeur.
+     */
+    public double getUpperBound() {
+        return greedy().dantzigBound();
+    }
+
+    /** Nombre d'itérations effectuées par le dernier appel à {@link #optimize}. */
+    public int getIterationCount() {
+        return iterations;
+    }
+
+    /** Raison de l'arrêt du dernier appel à {@link #optimize}. */
+    public StopCriteria.Reason getStopReason() {
+        return stopReason;
+    }
+
+    /**
+     * Nombre d'itérations du dernier appel à {@link #optimize} ayant ramené la
+     * recherche sur l'une des tabuListSize dernières solutions (cyclage).
+     */
+    public int getRevisitCount() {
+        return revisits;
     }
 
     /** Calcule la valeur de la solution (ou -∞ si surcharge). */
@@ -44,126 +327,584 @@ public class TabuSearchKnapsack {
         return w;
     }
 
-    /** Génère une solution aléatoire (0/1) */
-    private boolean[] randomSolution() {
-        boolean[] s = new boolean[items.size()];
-        for (int i = 0; i < s.length; i++)
-            s[i] = Math.random() < 0.5;
-        return s;
+    private KnapsackGreedy greedy() {
+        if (greedy == null) {
+            double[] ws = new double[items.size()], vs = new double[items.size()];
+            for (int i = 0; i < ws.length; i++) {
+                ws[i] = items.get(i).weight;
+                vs[i] = items.get(i).value;
+            }
+            greedy = new KnapsackGreedy(ws, vs, capacity);
+        }
+        return greedy;
+    }
+
+    /**
+     * Plus grande valeur et plus grand rapport valeur/poids des items hors du
+     * sac, plus grand gain d'un retrait : bornes du second flip, en O(n) par
+     * itération.
+     */
+    private void updateAdditionBounds() {
+        maxOutValue = 0;
+        maxOutRatio = 0;
+        maxRemovalGain = Double.NEGATIVE_INFINITY;
+        KnapsackGreedy g = greedy();
+        for (int i = 0; i < current.size(); i++) {
+            double v = items.get(i).value;
+            if (!current.get(i)) {
+                maxOutValue = Math.max(maxOutValue, v);
+                maxOutRatio = Math.max(maxOutRatio, g.ratio(i));
+            } else {
+                maxRemovalGain = Math.max(maxRemovalGain, -v);
+            }
+        }
+    }
+
+    /**
+     * Borne du gain du second flip avec la place restante. Si le premier flip
+     * dépasse la capacité, seul un retrait peut le rendre réalisable ; sinon
+     * s'y ajoutent le flip seul (gain nul) et un ajout, qui apporte au plus
+     * sa valeur et au plus place × meilleur rapport (borne de Dantzig,
+     * légèrement majorée pour couvrir les arrondis).
+     */
+    private double secondFlipGainBound(double room) {
+        if (room < 0)
+            return maxRemovalGain;
+        double add = Math.min(maxOutValue, room * maxOutRatio * (1 + 1e-9));
+        return Math.max(Math.max(0, add), maxRemovalGain);
+    }
+
+    /** Empreinte des poids, des valeurs et de la capacité, vérifiée à la reprise. */
+    private long instanceFingerprint() {
+        double[] ws = new double[items.size()], vs = new double[items.size()];
+        for (int i = 0; i < ws.length; i++) {
+            ws[i] = items.get(i).weight;
+            vs[i] = items.get(i).value;
+        }
+        return Checkpoint.fingerprint(ws, vs, capacity);
+    }
+
+    /** Copie l'état de la recherche à la fin de l'itération iter (voir {@link #resumeFrom}). */
+    private ByteBuffer checkpointState(long fingerprint, SearchTelemetry telemetry) {
+        long[] bits = current.bitsCopy();
+        int words = bits.length;
+        int tenureSize = (tenure == null) ? 0 : tenure.size();
+        long bytes = 36 + 52 + 4 + 16L * words + 16 + 4 + 4L * tenureSize
+                + 4 + tabuList.size() * (8 + 8L * words)
+                + ((reactiveTenure == null) ? 0 : reactiveTenure.stateBytes())
+                + ((phases == null) ? 0 : SearchPhases.stateBytes() + 8L * inclusions.length
+                        + 16 + 8L * words + 4 + elites.size() * (16 + 8L * words));
+        ByteBuffer buf = Checkpoint.allocate(Checkpoint.KIND_KNAPSACK, bytes);
+        buf.putLong(fingerprint).putInt(items.size()).putInt(tabuListSize).putInt(memoryMode.ordinal())
+           .putInt(reactive ? 1 : 0).putInt(stagnation).putDouble(frequencyPenalty);
+        buf.putInt(iter).putInt(revisits).putInt(stop.staleIterations())
+           .putLong(telemetry.neighborsEvaluated()).putLong(telemetry.tabuRejections())
+           .putLong(telemetry.aspirationHits()).putLong(runRandom.state()).putDouble(bestValue);
+        buf.putInt(words);
+        putWords(buf, bits);
+        buf.putDouble(current.weight()).putDouble(current.value());
+        putWords(buf, toWords(bestSolution, words));
+        buf.putInt(tenureSize);
+        if (tenure != null) {
+            buf.asIntBuffer().put(tenure.expiries());
+            buf.position(buf.position() + 4 * tenureSize);
+        }
+        buf.putInt(tabuList.size());
+        for (int t = 0; t < tabuList.size(); t++) {
+            buf.putLong(tabuList.hashAt(t));
+            putWords(buf, tabuList.solutionAt(t));
+        }
+        if (reactiveTenure != null)
+            reactiveTenure.write(buf);
+        if (phases != null) {
+            phases.write(buf);
+            buf.asIntBuffer().put(inclusions);
+            buf.position(buf.position() + 4 * inclusions.length);
+            buf.asIntBuffer().put(inSince);
+            buf.position(buf.position() + 4 * inSince.length);
+            buf.putDouble(phaseBestValue).putLong(phaseBestHash);
+            putWords(buf, toWords(phaseBest, words));
+            buf.putInt(elites.size());
+            for (int e = 0; e < elites.size(); e++) {
+                buf.putDouble(elites.costAt(e)).putLong(elites.hashAt(e));
+                putWords(buf, toWords(elites.solutionAt(e), words));
+            }
+        }
+        return buf;
+    }
+
+    /** Solution binaire rangée dans des mots de 64 bits. */
+    private static long[] toWords(boolean[] sol, int words) {
+        long[] bits = new long[words];
+        for (int i = 0; i < sol.length; i++) {
+            if (sol[i])
+                bits[i >>> 6] |= 1L << i;
+        }
+        return bits;
+    }
+
+    private static boolean[] fromWords(long[] bits, int n) {
+        boolean[] sol = new boolean[n];
+        for (int i = 0; i < n; i++)
+            sol[i] = (bits[i >>> 6] & (1L << i)) != 0;
+        return sol;
     }
 
-    /** Copie un vecteur binaire */
-    private boolean[] copySolution(boolean[] sol) {
-        return Arrays.copyOf(sol, sol.length);
+    private static void putWords(ByteBuffer buf, long[] words) {
+        buf.asLongBuffer().put(words);
+        buf.position(buf.position() + 8 * words.length);
     }
 
-    /** Compare deux vecteurs binaires */
-    private boolean solutionsEqual(boolean[] a, boolean[] b) {
-        return Arrays.equals(a, b);
+    private static long[] getWords(ByteBuffer buf, int count) {
+        long[] words = new long[count];
+        buf.asLongBuffer().get(words);
+        buf.position(buf.position() + 8 * count);
+        return words;
+    }
+
+    /**
+     * Restaure l'état lu par {@link #resumeFrom} (après les paramètres).
+     *
+     * @return la dernière itération effectuée
+     */
+    private int restore(ByteBuffer buf, SearchTelemetry telemetry) {
+        int last = buf.getInt();
+        revisits = buf.getInt();
+        stop.restoreStale(buf.getInt());
+        telemetry.restore(buf.getLong(), buf.getLong(), buf.getLong());
+        runRandom = new SearchRandom(buf.getLong());
+        bestValue = buf.getDouble();
+        int words = buf.getInt();
+        long[] bits = getWords(buf, words);
+        current.restore(bits, buf.getDouble(), buf.getDouble());
+        bestSolution = fromWords(getWords(buf, words), bestSolution.length);
+        int tenureSize = buf.getInt();
+        if (tenureSize > 0) {
+            buf.asIntBuffer().get(tenure.expiries());
+            buf.position(buf.position() + 4 * tenureSize);
+        }
+        int entries = buf.getInt();
+        for (int t = 0; t < entries; t++) {
+            long hash = buf.getLong();
+            tabuList.add(hash, getWords(buf, words));
+        }
+        if (reactiveTenure != null) {
+            reactiveTenure.read(buf);
+            setActiveTenure(reactiveTenure.tenure());
+        }
+        if (phases != null) {
+            phases.read(buf);
+            buf.asIntBuffer().get(inclusions);
+            buf.position(buf.position() + 4 * inclusions.length);
+            buf.asIntBuffer().get(inSince);
+            buf.position(buf.position() + 4 * inSince.length);
+            phaseBestValue = buf.getDouble();
+            phaseBestHash = buf.getLong();
+            phaseBest = fromWords(getWords(buf, words), inclusions.length);
+            elites.clear();
+            int count = buf.getInt();
+            for (int e = 0; e < count; e++) {
+                double cost = buf.getDouble();
+                long hash = buf.getLong();
+                elites.offer(cost, hash, fromWords(getWords(buf, words), inclusions.length));
+            }
+        }
+        return last;
     }
 
     /**
-     * Génère tous les voisins à distance de Hamming 1 ou 2, valides (<= capacity).
+     * Vrai si la solution obtenue en basculant i (et j) figure parmi les
+     * activeTenure dernières solutions de la liste Tabu. La comparaison
+     * complète n'a lieu que si les empreintes coïncident.
      */
-    private List<boolean[]> generateNeighbors(boolean[] current) {
-        List<boolean[]> neigh = new ArrayList<>();
-        int n = current.length;
+    private boolean isTabuSolution(KnapsackSolution sol, int i, int j) {
+        long h = sol.flipHash(i, j);
+        if (!tabuList.mightContain(h))
+            return false;
+        for (int k = Math.max(0, tabuList.size() - activeTenure); k < tabuList.size(); k++) {
+            if (tabuList.hashAt(k) == h && sol.flipEquals(i, j, tabuList.solutionAt(k)))
+                return true;
+        }
+        return false;
+    }
+
+    private void setActiveTenure(int t) {
+        activeTenure = t;
+        if (tenure != null)
+            tenure.setTenure(t);
+    }
 
-        // flips 1 bit
-        for (int i = 0; i < n; i++) {
-            boolean[] c = copySolution(current);
-            c[i] = !c[i];
-            if (weight(c) <= capacity) neigh.add(c);
+    /** Bascule l'item i et tient à jour sa résidence dans le sac. */
+    private void flip(int i) {
+        if (inclusions != null) {
+            if (current.get(i))
+                inclusions[i] += iter - inSince[i];
+            else
+                inSince[i] = iter;
         }
+        current.flip(i);
+    }
 
-        // flips 2 bits
-        for (int i = 0; i < n; i++) {
-            for (int j = i + 1; j < n; j++) {
-                boolean[] c = copySolution(current);
-                c[i] = !c[i];
-                c[j] = !c[j];
-                if (weight(c) <= capacity) neigh.add(c);
+    /**
+     * Pénalités de diversification : un flip qui ramène l'item dans l'état
+     * (dans le sac ou hors du sac) occupé pendant une fraction f des
+     * itérations coûte f × poids × valeur moyenne.
+     */
+    private void updateFlipPenalties() {
+        double unit = 0;
+        for (Item item : items)
+            unit += item.value;
+        unit *= frequencyPenalty / items.size();
+        for (int i = 0; i < flipPenalty.length; i++) {
+            boolean in = current.get(i);
+            double f = (inclusions[i] + (in ? iter - inSince[i] : 0)) / (double) iter;
+            flipPenalty[i] = unit * (in ? 1 - f : f);
+        }
+    }
+
+    /**
+     * Intensification : la recherche repart d'une solution d'élite tirée au
+     * hasard, avec une mémoire à court terme vide.
+     */
+    private void restartFromElite() {
+        boolean[] sol = elites.solutionAt(runRandom.nextInt(elites.size()));
+        for (int i = 0; i < sol.length; i++) {
+            if (current.get(i))
+                inclusions[i] += iter - inSince[i];
+            if (sol[i])
+                inSince[i] = iter;
+        }
+        current.set(sol);
+        tabuList.clear();
+        if (tenure != null)
+            Arrays.fill(tenure.expiries(), 0);
+    }
+
+    /**
+     * Évasion de la recherche réactive : steps items tirés au hasard sont
+     * basculés (retirés, ou ajoutés s'ils tiennent dans le sac), sans tenir
+     * compte de la mémoire.
+     */
+    private void randomWalk(int steps) {
+        int n = current.size();
+        for (int s = 0; s < steps; s++) {
+            int i = runRandom.nextInt(n);
+            if (current.get(i) || current.weight() + items.get(i).weight <= capacity) {
+                flip(i);
+                if (tenure != null)
+                    tenure.makeTabu(i, iter);
             }
         }
+    }
+
+    /**
+     * Parcourt les flips de 1 bit (j = -1) et de 2 bits (i &lt; j) dont le premier
+     * item est dans [from, to), notés en O(1) à partir du poids et de la valeur
+     * courants, et retient le meilleur voisin admissible (aspiration incluse).
+     * Un item i dont les flips ne peuvent, d'après la borne de Dantzig, pas
+     * battre le meilleur voisin déjà retenu est sauté : le résultat est le
+     * même qu'en parcourant tout. Le parcours est abandonné si un critère
+     * d'arrêt est atteint.
+     */
+    private void scan(int from, int to, Move best) {
+        int n = current.size();
+        double curWeight = current.weight();
+        double curValue  = current.value();
+        long checkAt = best.evaluated + stop.checkInterval();
+        for (int i = from; i < to; i++) {
+            if (best.evaluated >= checkAt) {
+                if (stop.interrupted())
+                    return;
+                checkAt = best.evaluated + stop.checkInterval();
+            }
+            double wi = curWeight + current.deltaWeight(i);
+            double vi = curValue  + current.deltaValue(i);
+            // aucun (i, j) ne dépasse vi + borne : inutile de parcourir les j
+            // la pénalité ne fait que diminuer la note : la borne reste valable
+            if (vi + secondFlipGainBound(capacity - wi) <= best.score)
+                continue;
+            best.evaluated += n - i;
+            for (int j = -1; j < n; j = (j < 0) ? i + 1 : j + 1) {
+                double w   = (j < 0) ? wi : wi + current.deltaWeight(j);
+                if (w > capacity) continue;
+
+                double val = (j < 0) ? vi : vi + current.deltaValue(j);
+                if (val <= best.score) continue;
+                double score = penalized ? val - flipPenalty[i] - ((j < 0) ? 0 : flipPenalty[j]) : val;
+                if (score <= best.score) continue;
+
+                boolean isTabu = (tenure != null)
+                        ? tenure.isTabu(i, iter) || (j >= 0 && tenure.isTabu(j, iter))
+                        : isTabuSolution(current, i, j);
 
-        return neigh;
+                // aspiration : autoriser si meilleur que global best
+                if (isTabu) {
+                    if (val <= bestValue) {
+                        best.tabuRejections++;
+                        continue;
+                    }
+                    best.aspirationHits++;
+                }
+
+                best.value = val;
+                best.score = score;
+                best.i = i;
+                best.j = j;
+            }
+        }
+    }
+
+    /** Meilleur mouvement admissible du voisinage, en séquentiel ou sur le pool. */
+    private Move scanNeighborhood() {
+        if (pool == null) {
+            Move best = new Move();
+            scan(0, current.size(), best);
+            return best;
+        }
+        return ParallelScan.run(pool, current.size(),
+                (from, to) -> {
+                    Move best = new Move();
+                    scan(from, to, best);
+                    return best;
+                },
+                Move::combine);
     }
 
     /**
-     * Lance la Recherche Tabou.
+     * Lance la Recherche Tabou sans écouteur.
+     *
+     * @return la meilleure solution binaire trouvée
+     */
+    public boolean[] optimize() {
+        return optimize(SearchListener.NONE, SamplingPolicy.NEVER);
+    }
+
+    /**
+     * Lance la Recherche Tabou en notifiant les itérations 1, 2, 10 et maxIter,
+     * puis le résultat final.
      *
      * @param listener reçoit les messages aux itérations clefs
      * @return la meilleure solution binaire trouvée
      */
     public boolean[] optimize(IterationListener listener) {
+        return optimize(listener, SamplingPolicy.at(1, 2, 10, maxIter));
+    }
+
+    /**
+     * Lance la Recherche Tabou en notifiant sous forme de messages les
+     * itérations retenues par la politique, puis le résultat final.
+     *
+     * @param listener reçoit les messages d'itération
+     * @return la meilleure solution binaire trouvée
+     */
+    public boolean[] optimize(IterationListener listener, SamplingPolicy policy) {
+        boolean[] bestSolution = optimize(
+            (iteration, currentValue, best, evaluated, rejected, aspirations, nanos) ->
+                listener.onIteration(iteration, String.format(
+                    "Iter %3d → curr=%.2f, best=%.2f",
+                    iteration, currentValue, best)),
+            policy);
+
+        // dump final solution
+        String finalMsg = " Résultat final "
+                        + "Meilleure sol : " + solutionToString(bestSolution) + "\n"
+                        + String.format(
+                            "Valeur = %.2f, Poids = %.2f/%.2f, Borne LP = %.2f, Revisites = %d",
+                            bestValue,
+                            weight(bestSolution),
+                            capacity,
+                            getUpperBound(),
+                            revisits
+                          )
+                        + (reactive ? String.format(", Durée tabou = %d, Évasions = %d", getTenure(), getEscapeCount()) : "")
+                        + (stagnation > 0 ? String.format(", Diversifications = %d, Relances = %d",
+                                getDiversificationCount(), getRestartCount()) : "");
+        listener.onIteration(iterations, finalMsg);
+        return bestSolution;
+    }
+
+    /**
+     * Initialise la recherche comme {@link #optimize}, sans itérer : la
+     * solution de départ devient la solution courante. Avec {@link #scanOnce},
+     * sert aux bancs d'essai du parcours du voisinage.
+     */
+    public void prepare() {
+        // la durée compte depuis l'appel, construction de la solution initiale comprise
+        stop = new StopCondition(stopCriteria, true);
         // 1) initialisation : start with a feasible solution
-        boolean[] bestSolution;
-        do {
-            bestSolution = randomSolution();
-        } while (weight(bestSolution) > capacity);
+        // toute l'aléa d'un appel vient d'une graine tirée du générateur de la recherche
+        runRandom = new SearchRandom(random.nextLong());
+        if (initialSolution != null && weight(initialSolution) <= capacity) {
+            bestSolution = initialSolution.clone();
+        } else {
+            bestSolution = greedy().build(construction, runRandom, RANDOMIZED_GREEDY_CANDIDATES);
+        }
 
-        double bestValue = evaluate(bestSolution);
-        boolean[] current = copySolution(bestSolution);
+        bestValue = evaluate(bestSolution);
+        current = KnapsackSolution.of(items);
+        current.set(bestSolution);
 
-        // 2) boucle principale
-        for (int iter = 1; iter <= maxIter; iter++) {
-            List<boolean[]> neighbors = generateNeighbors(current);
-            boolean[] bestNeighbor = null;
-            double bestNeighborValue = Double.NEGATIVE_INFINITY;
+        int n = current.size();
+        tenure = (memoryMode == TabuMemoryMode.ATTRIBUTE) ? new TabuTenure(n, tabuListSize) : null;
+        // la liste des solutions est dimensionnée pour la plus longue durée possible ;
+        // une répétition n'est un cycle que si elle survient avant 2n itérations
+        int maxTenure = reactive ? Math.max(tabuListSize, Math.min(REACTIVE_MAX_TENURE, n / 2)) : tabuListSize;
+        if (tabuList.capacity() != maxTenure)
+            tabuList = new FingerprintSet<>(maxTenure);
+        tabuList.clear();
+        reactiveTenure = reactive ? new ReactiveTenure(tabuListSize, 1, maxTenure, Math.max(2, 2 * n)) : null;
+        activeTenure = tabuListSize;
+        // mémoire à long terme : résidences comptées depuis la solution initiale, pool d'élite vide
+        phases = (stagnation > 0 && n > 0) ? new SearchPhases(stagnation) : null;
+        inclusions = inSince = null;
+        flipPenalty = null;
+        elites = null;
+        penalized = false;
+        if (phases != null) {
+            inclusions = new int[n];
+            inSince = new int[n];
+            flipPenalty = new double[n];
+            elites = new ElitePool<>(ELITE_SIZE);
+            phaseBest = current.toBooleanArray();
+            phaseBestValue = current.value();
+            phaseBestHash = current.hash();
+        }
+        revisits = 0;
+        iterations = 0;
+        checkpointError = null;
+    }
+
+    /**
+     * Parcourt une fois les flips de 1 et 2 bits de la solution courante
+     * (après {@link #prepare}), comme une itération de {@link #optimize},
+     * sans appliquer le mouvement retenu : des appels répétés font le même
+     * travail.
+     *
+     * @return la valeur du meilleur voisin admissible, -∞ s'il n'y en a pas
+     */
+    public double scanOnce() {
+        iter = 1;
+        updateAdditionBounds();
+        return scanNeighborhood().value;
+    }
 
-            // 2.a) choisir le meilleur voisin admissible (aspiration incluse)
-            for (boolean[] cand : neighbors) {
-                double val = evaluate(cand);
-                boolean isTabu = tabuList.stream().anyMatch(tsol -> solutionsEqual(cand, tsol));
+    /**
+     * Lance la Recherche Tabou, jusqu'à maxIter itérations ou au premier
+     * critère d'arrêt atteint (voir {@link #setStopCriteria}). Les coûts
+     * notifiés sont les valeurs (à maximiser) de la solution courante et de
+     * la meilleure. Reprend au point donné à {@link #resumeFrom} s'il y en a un.
+     * En mode réactif (voir {@link #setReactive}), la durée tabou s'adapte aux
+     * cycles observés ; avec la mémoire à long terme (voir
+     * {@link #setLongTermMemory}), la stagnation déclenche diversifications et
+     * relances.
+     *
+     * @param listener reçoit les itérations retenues par la politique
+     * @return la meilleure solution binaire trouvée
+     */
+    public boolean[] optimize(SearchListener listener, SamplingPolicy policy) {
+        prepare();
+        SearchTelemetry telemetry = new SearchTelemetry(listener, policy);
 
-                // aspiration : autoriser si meilleur que global best
-                if (isTabu && val <= bestValue) continue;
+        // reprise : l'état enregistré remplace celui qui vient d'être initialisé
+        int first = 1;
+        if (resumeState != null) {
+            first = restore(resumeState, telemetry) + 1;
+            iterations = first - 1;
+            resumeState = null;
+        }
+        Checkpoint.Writer writer = (checkpointFile == null) ? null : new Checkpoint.Writer(checkpointFile);
+        long fingerprint = (writer == null) ? 0 : instanceFingerprint();
+        long lastCheckpoint = System.nanoTime();
 
-                if (val > bestNeighborValue) {
-                    bestNeighbor = cand;
-                    bestNeighborValue = val;
-                }
+        // 2) boucle principale
+        for (iter = first; iter <= maxIter && !stop.isStopped(); iter++) {
+            // 2.a) choisir le meilleur voisin admissible (aspiration incluse),
+            //      avec la pénalité de fréquence en diversification
+            updateAdditionBounds();
+            if (phases != null) {
+                penalized = phases.diversifying();
+                if (penalized)
+                    updateFlipPenalties();
             }
+            Move best = scanNeighborhood();
+            telemetry.count(best.evaluated, best.tabuRejections, best.aspirationHits);
+            if (stop.isStopped())
+                break;   // parcours interrompu : le mouvement retenu n'est pas le meilleur
 
-            // 2.b) mise à jour global best
-            if (bestNeighbor != null && bestNeighborValue > bestValue) {
-                bestSolution = copySolution(bestNeighbor);
-                bestValue = bestNeighborValue;
+            // 2.b) passage au voisin : seul le mouvement retenu modifie la solution
+            if (best.i >= 0) {
+                flip(best.i);
+                if (best.j >= 0) flip(best.j);
             }
 
-            // 2.c) passage au voisin
-            if (bestNeighbor != null) {
-                current = bestNeighbor;
+            // 2.c) mise à jour global best
+            boolean improved = best.i >= 0 && best.value > bestValue;
+            if (improved) {
+                bestSolution = current.toBooleanArray();
+                bestValue = best.value;
             }
 
-            // 2.d) mise à jour de la liste Tabu
-            tabuList.add(copySolution(current));
-            if (tabuList.size() > tabuListSize) {
-                tabuList.removeFirst();
+            // 2.d) détection de cycle puis mise à jour de la mémoire Tabu ;
+            //      les empreintes sont tenues dans les deux modes pour compter les revisites
+            if (isTabuSolution(current, -1, -1)) {
+                revisits++;
             }
+            if (tenure != null && best.i >= 0) {
+                tenure.makeTabu(best.i, iter);
+                if (best.j >= 0) tenure.makeTabu(best.j, iter);
+            }
+            tabuList.add(current.hash(), current.bitsCopy());
 
-            // 3) notification aux itérations clefs
-            if (iter == 1 || iter == 2 || iter == 10 || iter == maxIter) {
-                double currentValue = evaluate(current);
-                String msg = String.format(
-                    "Iter %3d → curr=%.2f, best=%.2f",
-                    iter, currentValue, bestValue
-                );
-                listener.onIteration(iter, msg);
+            // 2.e) mode réactif : ajustement de la durée, évasion en cas de cyclage chronique
+            if (reactiveTenure != null) {
+                if (reactiveTenure.visit(current.hash(), iter)) {
+                    randomWalk(reactiveTenure.escapeSteps());
+                    if (current.value() > bestValue) {
+                        bestSolution = current.toBooleanArray();
+                        bestValue = current.value();
+                        improved = true;
+                    }
+                }
+                setActiveTenure(reactiveTenure.tenure());
             }
-        }
 
-        // 4) dump final solution
-        String finalMsg = " Résultat final "
-                        + "Meilleure sol : " + solutionToString(bestSolution) + "\n"
-                        + String.format(
-                            "Valeur = %.2f, Poids = %.2f/%.2f",
-                            bestValue,
-                            weight(bestSolution),
-                            capacity
-                          );
-        listener.onIteration(maxIter, finalMsg);
+            // 2.f) mémoire à long terme : meilleure solution de la phase, changement de phase à la stagnation
+            if (phases != null) {
+                if (current.value() > phaseBestValue) {
+                    phaseBest = current.toBooleanArray();
+                    phaseBestValue = current.value();
+                    phaseBestHash = current.hash();
+                }
+                SearchPhases.Switch change = phases.afterIteration(improved);
+                if (change != SearchPhases.Switch.NONE) {
+                    elites.offer(-phaseBestValue, phaseBestHash, phaseBest);
+                    phaseBestValue = Double.NEGATIVE_INFINITY;
+                    if (change == SearchPhases.Switch.RESTART)
+                        restartFromElite();
+                }
+            }
 
+            // 3) notification selon la politique d'échantillonnage
+            telemetry.iteration(iter, current.value(), bestValue, improved);
+            iterations = iter;
+            stop.afterIteration(best.evaluated, bestValue, improved);
+
+            // 4) point de reprise : copie de l'état, écrite en arrière-plan
+            if (writer != null && !writer.isBusy()) {
+                long now = checkpointPolicy.usesClock() ? System.nanoTime() : 0L;
+                if (checkpointPolicy.samples(iter, improved, now - lastCheckpoint)) {
+                    writer.submit(checkpointState(fingerprint, telemetry));
+                    lastCheckpoint = now;
+                }
+            }
+        }
+
+        stopReason = stop.reason();
+        if (writer != null) {
+            iter = iterations;
+            writer.close(checkpointState(fingerprint, telemetry));
+            checkpointError = writer.failure();
+        }
         return bestSolution;
     }
 
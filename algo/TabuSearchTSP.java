@@ -1,128 +1,1106 @@
 package algo;
 
 import model.City;
+import model.DistanceMetric;
+import model.DistanceOracle;
 import model.IterationListener;
+import model.SamplingPolicy;
+import model.SearchListener;
+import model.StopCriteria;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Recherche Tabou pour le problème du Voyageur de commerce (TSP).
- * Ne notifie le listener qu'aux itérations 1, 2, 10 et maxIter.
  */
 public class TabuSearchTSP {
     private int maxIter;
     private int tabuListSize;
     private List<City> cities;
-    private LinkedList<List<City>> tabuList;
+    private FingerprintSet<int[]> tabuList;
+    private DistanceMetric metric = DistanceMetric.EUCLIDEAN;
+    private DistanceOracle oracle;
+    private TabuMemoryMode memoryMode = TabuMemoryMode.SOLUTION;
+    private TSPNeighborhood neighborhood = TSPNeighborhood.SWAP;
+    private TSPConstruction construction = TSPConstruction.NEAREST_NEIGHBOR;
+    private int candidateK;
+    private CandidateLists candidates;
+    private boolean reactive;
+    private int stagnation;
+    private double frequencyPenalty = DEFAULT_FREQUENCY_PENALTY;
+    private CandidateLists frequencyCandidates;   // voisins des fréquences creuses, si aucune liste n'est fixée
+    private ForkJoinPool pool;
+    private int[] initialRoute;
+    private SplittableRandom random = new SplittableRandom();
+    private StopCriteria stopCriteria = StopCriteria.NONE;
+    private int revisits;
+    private int iterations;
+    private StopCriteria.Reason stopReason = StopCriteria.Reason.MAX_ITERATIONS;
+    private Path checkpointFile;
+    private SamplingPolicy checkpointPolicy = SamplingPolicy.NEVER;
+    private IOException checkpointError;
+    private ByteBuffer resumeState;
+
+    // état de la recherche en cours
+    private SearchRandom runRandom;
+    private TSPTour tour;
+    private int[] bestRoute;
+    private double bestDistance;
+    private int iter;
+    private TabuTenure tenure;     // null en mode SOLUTION
+    private boolean pairAttributes;
+    private boolean[] dontLook;    // null pour le voisinage SWAP
+    private StopCondition stop;
+    private ReactiveTenure reactiveTenure;   // null hors mode réactif
+    private int activeTenure;                // durée tabou courante
+    private SearchPhases phases;             // null sans mémoire à long terme
+    private EdgeFrequency frequency;
+    private ElitePool<int[]> elites;
+    private int[] phaseBestRoute;            // meilleure route de la phase en cours
+    private double phaseBestDistance;
+    private long phaseBestHash;
+    private double penaltyScale;             // pénalité par itération de résidence d'une arête, 0 hors diversification
+
+    // tampons de apply, réutilisés d'un mouvement à l'autre
+    private final int[] touched = new int[6];
+    private final int[] moved = new int[OR_OPT_MAX_SEGMENT];
+    private final int[] removedEdges = new int[8];
+    private final int[] addedEdges = new int[8];
+
+    /** Au-delà de ce nombre de paires, la mémoire par attributs porte sur les positions seules. */
+    private static final int MAX_PAIR_ATTRIBUTES = 1 << 23;
+
+    /** Longueur maximale des segments déplacés par Or-opt. */
+    private static final int OR_OPT_MAX_SEGMENT = 3;
+
+    /** Borne de la durée tabou réactive (et de la liste des routes). */
+    private static final int REACTIVE_MAX_TENURE = 256;
+
+    /** Poids par défaut de la pénalité de fréquence, en longueurs moyennes d'arête. */
+    public static final double DEFAULT_FREQUENCY_PENALTY = 1.0;
+
+    /** Nombre de solutions d'élite gardées pour les relances. */
+    private static final int ELITE_SIZE = 5;
+
+    /** Voisins suivis par ville quand les fréquences ne tiennent pas dans une matrice complète. */
+    private static final int FREQUENCY_CANDIDATES = 8;
+
+    /** Meilleur mouvement (i, j, k) retenu lors d'un parcours du voisinage. */
+    private static final class Move {
+        int i = -1;
+        int j = -1;
+        int k;
+        double delta = Double.MAX_VALUE;
+        double score = Double.MAX_VALUE;   // delta, pénalité de fréquence comprise
+        long evaluated;
+        long tabuRejections;
+        long aspirationHits;
+        final int[] edges = new int[8];    // arêtes créées par un mouvement noté
+
+        /** Meilleur des deux (la gauche en cas d'égalité), compteurs cumulés. */
+        static Move combine(Move left, Move right) {
+            Move best = (right.score < left.score) ? right : left;
+            Move other = (best == left) ? right : left;
+            best.evaluated += other.evaluated;
+            best.tabuRejections += other.tabuRejections;
+            best.aspirationHits += other.aspirationHits;
+            return best;
+        }
+    }
 
     public TabuSearchTSP(int maxIter, int tabuListSize, List<City> cities) {
         this.maxIter = maxIter;
         this.tabuListSize = tabuListSize;
         this.cities = cities;
-        this.tabuList = new LinkedList<>();
+        this.tabuList = new FingerprintSet<>(tabuListSize);
+    }
+
+    /**
+     * Choisit la mémoire tabou : routes complètes (par défaut) ou attributs des
+     * mouvements (paires de positions, ou villes déplacées pour Or-opt)
+     * interdits pendant tabuListSize itérations.
+     */
+    public void setMemoryMode(TabuMemoryMode memoryMode) {
+        this.memoryMode = memoryMode;
+    }
+
+    /**
+     * Choisit la distance utilisée (euclidienne réelle par défaut, ou arrondie
+     * à l'entier comme TSPLIB EUC_2D). Reconstruit l'oracle au prochain appel.
+     */
+    public void setDistanceMetric(DistanceMetric metric) {
+        this.metric = metric;
+        this.oracle = null;
+    }
+
+    /**
+     * Utilise un oracle de distances déjà construit pour ces villes (par
+     * exemple partagé entre plusieurs recherches).
+     */
+    public void setDistanceOracle(DistanceOracle oracle) {
+        this.oracle = oracle;
+    }
+
+    /**
+     * Choisit le voisinage : échange de deux villes (par défaut), 2-opt ou
+     * Or-opt. Les deux derniers utilisent des bits « don't look » : une ville
+     * dont aucun mouvement n'améliore la route n'est plus examinée tant que
+     * ses arêtes ne changent pas.
+     */
+    public void setNeighborhood(TSPNeighborhood neighborhood) {
+        this.neighborhood = neighborhood;
+    }
+
+    /**
+     * Choisit la construction de la route de départ : plus proche voisin
+     * depuis une ville tirée au hasard (par défaut), appariement glouton des
+     * arêtes, courbe de Hilbert ou permutation aléatoire. Les constructions
+     * géométriques sont en O(n log n) et comptent dans la durée de la recherche.
+     */
+    public void setConstruction(TSPConstruction construction) {
+        this.construction = construction;
+    }
+
+    /**
+     * Restreint le voisinage aux mouvements qui créent une arête vers l'un des k
+     * plus proches voisins d'une ville (listes calculées une fois par un arbre
+     * k-d). Chaque itération coûte alors O(n·k) au lieu de O(n²).
+     *
+     * @param k nombre de voisins candidats par ville, 0 pour le voisinage complet
+     */
+    public void setCandidateListSize(int k) {
+        if (k != candidateK) {
+            this.candidateK = k;
+            this.candidates = null;
+        }
+    }
+
+    /**
+     * Utilise des listes de candidats déjà calculées pour ces villes (par
+     * exemple relues avec l'instance) au lieu de les construire.
+     */
+    public void setCandidateLists(CandidateLists lists) {
+        this.candidateK = lists.k();
+        this.candidates = lists;
+    }
+
+    /** Listes de candidats utilisées par le dernier appel à {@link #optimize}, ou null. */
+    public CandidateLists getCandidateLists() {
+        return candidates;
+    }
+
+    /**
+     * Évalue le voisinage en parallèle sur ce pool (null : séquentiel). Le
+     * mouvement retenu est le même qu'en séquentiel : à delta égal, le premier
+     * dans l'ordre de parcours l'emporte.
+     */
+    public void setForkJoinPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Fixe la graine du générateur propre à cette recherche : deux recherches
+     * de même graine et de mêmes paramètres suivent la même trajectoire. Les
+     * appels successifs à {@link #optimize} poursuivent la même séquence.
+     */
+    public void setSeed(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Utilise ce générateur, par exemple un enfant obtenu par
+     * {@link SplittableRandom#split()} pour une recherche parmi d'autres.
+     * Il ne doit pas être partagé avec un autre thread.
+     */
+    public void setRandom(SplittableRandom random) {
+        this.random = random;
+    }
+
+    /**
+     * Ajoute des critères d'arrêt (durée, stagnation, longueur cible,
+     * annulation) au nombre maximal d'itérations. Quand l'un d'eux est
+     * atteint, {@link #optimize} rend la meilleure route trouvée jusque-là.
+     */
+    public void setStopCriteria(StopCriteria criteria) {
+        this.stopCriteria = criteria;
+    }
+
+    /**
+     * Enregistre l'état complet de la recherche (routes courante et meilleure,
+     * mémoire tabou, bits « don't look », itération, générateur, compteurs)
+     * dans ce fichier aux itérations retenues par la politique, puis à la fin
+     * de {@link #optimize}. Le fichier est écrit par un thread de fond, dans
+     * un fichier temporaire renommé ensuite ; un point demandé pendant
+     * l'écriture du précédent est sauté.
+     *
+     * @param file fichier de reprise, ou null pour ne plus en écrire
+     */
+    public void setCheckpoint(Path file, SamplingPolicy policy) {
+        this.checkpointFile = file;
+        this.checkpointPolicy = policy;
     }
 
-    /** Calcule la distance totale d’une route (boucle fermée). */
-    private double evaluate(List<City> route) {
-        double distance = 0;
-        for (int i = 0; i < route.size() - 1; i++) {
-            distance += route.get(i).distanceTo(route.get(i + 1));
+    /**
+     * Fait reprendre le prochain appel à {@link #optimize} au point enregistré
+     * dans ce fichier : la suite de la recherche est celle qu'aurait suivie la
+     * recherche interrompue. Les villes, la taille de la liste tabou, la
+     * mémoire, le voisinage, les candidats, la distance, le mode réactif et
+     * la mémoire à long terme doivent être les mêmes ; maxIter peut être
+     * augmenté pour prolonger une recherche terminée.
+     *
+     * @throws IOException si le fichier est illisible ou enregistré avec
+     *                     d'autres villes ou d'autres paramètres
+     */
+    public void resumeFrom(Path file) throws IOException {
+        ByteBuffer state = Checkpoint.read(file, Checkpoint.KIND_TSP);
+        if (state.remaining() < 48
+                || state.getLong() != instanceFingerprint()
+                || state.getInt() != cities.size()
+                || state.getInt() != tabuListSize
+                || state.getInt() != neighborhood.ordinal()
+                || state.getInt() != memoryMode.ordinal()
+                || state.getInt() != candidateK
+                || state.getInt() != metric.ordinal()
+                || state.getInt() != (reactive ? 1 : 0)
+                || state.getInt() != stagnation
+                || Double.compare(state.getDouble(), frequencyPenalty) != 0)
+            throw new IOException(file + " : point de reprise d'une autre instance ou d'autres paramètres");
+        this.resumeState = state;
+    }
+
+    /** Échec d'écriture d'un point de reprise lors du dernier appel à {@link #optimize}, ou null. */
+    public IOException getCheckpointError() {
+        return checkpointError;
+    }
+
+    /**
+     * Active la recherche tabou réactive : la durée tabou (taille de la
+     * fenêtre de routes interdites, ou durée des attributs) part de
+     * tabuListSize, s'allonge quand la recherche revient sur une route après
+     * un cycle court et raccourcit après une longue période sans répétition ;
+     * une marche aléatoire de mouvements fait sortir la recherche d'un cyclage
+     * chronique. La durée reste entre 1 et max(tabuListSize, min(256, n/2)).
+     */
+    public void setReactive(boolean reactive) {
+        this.reactive = reactive;
+    }
+
+    /**
+     * Active la mémoire à long terme : chaque arête compte les itérations
+     * passées dans la route courante. Après {@code stagnation} itérations
+     * sans amélioration de la meilleure route, la recherche alterne entre
+     * diversification (pendant stagnation/2 itérations, les mouvements sont
+     * choisis sur leur delta augmenté d'une pénalité pour les arêtes déjà
+     * fréquentes) et intensification (relance depuis l'une des meilleures
+     * routes des phases précédentes). Le critère d'aspiration reste évalué
+     * sur la longueur réelle.
+     *
+     * @param stagnation itérations sans amélioration avant un changement de phase, 0 pour désactiver
+     */
+    public void setLongTermMemory(int stagnation) {
+        this.stagnation = Math.max(0, stagnation);
+    }
+
+    /**
+     * Poids de la pénalité de fréquence en diversification : une arête
+     * présente dans la route à chaque itération coûte ce nombre de longueurs
+     * moyennes d'arête ({@value #DEFAULT_FREQUENCY_PENALTY} par défaut).
+     */
+    public void setFrequencyPenalty(double weight) {
+        this.frequencyPenalty = weight;
+    }
+
+    /** Nombre de diversifications du dernier appel à {@link #optimize}. */
+    public int getDiversificationCount() {
+        return (phases != null) ? phases.diversifications() : 0;
+    }
+
+    /** Nombre de relances depuis une route d'élite du dernier appel à {@link #optimize}. */
+    public int getRestartCount() {
+        return (phases != null) ? phases.restarts() : 0;
+    }
+
+    /**
+     * Trajectoire de la durée tabou du dernier appel à {@link #optimize} :
+     * paires (itération, durée) à plat, une par changement, depuis l'itération 0.
+     */
+    public int[] getTenureTrajectory() {
+        return (reactiveTenure != null) ? reactiveTenure.trajectory() : new int[] { 0, tabuListSize };
+    }
+
+    /** Durée tabou à la fin du dernier appel à {@link #optimize}. */
+    public int getTenure() {
+        return (reactiveTenure != null) ? activeTenure : tabuListSize;
+    }
+
+    /** Nombre d'évasions par marche aléatoire du dernier appel à {@link #optimize} (mode réactif). */
+    public int getEscapeCount() {
+        return (reactiveTenure != null) ? reactiveTenure.escapes() : 0;
+    }
+
+    /**
+     * Fait partir le prochain appel à {@link #optimize} de cette route (une
+     * permutation de la liste des villes) au lieu de la construction.
+     *
+     * @param route route de départ, ou null pour la construction
+     */
+    public void setInitialRoute(List<City> route) {
+        if (route == null) {
+            initialRoute = null;
+            return;
         }
-        distance += route.get(route.size() - 1).distanceTo(route.get(0));
-        return distance;
+        Map<City, Integer> index = new IdentityHashMap<>();
+        for (int i = 0; i < cities.size(); i++)
+            index.put(cities.get(i), i);
+        initialRoute = new int[route.size()];
+        for (int k = 0; k < initialRoute.length; k++)
+            initialRoute[k] = index.get(route.get(k));
     }
 
-    /** Génère une route initiale aléatoire. */
-    private List<City> randomRoute() {
-        List<City> route = new ArrayList<>(cities);
-        Collections.shuffle(route);
+    /** Longueur de la meilleure route du dernier appel à {@link #optimize}. */
+    public double getBestDistance() {
+        return bestDistance;
+    }
+
+    /** Nombre d'itérations effectuées par le dernier appel à {@link #optimize}. */
+    public int getIterationCount() {
+        return iterations;
+    }
+
+    /** Raison de l'arrêt du dernier appel à {@link #optimize}. */
+    public StopCriteria.Reason getStopReason() {
+        return stopReason;
+    }
+
+    /**
+     * Nombre d'itérations du dernier appel à {@link #optimize} ayant ramené la
+     * recherche sur l'une des tabuListSize dernières routes (cyclage).
+     */
+    public int getRevisitCount() {
+        return revisits;
+    }
+
+    /** Construit la route initiale (indices de ville) selon la construction choisie. */
+    private int[] constructRoute() {
+        double[] xs = new double[cities.size()], ys = new double[cities.size()];
+        coordinates(xs, ys);
+        return new TourBuilder(xs, ys, metric).build(construction, runRandom, candidates);
+    }
+
+    private void coordinates(double[] xs, double[] ys) {
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = cities.get(i).x;
+            ys[i] = cities.get(i).y;
+        }
+    }
+
+    /** Empreinte des coordonnées des villes, vérifiée à la reprise. */
+    private long instanceFingerprint() {
+        double[] xs = new double[cities.size()], ys = new double[cities.size()];
+        coordinates(xs, ys);
+        return Checkpoint.fingerprint(xs, ys, 0);
+    }
+
+    /** Copie l'état de la recherche à la fin de l'itération iter (voir {@link #resumeFrom}). */
+    private ByteBuffer checkpointState(long fingerprint, SearchTelemetry telemetry) {
+        int n = tour.size();
+        int tenureSize = (tenure == null) ? 0 : tenure.size();
+        long bytes = 48 + 52 + 8L * n + 4 + ((dontLook == null) ? 0 : n) + 4 + 4L * tenureSize
+                + 4 + tabuList.size() * (8 + 4L * n)
+                + ((reactiveTenure == null) ? 0 : reactiveTenure.stateBytes())
+                + ((phases == null) ? 0 : SearchPhases.stateBytes() + frequency.stateBytes()
+                        + 16 + 4L * n + 4 + elites.size() * (16 + 4L * n));
+        ByteBuffer buf = Checkpoint.allocate(Checkpoint.KIND_TSP, bytes);
+        buf.putLong(fingerprint).putInt(n).putInt(tabuListSize).putInt(neighborhood.ordinal())
+           .putInt(memoryMode.ordinal()).putInt(candidateK).putInt(metric.ordinal())
+           .putInt(reactive ? 1 : 0).putInt(stagnation).putDouble(frequencyPenalty);
+        buf.putInt(iter).putInt(revisits).putInt(stop.staleIterations())
+           .putLong(telemetry.neighborsEvaluated()).putLong(telemetry.tabuRejections())
+           .putLong(telemetry.aspirationHits()).putLong(runRandom.state()).putDouble(bestDistance);
+        for (int k = 0; k < n; k++)
+            buf.putInt(tour.cityAt(k));
+        buf.asIntBuffer().put(bestRoute);
+        buf.position(buf.position() + 4 * n);
+        buf.putInt((dontLook == null) ? 0 : 1);
+        if (dontLook != null) {
+            for (boolean b : dontLook)
+                buf.put((byte) (b ? 1 : 0));
+        }
+        buf.putInt(tenureSize);
+        if (tenure != null) {
+            buf.asIntBuffer().put(tenure.expiries());
+            buf.position(buf.position() + 4 * tenureSize);
+        }
+        buf.putInt(tabuList.size());
+        for (int t = 0; t < tabuList.size(); t++) {
+            buf.putLong(tabuList.hashAt(t));
+            buf.asIntBuffer().put(tabuList.solutionAt(t));
+            buf.position(buf.position() + 4 * n);
+        }
+        if (reactiveTenure != null)
+            reactiveTenure.write(buf);
+        if (phases != null) {
+            phases.write(buf);
+            frequency.write(buf);
+            buf.putDouble(phaseBestDistance).putLong(phaseBestHash);
+            putRoute(buf, phaseBestRoute);
+            buf.putInt(elites.size());
+            for (int e = 0; e < elites.size(); e++) {
+                buf.putDouble(elites.costAt(e)).putLong(elites.hashAt(e));
+                putRoute(buf, elites.solutionAt(e));
+            }
+        }
+        return buf;
+    }
+
+    private static void putRoute(ByteBuffer buf, int[] route) {
+        buf.asIntBuffer().put(route);
+        buf.position(buf.position() + 4 * route.length);
+    }
+
+    private static int[] getRoute(ByteBuffer buf, int n) {
+        int[] route = new int[n];
+        buf.asIntBuffer().get(route);
+        buf.position(buf.position() + 4 * n);
         return route;
     }
 
-    /** Copie profonde d’une route. */
-    private List<City> copyRoute(List<City> route) {
-        return new ArrayList<>(route);
+    /**
+     * Restaure l'état lu par {@link #resumeFrom} (après les paramètres).
+     *
+     * @return la dernière itération effectuée
+     */
+    private int restore(ByteBuffer buf, SearchTelemetry telemetry) {
+        int n = cities.size();
+        int last = buf.getInt();
+        revisits = buf.getInt();
+        stop.restoreStale(buf.getInt());
+        telemetry.restore(buf.getLong(), buf.getLong(), buf.getLong());
+        runRandom = new SearchRandom(buf.getLong());
+        bestDistance = buf.getDouble();
+        int[] current = new int[n];
+        buf.asIntBuffer().get(current);
+        buf.position(buf.position() + 4 * n);
+        tour = new TSPTour(current, oracle);
+        bestRoute = new int[n];
+        buf.asIntBuffer().get(bestRoute);
+        buf.position(buf.position() + 4 * n);
+        if (buf.getInt() != 0) {
+            for (int c = 0; c < n; c++)
+                dontLook[c] = buf.get() != 0;
+        }
+        int tenureSize = buf.getInt();
+        if (tenureSize > 0) {
+            buf.asIntBuffer().get(tenure.expiries());
+            buf.position(buf.position() + 4 * tenureSize);
+        }
+        int entries = buf.getInt();
+        for (int t = 0; t < entries; t++) {
+            long hash = buf.getLong();
+            int[] route = new int[n];
+            buf.asIntBuffer().get(route);
+            buf.position(buf.position() + 4 * n);
+            tabuList.add(hash, route);
+        }
+        if (reactiveTenure != null) {
+            reactiveTenure.read(buf);
+            setActiveTenure(reactiveTenure.tenure());
+        }
+        if (phases != null) {
+            phases.read(buf);
+            frequency.read(buf);
+            phaseBestDistance = buf.getDouble();
+            phaseBestHash = buf.getLong();
+            phaseBestRoute = getRoute(buf, n);
+            elites.clear();
+            int count = buf.getInt();
+            for (int e = 0; e < count; e++) {
+                double cost = buf.getDouble();
+                long hash = buf.getLong();
+                elites.offer(cost, hash, getRoute(buf, n));
+            }
+        }
+        return last;
+    }
+
+    /** Convertit une route d'indices en liste de villes. */
+    private List<City> toCities(int[] route) {
+        List<City> list = new ArrayList<>(route.length);
+        for (int c : route)
+            list.add(cities.get(c));
+        return list;
+    }
+
+    /**
+     * Vrai si la route obtenue par le mouvement (hash étant son empreinte)
+     * figure parmi les activeTenure dernières routes de la liste Tabu. La
+     * comparaison complète n'a lieu que si les empreintes coïncident.
+     */
+    private boolean isTabuRoute(long hash, int i, int j, int k) {
+        if (!tabuList.mightContain(hash))
+            return false;
+        for (int t = firstActiveEntry(); t < tabuList.size(); t++) {
+            if (tabuList.hashAt(t) == hash
+                    && tour.neighborEquals(neighborhood, i, j, k, tabuList.solutionAt(t)))
+                return true;
+        }
+        return false;
+    }
+
+    /** Vrai si la route courante figure parmi les activeTenure dernières routes de la liste Tabu. */
+    private boolean isTabuCurrent() {
+        long hash = tour.hash();
+        if (!tabuList.mightContain(hash))
+            return false;
+        for (int t = firstActiveEntry(); t < tabuList.size(); t++) {
+            if (tabuList.hashAt(t) == hash && tour.sameAs(tabuList.solutionAt(t)))
+                return true;
+        }
+        return false;
+    }
+
+    /** Première entrée de la liste Tabu encore interdite : la liste peut être plus longue que la durée courante. */
+    private int firstActiveEntry() {
+        return Math.max(0, tabuList.size() - activeTenure);
+    }
+
+    private void setActiveTenure(int t) {
+        activeTenure = t;
+        if (tenure != null)
+            tenure.setTenure(t);
     }
 
-    /** Compare deux routes en fonction des IDs de ville. */
-    private boolean routesEqual(List<City> r1, List<City> r2) {
-        if (r1.size() != r2.size())
+    /**
+     * Vrai si le mouvement est tabou par ses attributs : la paire de positions
+     * (i, j) pour SWAP et 2-opt, les villes déplacées pour Or-opt.
+     */
+    private boolean isTabuMove(int i, int j, int k) {
+        if (neighborhood == TSPNeighborhood.OR_OPT) {
+            int n = tour.size();
+            for (int s = 0; s < Math.abs(k); s++) {
+                if (tenure.isTabu(tour.cityAt((i + s) % n), iter))
+                    return true;
+            }
             return false;
-        for (int i = 0; i < r1.size(); i++) {
-            if (r1.get(i).id != r2.get(i).id)
-                return false;
         }
-        return true;
+        return pairAttributes
+                ? tenure.isTabu(TabuTenure.pairIndex(i, j, tour.size()), iter)
+                : tenure.isTabu(i, iter) || tenure.isTabu(j, iter);
+    }
+
+    /** Rend tabou les attributs du mouvement appliqué (voir {@link #isTabuMove}). */
+    private void makeTabu(int i, int j, int k, int[] movedCities) {
+        if (neighborhood == TSPNeighborhood.OR_OPT) {
+            for (int s = 0; s < Math.abs(k); s++)
+                tenure.makeTabu(movedCities[s], iter);
+        } else if (pairAttributes) {
+            tenure.makeTabu(TabuTenure.pairIndex(i, j, tour.size()), iter);
+        } else {
+            tenure.makeTabu(i, iter);
+            tenure.makeTabu(j, iter);
+        }
     }
 
-    /** Génère tous les voisins par échange de deux villes (swap). */
-    private List<List<City>> generateNeighbors(List<City> route) {
-        List<List<City>> neighbors = new ArrayList<>();
-        int n = route.size();
-        for (int i = 0; i < n - 1; i++) {
-            for (int j = i + 1; j < n; j++) {
-                List<City> neighbor = copyRoute(route);
-                Collections.swap(neighbor, i, j);
-                neighbors.add(neighbor);
+    /**
+     * Vrai si le mouvement est autorisé : non tabou, ou tabou par ses attributs
+     * mais menant à une route meilleure que la meilleure connue. Compte les
+     * refus et les aspirations dans best.
+     */
+    private boolean isAdmissible(int i, int j, int k, double delta, Move best) {
+        if (tenure != null) {
+            if (!isTabuMove(i, j, k))
+                return true;
+            // aspiration : autoriser si meilleur que le meilleur global
+            if (tour.length() + delta < bestDistance) {
+                best.aspirationHits++;
+                return true;
             }
+        } else if (!isTabuRoute(tour.neighborHash(neighborhood, i, j, k), i, j, k)) {
+            return true;
         }
-        return neighbors;
+        best.tabuRejections++;
+        return false;
     }
 
     /**
-     * Lance la Recherche Tabou pour le TSP.
-     * 
+     * Propose le mouvement (i, j, k) s'il est meilleur que le retenu et admissible.
+     *
+     * @return son delta, ou +∞ si le mouvement n'est pas défini
+     */
+    private double offer(int i, int j, int k, Move best) {
+        double delta;
+        switch (neighborhood) {
+            case TWO_OPT:
+                if (!tour.isValidTwoOpt(i, j))
+                    return Double.POSITIVE_INFINITY;
+                delta = tour.twoOptDelta(i, j);
+                break;
+            case OR_OPT:
+                if (!tour.isValidOrOpt(i, j, k))
+                    return Double.POSITIVE_INFINITY;
+                delta = tour.orOptDelta(i, j, k);
+                break;
+            default:
+                if (i == j)
+                    return Double.POSITIVE_INFINITY;
+                delta = tour.swapDelta(i, j);
+        }
+        best.evaluated++;
+        // en diversification, le mouvement est noté avec la pénalité de fréquence
+        double score = (penaltyScale > 0) ? delta + frequencyPenalty(i, j, k, best.edges) : delta;
+        // le test tabou n'est utile que pour un candidat meilleur que le retenu
+        if (score < best.score && isAdmissible(i, j, k, delta, best)) {
+            best.i = i;
+            best.j = j;
+            best.k = k;
+            best.delta = delta;
+            best.score = score;
+        }
+        return delta;
+    }
+
+    /** Pénalité des arêtes créées par le mouvement, proportionnelle à leur résidence passée. */
+    private double frequencyPenalty(int i, int j, int k, int[] edges) {
+        int count = tour.addedEdges(neighborhood, i, j, k, edges);
+        long residence = 0;
+        for (int e = 0; e < count; e++)
+            residence += frequency.residence(edges[2 * e], edges[2 * e + 1]);
+        return penaltyScale * residence;
+    }
+
+    /** Propose une paire de positions non ordonnée (SWAP et 2-opt). */
+    private double offerPair(int a, int b, Move best) {
+        return (a < b) ? offer(a, b, 0, best) : offer(b, a, 0, best);
+    }
+
+    /**
+     * Parcourt les mouvements dont la ville d'ancrage est à une position de
+     * [from, to) : tous, ou seulement ceux qui créent une arête entre cette ville
+     * et l'un de ses voisins candidats. Avec les bits « don't look », les villes
+     * marquées sont sautées et une ville sans mouvement améliorant est marquée.
+     * Le parcours est abandonné si un critère d'arrêt est atteint.
+     */
+    private void scan(int from, int to, Move best, boolean useDontLook) {
+        long checkAt = best.evaluated + stop.checkInterval();
+        for (int i = from; i < to; i++) {
+            if (best.evaluated >= checkAt) {
+                if (stop.interrupted())
+                    return;
+                checkAt = best.evaluated + stop.checkInterval();
+            }
+            int city = tour.cityAt(i);
+            if (useDontLook && dontLook[city])
+                continue;
+            double minDelta = Double.POSITIVE_INFINITY;
+
+            switch (neighborhood) {
+                case SWAP:
+                    minDelta = scanSwap(i, best);
+                    break;
+                case TWO_OPT:
+                    minDelta = scanTwoOpt(i, best);
+                    break;
+                case OR_OPT:
+                    for (int len = 1; len <= OR_OPT_MAX_SEGMENT; len++)
+                        minDelta = Math.min(minDelta, scanOrOpt(i, len, best));
+                    break;
+            }
+            if (useDontLook && minDelta >= 0)
+                dontLook[city] = true;
+        }
+    }
+
+    private double scanSwap(int i, Move best) {
+        int n = tour.size();
+        double min = Double.POSITIVE_INFINITY;
+        if (candidates == null) {
+            // lignes utilisées par tous les échanges (i, j) : prêtes dans le cache
+            oracle.prefetch(tour.cityAt((i - 1 + n) % n));
+            oracle.prefetch(tour.cityAt(i));
+            oracle.prefetch(tour.cityAt((i + 1) % n));
+            for (int j = i + 1; j < n; j++)
+                min = Math.min(min, offer(i, j, 0, best));
+        } else {
+            int city = tour.cityAt(i);
+            for (int r = 0; r < candidates.k(); r++) {
+                int p = tour.positionOf(candidates.neighbor(city, r));
+                min = Math.min(min, offerPair(i, (p - 1 + n) % n, best));
+                min = Math.min(min, offerPair(i, (p + 1) % n, best));
+            }
+        }
+        return min;
+    }
+
+    private double scanTwoOpt(int i, Move best) {
+        int n = tour.size();
+        double min = Double.POSITIVE_INFINITY;
+        if (candidates == null) {
+            oracle.prefetch(tour.cityAt(i));
+            oracle.prefetch(tour.cityAt((i + 1) % n));
+            for (int j = i + 2; j < n; j++)
+                min = Math.min(min, offer(i, j, 0, best));
+        } else {
+            // arête (i, p) créée par (min, max), ou arête (i, p) créée comme
+            // (i'+1, j'+1) par (i-1, p-1)
+            int city = tour.cityAt(i);
+            for (int r = 0; r < candidates.k(); r++) {
+                int p = tour.positionOf(candidates.neighbor(city, r));
+                min = Math.min(min, offerPair(i, p, best));
+                min = Math.min(min, offerPair((i - 1 + n) % n, (p - 1 + n) % n, best));
+            }
+        }
+        return min;
+    }
+
+    private double scanOrOpt(int i, int len, Move best) {
+        int n = tour.size();
+        double min = Double.POSITIVE_INFINITY;
+        if (candidates == null) {
+            for (int dj = len; dj <= n - 2; dj++) {
+                int j = (i + dj) % n;
+                min = Math.min(min, offer(i, j, len, best));
+                if (len > 1)
+                    min = Math.min(min, offer(i, j, -len, best));
+            }
+        } else {
+            // insertion à côté d'un voisin candidat de l'une des extrémités du segment
+            int first = tour.cityAt(i), last = tour.cityAt((i + len - 1) % n);
+            for (int r = 0; r < candidates.k(); r++) {
+                for (int end = 0; end < 2; end++) {
+                    int c = candidates.neighbor(end == 0 ? first : last, r);
+                    int p = tour.positionOf(c);
+                    for (int e = 0; e < 2; e++) {
+                        int j = (e == 0) ? p : (p - 1 + n) % n;
+                        min = Math.min(min, offer(i, j, len, best));
+                        if (len > 1)
+                            min = Math.min(min, offer(i, j, -len, best));
+                    }
+                }
+            }
+        }
+        return min;
+    }
+
+    /** Meilleur mouvement admissible du voisinage, en séquentiel ou sur le pool. */
+    private Move scanNeighborhood(boolean useDontLook) {
+        int n = tour.size();
+        if (pool == null) {
+            Move best = new Move();
+            scan(0, n, best, useDontLook);
+            return best;
+        }
+        return ParallelScan.run(pool, n,
+                (from, to) -> {
+                    Move best = new Move();
+                    scan(from, to, best, useDontLook);
+                    return best;
+                },
+                Move::combine);
+    }
+
+    /** Applique le mouvement retenu à la route courante et à la mémoire tabou. */
+    private void apply(Move move) {
+        int n = tour.size();
+        int count = tour.endpoints(neighborhood, move.i, move.j, move.k, touched);
+        for (int s = 0; s < Math.abs(move.k); s++)
+            moved[s] = tour.cityAt((move.i + s) % n);
+
+        int removedCount = 0, addedCount = 0;
+        if (frequency != null) {
+            removedCount = tour.removedEdges(neighborhood, move.i, move.j, move.k, removedEdges);
+            addedCount = tour.addedEdges(neighborhood, move.i, move.j, move.k, addedEdges);
+        }
+
+        tour.apply(neighborhood, move.i, move.j, move.k);
+
+        if (frequency != null) {
+            for (int e = 0; e < removedCount; e++)
+                frequency.leave(removedEdges[2 * e], removedEdges[2 * e + 1], iter);
+            for (int e = 0; e < addedCount; e++)
+                frequency.enter(addedEdges[2 * e], addedEdges[2 * e + 1], iter);
+        }
+        if (tenure != null)
+            makeTabu(move.i, move.j, move.k, moved);
+        if (dontLook != null) {
+            for (int t = 0; t < count; t++)
+                dontLook[touched[t]] = false;
+        }
+    }
+
+    /**
+     * Évasion de la recherche réactive : steps mouvements valides tirés au
+     * hasard dans le voisinage, appliqués sans tenir compte de la mémoire.
+     */
+    private void randomWalk(int steps) {
+        int n = tour.size();
+        if (n < 4)
+            return;
+        Move move = new Move();
+        for (int s = 0; s < steps; s++) {
+            do {
+                move.i = runRandom.nextInt(n);
+                move.j = runRandom.nextInt(n);
+                move.k = (neighborhood == TSPNeighborhood.OR_OPT)
+                        ? (1 + runRandom.nextInt(OR_OPT_MAX_SEGMENT)) * (runRandom.nextBoolean() ? 1 : -1)
+                        : 0;
+            } while (!isValidMove(move, n));
+            apply(move);
+        }
+    }
+
+    private boolean isValidMove(Move move, int n) {
+        switch (neighborhood) {
+            case SWAP:
+                return move.i < move.j;
+            case TWO_OPT:
+                return move.i < move.j && tour.isValidTwoOpt(move.i, move.j);
+            default:
+                return tour.isValidOrOpt(move.i, move.j, move.k);
+        }
+    }
+
+    /**
+     * Intensification : la recherche repart d'une route d'élite tirée au
+     * hasard, avec une mémoire à court terme vide.
+     */
+    private void restartFromElite() {
+        int[] route = elites.solutionAt(runRandom.nextInt(elites.size()));
+        frequency.leaveAll(tour, iter);
+        tour = new TSPTour(route, oracle);
+        frequency.enterAll(tour, iter);
+        tabuList.clear();
+        if (tenure != null)
+            Arrays.fill(tenure.expiries(), 0);
+        if (dontLook != null)
+            Arrays.fill(dontLook, false);
+    }
+
+    /** Lance la Recherche Tabou pour le TSP sans écouteur. */
+    public List<City> optimize() {
+        return optimize(SearchListener.NONE, SamplingPolicy.NEVER);
+    }
+
+    /**
+     * Lance la Recherche Tabou pour le TSP en notifiant les itérations 1, 2, 10
+     * et maxIter.
+     *
      * @param listener reçoit les notifications aux itérations clefs.
-     * @return la meilleure route trouvée.
+     * @return la meilleure route trouvée
      */
     public List<City> optimize(IterationListener listener) {
-        // 1) initialisation
-        List<City> bestRoute = randomRoute();
-        double bestDistance = evaluate(bestRoute);
-        List<City> current = copyRoute(bestRoute);
+        return optimize(listener, SamplingPolicy.at(1, 2, 10, maxIter));
+    }
+
+    /**
+     * Lance la Recherche Tabou pour le TSP en notifiant sous forme de messages
+     * les itérations retenues par la politique.
+     *
+     * @param listener reçoit les messages d'itération
+     * @return la meilleure route trouvée
+     */
+    public List<City> optimize(IterationListener listener, SamplingPolicy policy) {
+        return optimize(
+            (iteration, currentCost, bestCost, evaluated, rejected, aspirations, nanos) ->
+                listener.onIteration(
+                        iteration,
+                        "Iteration " + iteration + " : route distance = " + bestCost),
+            policy);
+    }
+
+    /**
+     * Initialise la recherche comme {@link #optimize}, sans itérer : la route
+     * de départ devient la route courante. Avec {@link #scanOnce}, sert aux
+     * bancs d'essai du parcours du voisinage.
+     */
+    public void prepare() {
+        // la durée compte depuis l'appel, construction de l'oracle et des listes comprise
+        stop = new StopCondition(stopCriteria, false);
+
+        // 1) initialisation : les distances passent par l'oracle, les routes sont
+        //    des tableaux d'indices de ville
+        if (oracle == null) {
+            oracle = DistanceOracle.of(cities, metric);
+        }
+        if (candidateK > 0 && candidates == null) {
+            candidates = CandidateLists.build(cities, candidateK);
+        }
+        // toute l'aléa d'un appel vient d'une graine tirée du générateur de la recherche
+        runRandom = new SearchRandom(random.nextLong());
+        bestRoute = (initialRoute != null) ? initialRoute.clone() : constructRoute();
+        tour = new TSPTour(bestRoute, oracle);
+        bestDistance = tour.length();
+        int n = tour.size();
+        // la liste des routes est dimensionnée pour la plus longue durée possible
+        int maxTenure = reactive ? Math.max(tabuListSize, Math.min(REACTIVE_MAX_TENURE, n / 2)) : tabuListSize;
+        if (tabuList.capacity() != maxTenure)
+            tabuList = new FingerprintSet<>(maxTenure);
+        tabuList.clear();
+        revisits = 0;
+        iterations = 0;
+        checkpointError = null;
+
+        // mémoire par attributs : une paire de positions, ou chaque position si n
+        // est grand ; les villes déplacées pour Or-opt
+        long pairs = (long) n * (n - 1) / 2;
+        pairAttributes = pairs <= MAX_PAIR_ATTRIBUTES && neighborhood != TSPNeighborhood.OR_OPT;
+        tenure = (memoryMode == TabuMemoryMode.ATTRIBUTE)
+                ? new TabuTenure(pairAttributes ? (int) pairs : n, tabuListSize)
+                : null;
+        dontLook = (neighborhood == TSPNeighborhood.SWAP) ? null : new boolean[n];
+        // une répétition n'est un cycle que si elle survient avant 2(n-1) itérations
+        reactiveTenure = reactive ? new ReactiveTenure(tabuListSize, 1, maxTenure, Math.max(2, 2 * (n - 1))) : null;
+        activeTenure = tabuListSize;
+        // mémoire à long terme : fréquences des arêtes de la route initiale, pool d'élite vide
+        phases = (stagnation > 0 && n >= 4) ? new SearchPhases(stagnation) : null;
+        frequency = null;
+        elites = null;
+        if (phases != null) {
+            if (!EdgeFrequency.isDense(n) && candidates == null && frequencyCandidates == null)
+                frequencyCandidates = CandidateLists.build(cities, FREQUENCY_CANDIDATES);
+            frequency = new EdgeFrequency(n, (candidates != null) ? candidates : frequencyCandidates);
+            frequency.enterAll(tour, 0);
+            elites = new ElitePool<>(ELITE_SIZE);
+            phaseBestRoute = tour.toArray();
+            phaseBestDistance = tour.length();
+            phaseBestHash = tour.hash();
+        }
+        penaltyScale = 0;
+    }
+
+    /**
+     * Parcourt une fois le voisinage de la route courante (après
+     * {@link #prepare}), comme une itération de {@link #optimize}, sans
+     * appliquer le mouvement retenu ni marquer de bits « don't look » : des
+     * appels répétés font le même travail.
+     *
+     * @return le delta du meilleur mouvement admissible, +∞ s'il n'y en a pas
+     */
+    public double scanOnce() {
+        iter = 1;
+        Move best = scanNeighborhood(false);
+        return (best.i >= 0) ? best.delta : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Lance la Recherche Tabou pour le TSP, jusqu'à maxIter itérations ou au
+     * premier critère d'arrêt atteint (voir {@link #setStopCriteria}), ou la
+     * reprend au point donné à {@link #resumeFrom}. En mode réactif (voir
+     * {@link #setReactive}), la durée tabou s'adapte aux cycles observés ;
+     * avec la mémoire à long terme (voir {@link #setLongTermMemory}), la
+     * stagnation déclenche diversifications et relances.
+     * 
+     * @param listener reçoit les itérations retenues par la politique
+     *                 (longueurs de la route courante et de la meilleure)
+     * @return la meilleure route trouvée.
+     */
+    public List<City> optimize(SearchListener listener, SamplingPolicy policy) {
+        prepare();
+        int n = tour.size();
+        SearchTelemetry telemetry = new SearchTelemetry(listener, policy);
+
+        // reprise : l'état enregistré remplace celui qui vient d'être initialisé
+        int first = 1;
+        if (resumeState != null) {
+            first = restore(resumeState, telemetry) + 1;
+            iterations = first - 1;
+            resumeState = null;
+        }
+        Checkpoint.Writer writer = (checkpointFile == null) ? null : new Checkpoint.Writer(checkpointFile);
+        long fingerprint = (writer == null) ? 0 : instanceFingerprint();
+        long lastCheckpoint = System.nanoTime();
 
         // 2) boucle principale
-        for (int iter = 1; iter <= maxIter; iter++) {
-            List<List<City>> neighbors = generateNeighbors(current);
-            List<City> bestNeighbor = null;
-            double bestNeighborDistance = Double.MAX_VALUE;
-
-            for (List<City> neighbor : neighbors) {
-                boolean isTabu = tabuList.stream().anyMatch(tsol -> routesEqual(neighbor, tsol));
-                if (isTabu)
-                    continue;
-
-                double dist = evaluate(neighbor);
-                if (dist < bestNeighborDistance) {
-                    bestNeighbor = neighbor;
-                    bestNeighborDistance = dist;
-                }
+        for (iter = first; iter <= maxIter && !stop.isStopped(); iter++) {
+            // en diversification : pénalité relative à la longueur moyenne d'arête
+            if (phases != null)
+                penaltyScale = phases.diversifying() ? frequencyPenalty * tour.length() / n / iter : 0;
+            // chaque mouvement est noté par son delta, sans copier la route
+            Move best = scanNeighborhood(dontLook != null);
+            if (dontLook != null && best.delta >= 0 && !stop.isStopped()) {
+                // plus de mouvement améliorant parmi les villes examinées :
+                // on parcourt tout le voisinage pour le meilleur mouvement admissible
+                telemetry.count(best.evaluated, best.tabuRejections, best.aspirationHits);
+                best = scanNeighborhood(false);
+            }
+            telemetry.count(best.evaluated, best.tabuRejections, best.aspirationHits);
+            if (stop.isStopped()) {
+                break;   // parcours interrompu : le mouvement retenu n'est pas le meilleur
+            }
+
+            // passage à la solution courante : seul le mouvement retenu est appliqué
+            if (best.i >= 0) {
+                apply(best);
             }
 
             // mise à jour du meilleur global
-            if (bestNeighbor != null && bestNeighborDistance < bestDistance) {
-                bestRoute = copyRoute(bestNeighbor);
-                bestDistance = bestNeighborDistance;
+            boolean improved = tour.length() < bestDistance;
+            if (improved) {
+                bestRoute = tour.toArray();
+                bestDistance = tour.length();
             }
 
-            // passage à la solution courante
-            current = (bestNeighbor != null) ? bestNeighbor : current;
+            // détection de cycle puis mise à jour de la liste Tabu ; tenue dans les
+            // deux modes pour compter les revisites
+            if (isTabuCurrent()) {
+                revisits++;
+            }
+            tabuList.add(tour.hash(), tour.toArray());
 
-            // mise à jour de la liste Tabu
-            tabuList.add(copyRoute(current));
-            if (tabuList.size() > tabuListSize) {
-                tabuList.removeFirst();
+            // mode réactif : ajustement de la durée, évasion en cas de cyclage chronique
+            if (reactiveTenure != null) {
+                if (reactiveTenure.visit(tour.hash(), iter)) {
+                    randomWalk(reactiveTenure.escapeSteps());
+                    if (tour.length() < bestDistance) {
+                        bestRoute = tour.toArray();
+                        bestDistance = tour.length();
+                        improved = true;
+                    }
+                }
+                setActiveTenure(reactiveTenure.tenure());
             }
 
-            // notification aux itérations 1, 2, 10 et dernière
-            if (iter == 1 || iter == 2 || iter == 10 || iter == maxIter) {
-                listener.onIteration(
-                        iter,
-                        "Iteration " + iter + " : route distance = " + bestDistance);
+            // mémoire à long terme : meilleure route de la phase, changement de phase à la stagnation
+            if (phases != null) {
+                if (tour.length() < phaseBestDistance) {
+                    phaseBestRoute = tour.toArray();
+                    phaseBestDistance = tour.length();
+                    phaseBestHash = tour.hash();
+                }
+                SearchPhases.Switch change = phases.afterIteration(improved);
+                if (change != SearchPhases.Switch.NONE) {
+                    elites.offer(phaseBestDistance, phaseBestHash, phaseBestRoute);
+                    phaseBestDistance = Double.POSITIVE_INFINITY;
+                    if (change == SearchPhases.Switch.RESTART)
+                        restartFromElite();
+                }
+            }
+
+            // notification selon la politique d'échantillonnage
+            telemetry.iteration(iter, tour.length(), bestDistance, improved);
+            iterations = iter;
+            stop.afterIteration(best.evaluated, bestDistance, improved);
+
+            // point de reprise : copie de l'état, écrite en arrière-plan
+            if (writer != null && !writer.isBusy()) {
+                long now = checkpointPolicy.usesClock() ? System.nanoTime() : 0L;
+                if (checkpointPolicy.samples(iter, improved, now - lastCheckpoint)) {
+                    writer.submit(checkpointState(fingerprint, telemetry));
+                    lastCheckpoint = now;
+                }
             }
         }
 
-        return bestRoute;
+        stopReason = stop.reason();
+        if (writer != null) {
+            iter = iterations;
+            writer.close(checkpointState(fingerprint, telemetry));
+            checkpointError = writer.failure();
+        }
+        return toCities(bestRoute);
     }
 
     /** Convertit une route en chaîne d’IDs pour affichage. */
@@ -0,0 +1,55 @@
+package algo;
+
+/**
+ * Mémoire tabou par attributs : chaque attribut (indice entier) est interdit
+ * jusqu'à une itération donnée. Le test et la mise à jour sont en O(1).
+ */
+public class TabuTenure {
+    private final int[] tabuUntilIter;
+    private int tenure;
+
+    /**
+     * @param size   nombre d'attributs possibles
+     * @param tenure nombre d'itérations pendant lesquelles un attribut reste tabou
+     */
+    public TabuTenure(int size, int tenure) {
+        this.tabuUntilIter = new int[size];
+        this.tenure = tenure;
+    }
+
+    /** Vrai si l'attribut est encore tabou à l'itération donnée. */
+    public boolean isTabu(int attribute, int iter) {
+        return tabuUntilIter[attribute] >= iter;
+    }
+
+    /** Rend l'attribut tabou pour les {@code tenure} itérations qui suivent. */
+    public void makeTabu(int attribute, int iter) {
+        tabuUntilIter[attribute] = iter + tenure;
+    }
+
+    public int size() {
+        return tabuUntilIter.length;
+    }
+
+    public int getTenure() {
+        return tenure;
+    }
+
+    /** Change la durée des interdictions posées ensuite ; celles en cours sont gardées. */
+    public void setTenure(int tenure) {
+        this.tenure = tenure;
+    }
+
+    /** Itération de fin d'interdiction de chaque attribut (tableau interne, pour les points de reprise). */
+    int[] expiries() {
+        return tabuUntilIter;
+    }
+
+    /**
+     * Indice d'une paire {i, j} (i &lt; j &lt; n) dans une matrice triangulaire
+     * stockée à plat, de taille n(n-1)/2.
+     */
+    public static int pairIndex(int i, int j, int n) {
+        return i * (2 * n - i - 1) / 2 + (j - i - 1);
+    }
+}
@@ -0,0 +1,234 @@
+package algo;
+
+import java.util.Arrays;
+import model.DistanceMetric;
+
+/**
+ * Constructions de routes de départ du TSP sur les coordonnées à plat (voir
+ * {@link TSPConstruction}). Chaque construction rend une permutation des
+ * indices de ville.
+ */
+final class TourBuilder {
+    /** Voisins par ville pour l'appariement glouton si la recherche n'a pas de listes. */
+    static final int GREEDY_EDGE_NEIGHBORS = 10;
+
+    /** Bits par coordonnée de la grille de la courbe de Hilbert. */
+    private static final int HILBERT_ORDER = 15;
+
+    private final double[] xs;
+    private final double[] ys;
+    private final DistanceMetric metric;
+
+    TourBuilder(double[] xs, double[] ys, DistanceMetric metric) {
+        this.xs = xs;
+        this.ys = ys;
+        this.metric = metric;
+    }
+
+    /**
+     * Route de départ selon la construction choisie.
+     *
+     * @param candidates listes de voisins pour GREEDY_EDGE, ou null pour les calculer
+     */
+    int[] build(TSPConstruction construction, SearchRandom random, CandidateLists candidates) {
+        if (xs.length == 0)
+            return new int[0];
+        switch (construction) {
+            case RANDOM:
+                return randomOrder(random);
+            case GREEDY_EDGE:
+                return greedyEdge(candidates != null ? candidates
+                        : CandidateLists.build(new KdTree(xs, ys), GREEDY_EDGE_NEIGHBORS));
+            case SPACE_FILLING_CURVE:
+                return spaceFillingCurve();
+            default:
+                return nearestNeighbor(random.nextInt(xs.length));
+        }
+    }
+
+    /** Permutation aléatoire (mélange de Fisher-Yates). */
+    int[] randomOrder(SearchRandom random) {
+        int[] route = new int[xs.length];
+        for (int i = 0; i < route.length; i++)
+            route[i] = i;
+        for (int i = route.length - 1; i > 0; i--) {
+            int k = random.nextInt(i + 1);
+            int tmp = route[i];
+            route[i] = route[k];
+            route[k] = tmp;
+        }
+        return route;
+    }
+
+    /** Plus proche voisin depuis start, par un arbre k-d dont on retire les villes visitées. */
+    int[] nearestNeighbor(int start) {
+        int n = xs.length;
+        KdTree tree = new KdTree(xs, ys);
+        int[] route = new int[n];
+        int c = start;
+        route[0] = c;
+        tree.remove(c);
+        for (int k = 1; k < n; k++) {
+            c = tree.nearest(xs[c], ys[c]);
+            route[k] = c;
+            tree.remove(c);
+        }
+        return route;
+    }
+
+    /**
+     * Appariement glouton des arêtes candidates, triées par longueur : une
+     * arête est gardée si ses deux villes sont de degré &lt; 2 et dans des
+     * fragments différents. Les fragments (chemins, villes isolées comprises)
+     * sont ensuite parcourus en passant de la fin de l'un à l'extrémité
+     * restante la plus proche.
+     */
+    int[] greedyEdge(CandidateLists candidates) {
+        int n = xs.length;
+        int k = candidates.k();
+
+        // arêtes triées par longueur : clé = bits du float de la longueur (positive) | numéro d'arête
+        long[] keys = new long[n * k];
+        int m = 0;
+        for (int a = 0; a < n; a++) {
+            for (int r = 0; r < k; r++) {
+                int b = candidates.neighbor(a, r);
+                if (b == a || (b < a && contains(candidates, b, a)))
+                    continue;   // déjà vue depuis b
+                float len = (float) metric.distance(xs[a], ys[a], xs[b], ys[b]);
+                keys[m++] = ((long) Float.floatToIntBits(len) << 32) | (a * k + r);
+            }
+        }
+        Arrays.sort(keys, 0, m);
+
+        int[] adj = new int[2 * n];
+        Arrays.fill(adj, -1);
+        int[] parent = new int[n];
+        for (int i = 0; i < n; i++)
+            parent[i] = i;
+        int edges = 0;
+        for (int e = 0; e < m && edges < n - 1; e++) {
+            int id = (int) keys[e];
+            int a = id / k;
+            int b = candidates.neighbor(a, id % k);
+            if (adj[2 * a + 1] >= 0 || adj[2 * b + 1] >= 0)
+                continue;
+            int ra = find(parent, a), rb = find(parent, b);
+            if (ra == rb)
+                continue;
+            parent[ra] = rb;
+            adj[(adj[2 * a] < 0) ? 2 * a : 2 * a + 1] = b;
+            adj[(adj[2 * b] < 0) ? 2 * b : 2 * b + 1] = a;
+            edges++;
+        }
+
+        // extrémités des fragments (degré < 2), dans un arbre k-d qui leur est propre
+        int ends = 0;
+        for (int c = 0; c < n; c++)
+            if (adj[2 * c + 1] < 0) ends++;
+        int[] endCity = new int[ends];
+        int[] endIndex = new int[n];
+        double[] ex = new double[ends], ey = new double[ends];
+        for (int c = 0, t = 0; c < n; c++) {
+            if (adj[2 * c + 1] < 0) {
+                endCity[t] = c;
+                endIndex[c] = t;
+                ex[t] = xs[c];
+                ey[t] = ys[c];
+                t++;
+            }
+        }
+        KdTree tree = new KdTree(ex, ey);
+
+        int[] route = new int[n];
+        int len = 0;
+        int e = endCity[0];
+        while (true) {
+            tree.remove(endIndex[e]);
+            // parcours du fragment depuis l'extrémité e jusqu'à l'autre
+            int prev = -1, c = e;
+            while (true) {
+                route[len++] = c;
+                int a = adj[2 * c], b = adj[2 * c + 1];
+                int next = (a >= 0 && a != prev) ? a : (b >= 0 && b != prev) ? b : -1;
+                if (next < 0)
+                    break;
+                prev = c;
+                c = next;
+            }
+            tree.remove(endIndex[c]);
+            int t = tree.nearest(xs[c], ys[c]);
+            if (t < 0)
+                return route;
+            e = endCity[t];
+        }
+    }
+
+    private static boolean contains(CandidateLists candidates, int c, int city) {
+        for (int r = 0; r < candidates.k(); r++)
+            if (candidates.neighbor(c, r) == city)
+                return true;
+        return false;
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    /**
+     * Villes triées par leur indice sur une courbe de Hilbert d'une grille de
+     * 2^15 × 2^15 cases couvrant l'instance.
+     */
+    int[] spaceFillingCurve() {
+        int n = xs.length;
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            minX = Math.min(minX, xs[i]);
+            maxX = Math.max(maxX, xs[i]);
+            minY = Math.min(minY, ys[i]);
+            maxY = Math.max(maxY, ys[i]);
+        }
+        int side = 1 << HILBERT_ORDER;
+        double span = Math.max(maxX - minX, maxY - minY);
+        double scale = (span > 0) ? (side - 1) / span : 0;
+
+        // clé = indice de Hilbert (2 × 15 bits) | numéro de ville
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            int x = (int) ((xs[i] - minX) * scale);
+            int y = (int) ((ys[i] - minY) * scale);
+            keys[i] = (hilbertIndex(side, x, y) << 32) | i;
+        }
+        Arrays.sort(keys);
+        int[] route = new int[n];
+        for (int i = 0; i < n; i++)
+            route[i] = (int) keys[i];
+        return route;
+    }
+
+    /** Indice de la case (x, y) le long de la courbe de Hilbert d'une grille side × side. */
+    static long hilbertIndex(int side, int x, int y) {
+        long d = 0;
+        for (int s = side >>> 1; s > 0; s >>>= 1) {
+            int rx = ((x & s) != 0) ? 1 : 0;
+            int ry = ((y & s) != 0) ? 1 : 0;
+            d += (long) s * s * ((3 * rx) ^ ry);
+            // rotation du quadrant
+            if (ry == 0) {
+                if (rx == 1) {
+                    x = side - 1 - x;
+                    y = side - 1 - y;
+                }
+                int t = x;
+                x = y;
+                y = t;
+            }
+        }
+        return d;
+    }
+}
@@ -0,0 +1,32 @@
+package algo;
+
+/**
+ * Clés de Zobrist 64 bits, calculées à la volée par le mélangeur SplitMix64
+ * (aucune table à stocker, même pour de très grandes instances).
+ * L'empreinte d'une solution est le XOR des clés de ses composants, ce qui
+ * permet de la mettre à jour en O(1) à chaque bascule ou échange.
+ */
+public final class Zobrist {
+
+    private Zobrist() {
+    }
+
+    /** Finaliseur SplitMix64. */
+    public static long mix(long z) {
+        z += 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /** Clé de l'item i présent dans le sac. */
+    public static long itemKey(int i) {
+        return mix(i);
+    }
+
+    /** Clé de l'arête non orientée {a, b} d'une route. */
+    public static long edgeKey(int a, int b) {
+        int lo = Math.min(a, b), hi = Math.max(a, b);
+        return mix(((long) lo << 32) ^ (hi & 0xFFFFFFFFL) ^ 0x5DEECE66DL);
+    }
+}
@@ -0,0 +1,395 @@
+package app;
+
+import algo.CandidateLists;
+import algo.TSPNeighborhood;
+import algo.TabuMemoryMode;
+import algo.KnapsackConstruction;
+import algo.TSPConstruction;
+import algo.TabuSearchKnapsack;
+import algo.TabuSearchTSP;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import model.City;
+import model.DistanceMetric;
+import model.Item;
+import model.SamplingPolicy;
+import model.StopCriteria;
+import utils.InstanceCache;
+import utils.KnapsackInstance;
+import utils.TSPInstance;
+
+/**
+ * Résolution en lot, sans interface graphique : chaque instance (CSV, TSPLIB
+ * ou OR-Library, voir {@link utils.InstanceReader}) d'un répertoire ou d'un motif glob est résolue sur un pool borné de threads, et
+ * une ligne de résultat (CSV ou JSONL) est écrite dès qu'elle est terminée.
+ * Les instances volumineuses et leurs listes de candidats sont relues depuis
+ * leur instantané binaire ({@link InstanceCache}). N'utilise aucune classe AWT/Swing.
+ *
+ * <pre>
+ * java app.BatchSolver --problem tsp|knapsack [options] &lt;répertoire|glob&gt;...
+ *   --iterations N     itérations maximales par instance (100)
+ *   --time-limit MS    durée maximale par instance, en millisecondes
+ *   --stall N          arrêt après N itérations sans amélioration
+ *   --target C         arrêt dès que ce coût (TSP) ou cette valeur (sac à dos) est atteint
+ *   --tabu N           taille de la liste tabou (10)
+ *   --memory M         SOLUTION ou ATTRIBUTE
+ *   --reactive B       true : durée tabou réactive, adaptée aux cycles (false)
+ *   --long-term N      mémoire à long terme : diversification ou relance après N
+ *                      itérations sans amélioration (0 : désactivée)
+ *   --frequency-penalty W
+ *                      poids de la pénalité de fréquence en diversification (1)
+ *   --checkpoint N     point de reprise toutes les N itérations dans &lt;instance&gt;.ckpt ;
+ *                      une exécution suivante reprend à ce point s'il existe
+ *   --seed S           graine racine ; une graine dérivée par instance
+ *   --workers N        threads de résolution (nombre de processeurs)
+ *   --output F         fichier de sortie, .csv ou .jsonl (sortie standard)
+ *   --format csv|jsonl format de sortie (d'après l'extension, csv par défaut)
+ *   TSP      : --neighborhood SWAP|TWO_OPT|OR_OPT, --candidates k, --metric EUCLIDEAN|EUC_2D
+ *   TSP      : --construction RANDOM|NEAREST_NEIGHBOR|GREEDY_EDGE|SPACE_FILLING_CURVE (NEAREST_NEIGHBOR)
+ *   TSP      : la distance par défaut est celle du fichier (EDGE_WEIGHT_TYPE TSPLIB)
+ *   sac à dos : --capacity C (obligatoire si le fichier n'en donne pas)
+ *   sac à dos : --construction RANDOM|GREEDY|RANDOMIZED_GREEDY (GREEDY)
+ * </pre>
+ */
+public class BatchSolver {
+
+    private static final String USAGE =
+        "Usage : java app.BatchSolver --problem tsp|knapsack [--iterations N] [--tabu N]"
+      + " [--time-limit MS] [--stall N] [--target C]"
+      + " [--memory SOLUTION|ATTRIBUTE] [--reactive true|false]"
+      + " [--long-term N] [--frequency-penalty W] [--checkpoint N] [--seed S] [--workers N] [--output F] [--format csv|jsonl]"
+      + " [--neighborhood SWAP|TWO_OPT|OR_OPT] [--candidates k] [--metric EUCLIDEAN|EUC_2D]"
+      + " [--construction C] [--capacity C] <répertoire|glob>...";
+
+    private final Map<String, String> options;
+    private final String problem;
+    private final int iterations;
+    private final int tabuSize;
+    private final TabuMemoryMode memoryMode;
+    private final boolean reactive;
+    private final int stagnation;
+    private final double frequencyPenalty;
+    private final StopCriteria stopCriteria;
+    private final boolean jsonl;
+
+    private BatchSolver(Map<String, String> options) {
+        this.options = options;
+        this.problem = required(options, "problem").toLowerCase(Locale.ROOT);
+        if (!problem.equals("tsp") && !problem.equals("knapsack"))
+            throw new IllegalArgumentException("problème inconnu : " + problem);
+        this.iterations = Integer.parseInt(options.getOrDefault("iterations", "100"));
+        this.tabuSize = Integer.parseInt(options.getOrDefault("tabu", "10"));
+        this.memoryMode = TabuMemoryMode.valueOf(options.getOrDefault("memory", "SOLUTION").toUpperCase(Locale.ROOT));
+        this.reactive = Boolean.parseBoolean(options.getOrDefault("reactive", "false"));
+        this.stagnation = Integer.parseInt(options.getOrDefault("long-term", "0"));
+        this.frequencyPenalty = Double.parseDouble(options.getOrDefault("frequency-penalty", "1"));
+        this.stopCriteria = stopCriteria(options);
+        String output = options.get("output");
+        String format = options.getOrDefault("format",
+                (output != null && output.endsWith(".jsonl")) ? "jsonl" : "csv");
+        this.jsonl = format.equalsIgnoreCase("jsonl");
+    }
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        Map<String, String> options = new HashMap<>();
+        List<String> inputs = new ArrayList<>();
+        try {
+            for (int a = 0; a < args.length; a++) {
+                if (args[a].startsWith("--")) {
+                    if (a + 1 >= args.length)
+                        throw new IllegalArgumentException("valeur manquante pour " + args[a]);
+                    options.put(args[a].substring(2), args[++a]);
+                } else {
+                    inputs.add(args[a]);
+                }
+            }
+            if (inputs.isEmpty())
+                throw new IllegalArgumentException("aucune instance");
+            BatchSolver solver = new BatchSolver(options);
+            List<Path> files = new ArrayList<>();
+            for (String input : inputs)
+                files.addAll(expand(input));
+            int failures = solver.run(files);
+            System.exit(failures == 0 ? 0 : 1);
+        } catch (IllegalArgumentException ex) {
+            System.err.println("Erreur : " + message(ex));
+            System.err.println(USAGE);
+            System.exit(2);
+        } catch (IOException | InterruptedException ex) {
+            System.err.println("Erreur : " + message(ex));
+            System.exit(1);
+        }
+    }
+
+    private static String required(Map<String, String> options, String name) {
+        String value = options.get(name);
+        if (value == null)
+            throw new IllegalArgumentException("option --" + name + " obligatoire");
+        return value;
+    }
+
+    /** Critères d'arrêt des options --time-limit, --stall et --target. */
+    private static StopCriteria stopCriteria(Map<String, String> options) {
+        StopCriteria criteria = StopCriteria.NONE;
+        if (options.containsKey("time-limit"))
+            criteria = criteria.or(StopCriteria.timeBudgetMillis(Long.parseLong(options.get("time-limit"))));
+        if (options.containsKey("stall"))
+            criteria = criteria.or(StopCriteria.noImprovement(Integer.parseInt(options.get("stall"))));
+        if (options.containsKey("target"))
+            criteria = criteria.or(StopCriteria.targetCost(Double.parseDouble(options.get("target"))));
+        return criteria;
+    }
+
+    /** Fichiers .csv, .tsp et .txt d'un répertoire, ou fichiers correspondant à un motif glob, triés. */
+    static List<Path> expand(String input) throws IOException {
+        Path path = Paths.get(input);
+        List<Path> files = new ArrayList<>();
+        if (Files.isDirectory(path)) {
+            try (DirectoryStream<Path> dir = Files.newDirectoryStream(path, "*.{csv,tsp,txt}")) {
+                dir.forEach(files::add);
+            }
+        } else if (Files.isRegularFile(path)) {
+            files.add(path);
+        } else {
+            // motif glob : répertoire parent littéral, motif sur le nom de fichier
+            Path parent = (path.getParent() != null) ? path.getParent() : Paths.get(".");
+            PathMatcher matcher = FileSystems.getDefault()
+                    .getPathMatcher("glob:" + path.getFileName());
+            if (Files.isDirectory(parent)) {
+                try (DirectoryStream<Path> dir = Files.newDirectoryStream(parent)) {
+                    for (Path p : dir) {
+                        if (Files.isRegularFile(p) && matcher.matches(p.getFileName()))
+                            files.add(p);
+                    }
+                }
+            }
+        }
+        files.sort(null);
+        return files;
+    }
+
+    /**
+     * Résout les instances sur le pool et écrit les résultats au fil de l'eau.
+     *
+     * @return nombre d'instances en erreur
+     */
+    private int run(List<Path> files) throws IOException, InterruptedException {
+        int workers = Integer.parseInt(options.getOrDefault("workers",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        String seed = options.get("seed");
+        SplittableRandom root = (seed == null) ? new SplittableRandom() : new SplittableRandom(Long.parseLong(seed));
+        String output = options.get("output");
+        Writer out = (output == null)
+                ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))
+                : Files.newBufferedWriter(Paths.get(output), StandardCharsets.UTF_8);
+
+        AtomicInteger failures = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        try {
+            if (!jsonl)
+                out.write("instance,problem,best_cost,iterations,wall_ms,stop,tenure,escapes,diversifications,restarts,solution\n");
+            for (Path file : files) {
+                // graines dérivées dans l'ordre des fichiers : reproductibles
+                SplittableRandom random = root.split();
+                pool.execute(() -> {
+                    try {
+                        String line = solve(file, random);
+                        synchronized (out) {
+                            out.write(line);
+                            out.flush();
+                        }
+                    } catch (IOException | RuntimeException ex) {
+                        failures.incrementAndGet();
+                        System.err.println("Erreur : " + file + " : " + message(ex));
+                    }
+                });
+            }
+            pool.shutdown();
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } finally {
+            pool.shutdownNow();
+            synchronized (out) {
+                if (output == null) out.flush(); else out.close();
+            }
+        }
+        return failures.get();
+    }
+
+    /** Résout une instance et renvoie sa ligne de résultat. */
+    private String solve(Path file, SplittableRandom random) throws IOException {
+        long start = System.nanoTime();
+        double cost;
+        int done;
+        StopCriteria.Reason reason;
+        int[] trajectory;
+        int tenure, escapes, diversifications, restarts;
+        String solution;
+        if (problem.equals("tsp")) {
+            TSPInstance instance = InstanceCache.readTSP(file);
+            warn(file, instance.errors);
+            TabuSearchTSP ts = new TabuSearchTSP(iterations, tabuSize, instance.cities);
+            ts.setMemoryMode(memoryMode);
+            ts.setReactive(reactive);
+            ts.setLongTermMemory(stagnation);
+            ts.setFrequencyPenalty(frequencyPenalty);
+            ts.setNeighborhood(TSPNeighborhood.valueOf(options.getOrDefault("neighborhood", "SWAP").toUpperCase(Locale.ROOT)));
+            ts.setConstruction(TSPConstruction.valueOf(
+                    options.getOrDefault("construction", "NEAREST_NEIGHBOR").toUpperCase(Locale.ROOT)));
+            int k = Integer.parseInt(options.getOrDefault("candidates", "0"));
+            if (k > 0 && instance.candidateK == Math.min(k, instance.cities.size() - 1)) {
+                ts.setCandidateLists(new CandidateLists(instance.candidateK, instance.candidates));
+            } else {
+                ts.setCandidateListSize(k);
+            }
+            String metric = options.get("metric");
+            ts.setDistanceMetric((metric == null)
+                    ? instance.metric
+                    : DistanceMetric.valueOf(metric.toUpperCase(Locale.ROOT)));
+            ts.setRandom(random);
+            ts.setStopCriteria(stopCriteria);
+            Path checkpoint = checkpointFile(file);
+            if (checkpoint != null) {
+                ts.setCheckpoint(checkpoint, checkpointPolicy());
+                if (Files.exists(checkpoint)) {
+                    try {
+                        ts.resumeFrom(checkpoint);
+                    } catch (IOException ex) {
+                        warn(file, List.of("reprise impossible, nouvelle recherche : " + message(ex)));
+                    }
+                }
+            }
+            List<City> route = ts.optimize();
+            CandidateLists lists = ts.getCandidateLists();
+            if (lists != null && lists.k() != instance.candidateK) {
+                InstanceCache.storeCandidates(file, instance, lists.k(), lists.neighbors());
+            }
+            if (ts.getCheckpointError() != null)
+                warn(file, List.of("point de reprise non écrit : " + message(ts.getCheckpointError())));
+            cost = ts.getBestDistance();
+            done = ts.getIterationCount();
+            reason = ts.getStopReason();
+            trajectory = ts.getTenureTrajectory();
+            tenure = ts.getTenure();
+            escapes = ts.getEscapeCount();
+            diversifications = ts.getDiversificationCount();
+            restarts = ts.getRestartCount();
+            solution = ts.routeToString(route);
+        } else {
+            KnapsackInstance instance = InstanceCache.readKnapsack(file);
+            warn(file, instance.errors);
+            List<Item> items = instance.items;
+            String capacity = options.get("capacity");
+            if (capacity == null && !instance.hasCapacity())
+                throw new IllegalArgumentException("capacité absente du fichier, --capacity obligatoire");
+            TabuSearchKnapsack ts = new TabuSearchKnapsack(iterations, tabuSize, items,
+                    (capacity == null) ? instance.capacity : Double.parseDouble(capacity));
+            ts.setMemoryMode(memoryMode);
+            ts.setReactive(reactive);
+            ts.setLongTermMemory(stagnation);
+            ts.setFrequencyPenalty(frequencyPenalty);
+            ts.setConstruction(KnapsackConstruction.valueOf(
+                    options.getOrDefault("construction", "GREEDY").toUpperCase(Locale.ROOT)));
+            ts.setRandom(random);
+            ts.setStopCriteria(stopCriteria);
+            Path checkpoint = checkpointFile(file);
+            if (checkpoint != null) {
+                ts.setCheckpoint(checkpoint, checkpointPolicy());
+                if (Files.exists(checkpoint)) {
+                    try {
+                        ts.resumeFrom(checkpoint);
+                    } catch (IOException ex) {
+                        warn(file, List.of("reprise impossible, nouvelle recherche : " + message(ex)));
+                    }
+                }
+            }
+            boolean[] best = ts.optimize();
+            if (ts.getCheckpointError() != null)
+                warn(file, List.of("point de reprise non écrit : " + message(ts.getCheckpointError())));
+            cost = ts.getBestValue();
+            done = ts.getIterationCount();
+            reason = ts.getStopReason();
+            trajectory = ts.getTenureTrajectory();
+            tenure = ts.getTenure();
+            escapes = ts.getEscapeCount();
+            diversifications = ts.getDiversificationCount();
+            restarts = ts.getRestartCount();
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < best.length; i++) {
+                if (best[i])
+                    sb.append(sb.length() == 0 ? "" : " ").append(items.get(i).id);
+            }
+            solution = sb.toString();
+        }
+        double wallMs = (System.nanoTime() - start) / 1e6;
+        String name = file.toString();
+        if (jsonl) {
+            // trajectoire de la durée tabou : [[itération, durée], ...] à chaque changement
+            StringBuilder points = new StringBuilder("[");
+            for (int t = 0; t < trajectory.length; t += 2)
+                points.append(t == 0 ? "" : ",").append('[').append(trajectory[t]).append(',').append(trajectory[t + 1]).append(']');
+            points.append(']');
+            return String.format(Locale.ROOT,
+                "{\"instance\":\"%s\",\"problem\":\"%s\",\"best_cost\":%s,\"iterations\":%d,\"wall_ms\":%.3f,\"stop\":\"%s\","
+              + "\"tenure\":%d,\"escapes\":%d,\"tenure_trajectory\":%s,"
+              + "\"diversifications\":%d,\"restarts\":%d,\"solution\":\"%s\"}%n",
+                jsonEscape(name), problem, jsonNumber(cost), done, wallMs, reason, tenure, escapes, points,
+                diversifications, restarts, solution);
+        }
+        return String.format(Locale.ROOT, "%s,%s,%s,%d,%.3f,%s,%d,%d,%d,%d,%s%n",
+                csvEscape(name), problem, cost, done, wallMs, reason, tenure, escapes,
+                diversifications, restarts, solution);
+    }
+
+    /** Fichier de reprise d'une instance, ou null sans --checkpoint. */
+    private Path checkpointFile(Path file) {
+        return options.containsKey("checkpoint") ? file.resolveSibling(file.getFileName() + ".ckpt") : null;
+    }
+
+    private SamplingPolicy checkpointPolicy() {
+        return SamplingPolicy.everyIterations(Integer.parseInt(options.get("checkpoint")));
+    }
+
+    /** Signale sur stderr les lignes ignorées à la lecture. */
+    private static void warn(Path file, List<String> errors) {
+        for (String error : errors)
+            System.err.println("Avertissement : " + file + " : " + error);
+    }
+
+    /** Nombre JSON : null pour un coût infini ou NaN (recherche vide ou sans solution réalisable). */
+    private static String jsonNumber(double v) {
+        return Double.isFinite(v) ? String.valueOf(v) : "null";
+    }
+
+    /** Message d'une exception, ou son nom de classe si elle n'en a pas. */
+    private static String message(Throwable ex) {
+        return (ex.getMessage() != null) ? ex.getMessage() : ex.toString();
+    }
+
+    private static String jsonEscape(String s) {
+        return s.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private static String csvEscape(String s) {
+        return (s.indexOf(',') >= 0 || s.indexOf('"') >= 0) ? "\"" + s.replace("\"", "\"\"") + "\"" : s;
+    }
+}
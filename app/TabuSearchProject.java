@@ -4,6 +4,11 @@ import javax.swing.SwingUtilities;
 
 public class TabuSearchProject {
     public static void main(String[] args) {
+        // avec des arguments : résolution en lot, sans charger AWT
+        if (args.length > 0) {
+            BatchSolver.main(args);
+            return;
+        }
         SwingUtilities.invokeLater(MainFrame::new);
     }
 }
@@ -0,0 +1,34 @@
+package bench;
+
+import algo.TabuSearchContinuous;
+import java.util.concurrent.TimeUnit;
+import model.SamplingPolicy;
+import model.SearchListener;
+import org.openjdk.jmh.annotations.*;
+
+/** Optimisation continue de f(x)=x·cos(3πx) sur [-2, 3]. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContinuousBenchmark {
+
+    /** Nombre d'itérations de la recherche. */
+    @Param({"30", "200", "1000", "5000"})
+    public int size;
+
+    private TabuSearchContinuous solver;
+
+    @Setup
+    public void setup() {
+        solver = new TabuSearchContinuous(size, 10);
+    }
+
+    @Benchmark
+    public double optimize() {
+        solver.setSeed(Instances.SEED);
+        return solver.optimize(-2, 3, SearchListener.NONE, SamplingPolicy.NEVER);
+    }
+}
@@ -0,0 +1,55 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import model.City;
+import model.Item;
+
+/** Instances aléatoires reproductibles : même taille et même graine, même instance. */
+final class Instances {
+    static final long SEED = 20240517L;
+
+    private Instances() { }
+
+    /** n villes uniformes dans le carré [0, 1000]². */
+    static List<City> cities(int n, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<City> cities = new ArrayList<>(n);
+        for (int i = 0; i < n; i++)
+            cities.add(new City(i, random.nextDouble() * 1000, random.nextDouble() * 1000));
+        return cities;
+    }
+
+    /** n items de poids et de valeur entiers dans [1, 100]. */
+    static List<Item> items(int n, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Item> items = new ArrayList<>(n);
+        for (int i = 0; i < n; i++)
+            items.add(new Item(i, 1 + random.nextInt(100), 1 + random.nextInt(100)));
+        return items;
+    }
+
+    /** Capacité égale à la moitié du poids total. */
+    static double capacity(List<Item> items) {
+        double w = 0;
+        for (Item it : items)
+            w += it.weight;
+        return w / 2;
+    }
+
+    /** Permutation aléatoire de [0, n). */
+    static int[] route(int n, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] route = new int[n];
+        for (int i = 0; i < n; i++)
+            route[i] = i;
+        for (int i = n - 1; i > 0; i--) {
+            int k = random.nextInt(i + 1);
+            int tmp = route[i];
+            route[i] = route[k];
+            route[k] = tmp;
+        }
+        return route;
+    }
+}
@@ -0,0 +1,61 @@
+package bench;
+
+import algo.TabuSearchKnapsack;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import model.Item;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Sac à dos : parcours du voisinage de flips à 1 et 2 bits par la recherche
+ * (un appel à {@link TabuSearchKnapsack#scanOnce}), et quelques itérations de
+ * la recherche.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KnapsackBenchmark {
+
+    /** Itérations de recherche par appel à optimize. */
+    private static final int ITERATIONS = 10;
+
+    @Param({"30", "200", "1000", "5000"})
+    public int size;
+
+    private TabuSearchKnapsack solver;
+
+    @Setup
+    public void setup() {
+        List<Item> items = Instances.items(size, Instances.SEED);
+        double capacity = Instances.capacity(items);
+
+        // solution de départ fixe : un item sur deux, dans la limite de la capacité
+        boolean[] start = new boolean[size];
+        double w = 0;
+        for (int i = 0; i < size; i += 2) {
+            if (w + items.get(i).weight <= capacity) {
+                start[i] = true;
+                w += items.get(i).weight;
+            }
+        }
+
+        solver = new TabuSearchKnapsack(ITERATIONS, 10, items, capacity);
+        solver.setInitialSolution(start);
+        solver.prepare();
+    }
+
+    /** Meilleure valeur admissible parmi les flips de 1 et 2 bits de la solution de départ. */
+    @Benchmark
+    public double neighbors() {
+        return solver.scanOnce();
+    }
+
+    @Benchmark
+    public boolean[] optimize() {
+        solver.setSeed(Instances.SEED);
+        return solver.optimize();
+    }
+}
@@ -0,0 +1,88 @@
+package bench;
+
+import algo.TSPNeighborhood;
+import algo.TSPTour;
+import algo.TabuSearchTSP;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import model.City;
+import model.DistanceMetric;
+import model.DistanceOracle;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * TSP : évaluation complète d'une route, parcours du voisinage par la
+ * recherche (un appel à {@link TabuSearchTSP#scanOnce}), et quelques
+ * itérations de la recherche. Le voisinage et les listes de candidats ne
+ * paramètrent que les deux derniers (état {@link Search}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TSPBenchmark {
+
+    /** Itérations de recherche par appel à optimize. */
+    private static final int ITERATIONS = 10;
+
+    @Param({"30", "200", "1000", "5000"})
+    public int size;
+
+    private List<City> cities;
+    private DistanceOracle oracle;
+    private int[] route;
+
+    @Setup
+    public void setup() {
+        cities = Instances.cities(size, Instances.SEED);
+        oracle = DistanceOracle.of(cities, DistanceMetric.EUCLIDEAN);
+        route = Instances.route(size, Instances.SEED);
+    }
+
+    /** Recherche partant de la route fixe, pour un voisinage et une taille de listes. */
+    @State(Scope.Benchmark)
+    public static class Search {
+
+        @Param({"SWAP", "TWO_OPT"})
+        public TSPNeighborhood neighborhood;
+
+        /** Voisins candidats par ville (0 : voisinage complet). */
+        @Param({"0", "8"})
+        public int candidateK;
+
+        private TabuSearchTSP solver;
+
+        @Setup
+        public void setup(TSPBenchmark bench) {
+            List<City> start = new ArrayList<>(bench.size);
+            for (int c : bench.route)
+                start.add(bench.cities.get(c));
+            solver = new TabuSearchTSP(ITERATIONS, 10, bench.cities);
+            solver.setDistanceOracle(bench.oracle);
+            solver.setNeighborhood(neighborhood);
+            solver.setCandidateListSize(candidateK);
+            solver.setInitialRoute(start);
+            solver.prepare();
+        }
+    }
+
+    @Benchmark
+    public double evaluate() {
+        return TSPTour.length(route, oracle);
+    }
+
+    /** Meilleur delta admissible du voisinage de la route de départ. */
+    @Benchmark
+    public double neighbors(Search search) {
+        return search.solver.scanOnce();
+    }
+
+    @Benchmark
+    public List<City> optimize(Search search) {
+        search.solver.setSeed(Instances.SEED);
+        return search.solver.optimize();
+    }
+}
@@ -1,18 +1,26 @@
 package gui;
 
+import algo.EvaluationCache;
 import algo.TabuSearchContinuous;
 import java.awt.*;
 import java.util.List;
+import java.util.SplittableRandom;
 import javax.swing.*;
+import model.CancelToken;
+import model.StopCriteria;
 
 public class ContinuousPanel extends JPanel {
     private JTextArea outputArea;
+    private CancelToken cancelToken;     // exécution en cours
+
+    /** Mémoire des entrées du cache d'évaluations, en octets. */
+    private static final long CACHE_BUDGET = 16L << 20;
 
     public ContinuousPanel() {
         setLayout(new BorderLayout(10,10));
 
         // ==== Paramètres ====
-        JPanel paramPanel = new JPanel(new GridLayout(4, 2, 5, 5));
+        JPanel paramPanel = new JPanel(new GridLayout(7, 2, 5, 5));
         paramPanel.setBorder(BorderFactory.createTitledBorder("Paramètres"));
         paramPanel.add(new JLabel("Début de l'intervalle:"));
         JTextField startField = new JTextField("-2");
@@ -30,6 +38,18 @@ public class ContinuousPanel extends JPanel {
         JTextField tabuField = new JTextField("10");
         paramPanel.add(tabuField);
 
+        paramPanel.add(new JLabel("Candidats par itération:"));
+        JTextField batchField = new JTextField(String.valueOf(TabuSearchContinuous.DEFAULT_BATCH_SIZE));
+        paramPanel.add(batchField);
+
+        paramPanel.add(new JLabel("Résolution du cache (vide = sans):"));
+        JTextField cacheField = new JTextField("");
+        paramPanel.add(cacheField);
+
+        paramPanel.add(new JLabel("Graine (vide = aléatoire):"));
+        JTextField seedField = new JTextField("");
+        paramPanel.add(seedField);
+
         add(paramPanel, BorderLayout.NORTH);
 
         // ==== Zone de sortie ====
@@ -40,23 +60,38 @@ public class ContinuousPanel extends JPanel {
         scroll.setBorder(BorderFactory.createTitledBorder("Sortie"));
         add(scroll, BorderLayout.CENTER);
 
-        // ==== Bouton Exécuter ====
+        // ==== Boutons Exécuter / Arrêter ====
         JButton runButton = new JButton("Exécuter Tabu Search");
+        JButton stopButton = new JButton("Arrêter");
+        stopButton.setEnabled(false);
+        stopButton.addActionListener(e -> cancelToken.cancel());
         runButton.addActionListener(e -> {
             try {
                 double start      = Double.parseDouble(startField.getText());
                 double end        = Double.parseDouble(endField.getText());
                 int    iterations = Integer.parseInt(iterField.getText());
                 int    tabuSize   = Integer.parseInt(tabuField.getText());
+                int    batchSize  = Math.max(1, Integer.parseInt(batchField.getText().trim()));
+                String cacheText  = cacheField.getText().trim();
+                EvaluationCache cache = cacheText.isEmpty() ? null
+                        : new EvaluationCache(1, Math.abs(Double.parseDouble(cacheText)), CACHE_BUDGET);
+                SplittableRandom random = Seeds.parse(seedField.getText());
+                CancelToken token = new CancelToken();
+                cancelToken = token;
 
                 outputArea.setText("");
                 runButton.setEnabled(false);
+                stopButton.setEnabled(true);
 
                 SwingWorker<Double, String> worker = new SwingWorker<>() {
                     @Override
                     protected Double doInBackground() {
                         TabuSearchContinuous ts =
                           new TabuSearchContinuous(iterations, tabuSize);
+                        ts.setBatchSize(batchSize);
+                        ts.setEvaluationCache(cache);
+                        ts.setRandom(random);
+                        ts.setStopCriteria(StopCriteria.cancelledBy(token));
                         return ts.optimize(start, end, (it, msg) -> {
                             // TabuSearchContinuous only calls back on its key iterations
                             publish(msg + "\n");
@@ -70,8 +105,16 @@ public class ContinuousPanel extends JPanel {
 
                     @Override
                     protected void done() {
-                        // ← only re-enable button; final output comes from the listener
+                        // ← only re-enable buttons; final output comes from the listener
+                        if (token.isCancelled()) {
+                            outputArea.append("Recherche arrêtée à la demande.\n");
+                        }
+                        if (cache != null) {
+                            outputArea.append(String.format("Cache : %d succès, %d évaluations%n",
+                                    cache.hits(), cache.misses()));
+                        }
                         runButton.setEnabled(true);
+                        stopButton.setEnabled(false);
                     }
                 };
                 worker.execute();
@@ -88,6 +131,7 @@ public class ContinuousPanel extends JPanel {
 
         JPanel south = new JPanel(new FlowLayout(FlowLayout.CENTER));
         south.add(runButton);
+        south.add(stopButton);
         add(south, BorderLayout.SOUTH);
     }
 }
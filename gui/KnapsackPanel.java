@@ -1,14 +1,24 @@
 package gui;
 
+import algo.IslandRunner;
+import algo.IslandStats;
+import algo.KnapsackConstruction;
+import algo.TabuMemoryMode;
 import algo.TabuSearchKnapsack;
 import java.awt.*;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntFunction;
 import javax.swing.*;
+import model.CancelToken;
 import model.Item;
-import utils.CSVUtils;
+import model.StopCriteria;
+import utils.InstanceCache;
+import utils.KnapsackInstance;
 
 /**
  * Panneau Amélioré pour le problème du Sac à Dos avec Recherche Tabou.
@@ -17,8 +27,13 @@ import utils.CSVUtils;
 public class KnapsackPanel extends JPanel {
     private JTextArea outputArea;
     private JButton runButton;
+    private JButton stopButton;
+    private CancelToken cancelToken;     // exécution en cours
     private List<Item> items = new ArrayList<>();
 
+    /** Nombre d'époques d'une exécution en îles ; chacune dure itérations / ISLAND_EPOCHS. */
+    private static final int ISLAND_EPOCHS = 10;
+
     public KnapsackPanel() {
         super(new BorderLayout(10, 10));
         setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
@@ -32,7 +47,7 @@ public class KnapsackPanel extends JPanel {
 
         // Charger CSV
         gbc.gridx = 0; gbc.gridy = 0;
-        paramPanel.add(new JLabel("Fichier CSV:"), gbc);
+        paramPanel.add(new JLabel("Fichier (CSV, OR-Library):"), gbc);
         gbc.gridx = 1;
         JButton loadCSVButton = new JButton("Charger CSV");
         paramPanel.add(loadCSVButton, gbc);
@@ -58,6 +73,54 @@ public class KnapsackPanel extends JPanel {
         JTextField tabuField = new JTextField("10", 8);
         paramPanel.add(tabuField, gbc);
 
+        // Mémoire Tabu
+        gbc.gridx = 0; gbc.gridy = 4;
+        paramPanel.add(new JLabel("Mémoire Tabu:"), gbc);
+        gbc.gridx = 1;
+        JComboBox<TabuMemoryMode> memoryBox = new JComboBox<>(TabuMemoryMode.values());
+        paramPanel.add(memoryBox, gbc);
+
+        // Construction de la solution de départ
+        gbc.gridx = 0; gbc.gridy = 5;
+        paramPanel.add(new JLabel("Construction:"), gbc);
+        gbc.gridx = 1;
+        JComboBox<KnapsackConstruction> constructionBox = new JComboBox<>(KnapsackConstruction.values());
+        constructionBox.setSelectedItem(KnapsackConstruction.GREEDY);
+        paramPanel.add(constructionBox, gbc);
+
+        // Threads (1 = séquentiel)
+        gbc.gridx = 0; gbc.gridy = 6;
+        paramPanel.add(new JLabel("Threads:"), gbc);
+        gbc.gridx = 1;
+        JTextField threadsField = new JTextField("1", 8);
+        paramPanel.add(threadsField, gbc);
+
+        // Îles (1 = recherche unique)
+        gbc.gridx = 0; gbc.gridy = 7;
+        paramPanel.add(new JLabel("Îles:"), gbc);
+        gbc.gridx = 1;
+        JTextField islandsField = new JTextField("1", 8);
+        paramPanel.add(islandsField, gbc);
+
+        // Graine (vide = aléatoire)
+        gbc.gridx = 0; gbc.gridy = 8;
+        paramPanel.add(new JLabel("Graine (vide = aléatoire):"), gbc);
+        gbc.gridx = 1;
+        JTextField seedField = new JTextField("", 8);
+        paramPanel.add(seedField, gbc);
+
+        // Durée tabou réactive
+        gbc.gridx = 1; gbc.gridy = 9;
+        JCheckBox reactiveBox = new JCheckBox("Tabou réactif");
+        paramPanel.add(reactiveBox, gbc);
+
+        // Mémoire à long terme (0 = désactivée)
+        gbc.gridx = 0; gbc.gridy = 10;
+        paramPanel.add(new JLabel("Stagnation long terme (0 = non):"), gbc);
+        gbc.gridx = 1;
+        JTextField longTermField = new JTextField("0", 8);
+        paramPanel.add(longTermField, gbc);
+
         add(paramPanel, BorderLayout.NORTH);
 
         // ========== Zone de sortie ==========
@@ -69,10 +132,14 @@ public class KnapsackPanel extends JPanel {
         scrollPane.setPreferredSize(new Dimension(400, 200));
         add(scrollPane, BorderLayout.CENTER);
 
-        // ========== Bouton Exécuter ==========
+        // ========== Boutons Exécuter / Arrêter ==========
         runButton = new JButton("Exécuter Tabu Search");
+        stopButton = new JButton("Arrêter");
+        stopButton.setEnabled(false);
+        stopButton.addActionListener(e -> cancelToken.cancel());
         JPanel southPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
         southPanel.add(runButton);
+        southPanel.add(stopButton);
         add(southPanel, BorderLayout.SOUTH);
 
         // ========== Actions ==========
@@ -81,21 +148,18 @@ public class KnapsackPanel extends JPanel {
             if (chooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
                 File file = chooser.getSelectedFile();
                 try {
-                    List<String[]> data = CSVUtils.readCSV(file);
+                    KnapsackInstance instance = InstanceCache.readKnapsack(file.toPath());
                     items.clear();
-                    for (String[] line : data) {
-                        if (line.length >= 3) {
-                            try {
-                                int id    = Integer.parseInt(line[0].trim());
-                                double w  = Double.parseDouble(line[1].trim());
-                                double v  = Double.parseDouble(line[2].trim());
-                                items.add(new Item(id, w, v));
-                            } catch (NumberFormatException ignored) { }
-                        }
+                    items.addAll(instance.items);
+                    if (instance.hasCapacity()) {
+                        capField.setText(String.valueOf(instance.capacity));
                     }
                     outputArea.append(
-                      String.format("CSV chargé: %d items.%n", items.size())
+                      String.format("Instance chargée: %d items.%n", items.size())
                     );
+                    for (String error : instance.errors) {
+                        outputArea.append("Ligne ignorée, " + error + "\n");
+                    }
                 } catch (IOException ex) {
                     JOptionPane.showMessageDialog(
                       this,
@@ -121,23 +185,76 @@ public class KnapsackPanel extends JPanel {
                 double cap = Double.parseDouble(capField.getText());
                 int    iters = Integer.parseInt(iterField.getText());
                 int    tabu  = Integer.parseInt(tabuField.getText());
+                TabuMemoryMode memoryMode = (TabuMemoryMode) memoryBox.getSelectedItem();
+                KnapsackConstruction construction = (KnapsackConstruction) constructionBox.getSelectedItem();
+                int    threads = Integer.parseInt(threadsField.getText().trim());
+                int    islands = Integer.parseInt(islandsField.getText().trim());
+                SplittableRandom random = Seeds.parse(seedField.getText());
+                boolean reactive = reactiveBox.isSelected();
+                int    stagnation = Integer.parseInt(longTermField.getText().trim());
+                ForkJoinPool pool = (threads > 1) ? new ForkJoinPool(threads) : null;
+                CancelToken token = new CancelToken();
+                cancelToken = token;
+
+                IntFunction<TabuSearchKnapsack> newSolver = n -> {
+                    TabuSearchKnapsack s = new TabuSearchKnapsack(n, tabu, items, cap);
+                    s.setMemoryMode(memoryMode);
+                    s.setReactive(reactive);
+                    s.setLongTermMemory(stagnation);
+                    s.setConstruction(construction);
+                    s.setForkJoinPool(pool);
+                    s.setRandom(random.split());
+                    s.setStopCriteria(StopCriteria.cancelledBy(token));
+                    return s;
+                };
 
                 outputArea.setText("");
                 runButton.setEnabled(false);
+                stopButton.setEnabled(true);
 
                 SwingWorker<boolean[], String> worker = new SwingWorker<>() {
                     @Override
-                    protected boolean[] doInBackground() {
-                        TabuSearchKnapsack ts =
-                          new TabuSearchKnapsack(iters, tabu, items, cap);
-                        return ts.optimize((iteration, message) -> {
-                            if (iteration == 1
-                             || iteration == 2
-                             || iteration == 10
-                             || iteration == iters) {
-                                publish(message + "\n");
-                            }
+                    protected boolean[] doInBackground() throws Exception {
+                        if (islands > 1) {
+                            return runIslands();
+                        }
+                        TabuSearchKnapsack ts = newSolver.apply(iters);
+                        // itérations 1, 2, 10, dernière, puis résultat final
+                        return ts.optimize((iteration, message) -> publish(message + "\n"));
+                    }
+
+                    /** Îles indépendantes, par époques ; coût = -valeur. */
+                    private boolean[] runIslands() throws Exception {
+                        int epochIters = Math.max(1, iters / ISLAND_EPOCHS);
+                        IslandRunner<boolean[]> runner = new IslandRunner<>(islands, ISLAND_EPOCHS, 0);
+                        runner.setCancelToken(token);
+                        IslandRunner.Result<boolean[]> result = runner.run(island -> {
+                            TabuSearchKnapsack its = newSolver.apply(epochIters);
+                            return new IslandRunner.Search<>() {
+                                @Override
+                                public boolean[] run(boolean[] start) {
+                                    its.setInitialSolution(start);
+                                    return its.optimize();
+                                }
+
+                                @Override
+                                public double cost() {
+                                    return -its.getBestValue();
+                                }
+                            };
                         });
+                        for (IslandStats st : result.islands) {
+                            publish(st + "\n");
+                        }
+                        // arrêt avant la fin de la première époque : aucune solution
+                        if (result.best == null) {
+                            publish("Aucune solution trouvée.\n");
+                            return null;
+                        }
+                        publish(String.format("Meilleure valeur (îles) : %.2f%n", -result.bestCost));
+                        publish("Meilleure sol : "
+                              + newSolver.apply(iters).solutionToString(result.best) + "\n");
+                        return result.best;
                     }
 
                     @Override
@@ -148,7 +265,12 @@ public class KnapsackPanel extends JPanel {
                     @Override
                     protected void done() {
                         // — removed duplicate final append —
+                        if (token.isCancelled()) {
+                            outputArea.append("Recherche arrêtée à la demande.\n");
+                        }
+                        if (pool != null) pool.shutdown();
                         runButton.setEnabled(true);
+                        stopButton.setEnabled(false);
                     }
                 };
                 worker.execute();
@@ -0,0 +1,19 @@
+package gui;
+
+import java.util.SplittableRandom;
+
+/** Lecture du champ « Graine » des panneaux. */
+final class Seeds {
+    private Seeds() { }
+
+    /**
+     * Générateur racine d'une exécution : graine saisie, ou graine aléatoire
+     * si le champ est vide. Chaque recherche en reçoit un enfant par split().
+     *
+     * @throws NumberFormatException si le texte n'est pas un entier
+     */
+    static SplittableRandom parse(String text) {
+        String t = text.trim();
+        return t.isEmpty() ? new SplittableRandom() : new SplittableRandom(Long.parseLong(t));
+    }
+}
@@ -1,15 +1,30 @@
 package gui;
 
+import algo.CandidateLists;
+import algo.TabuMemoryMode;
+import algo.IslandRunner;
+import algo.IslandStats;
+import algo.TSPConstruction;
+import algo.TSPNeighborhood;
 import algo.TabuSearchTSP;
 import java.awt.*;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.SplittableRandom;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntFunction;
 import javax.swing.*;
+import model.CancelToken;
 import model.City;
-import utils.CSVUtils;
+import model.DistanceMetric;
+import model.DistanceOracle;
+import model.StopCriteria;
+import utils.InstanceCache;
+import utils.TSPInstance;
 
 /**
  * Panneau de configuration et d'exécution de la Recherche Tabou pour le TSP.
@@ -19,9 +34,26 @@ public class TSPPanel extends JPanel {
     private final JTextArea outputArea;
     private final JButton loadCSVButton;
     private final JButton runButton;
+    private final JButton stopButton;
     private final JTextField iterField;
     private final JTextField tabuField;
+    private final JComboBox<TabuMemoryMode> memoryBox;
+    private final JComboBox<DistanceMetric> metricBox;
+    private final JTextField candidateField;
+    private final JComboBox<TSPNeighborhood> neighborhoodBox;
+    private final JComboBox<TSPConstruction> constructionBox;
+    private final JTextField threadsField;
+    private final JTextField islandsField;
+    private final JTextField seedField;
+    private final JCheckBox reactiveBox;
+    private final JTextField longTermField;
+
+    /** Nombre d'époques d'une exécution en îles ; chacune dure itérations / ISLAND_EPOCHS. */
+    private static final int ISLAND_EPOCHS = 10;
     private final List<City> cities = new ArrayList<>();
+    private Path instancePath;
+    private TSPInstance instance;
+    private CancelToken cancelToken;     // exécution en cours
 
     public TSPPanel() {
         super(new BorderLayout(10, 10));
@@ -35,7 +67,7 @@ public class TSPPanel extends JPanel {
 
         // Charger CSV
         gbc.gridx = 0; gbc.gridy = 0;
-        paramPanel.add(new JLabel("Fichier CSV:"), gbc);
+        paramPanel.add(new JLabel("Fichier (CSV, TSPLIB):"), gbc);
         gbc.gridx = 1;
         loadCSVButton = new JButton("Charger CSV");
         paramPanel.add(loadCSVButton, gbc);
@@ -54,6 +86,75 @@ public class TSPPanel extends JPanel {
         tabuField = new JTextField("10", 8);
         paramPanel.add(tabuField, gbc);
 
+        // Mémoire Tabu
+        gbc.gridx = 0; gbc.gridy = 3;
+        paramPanel.add(new JLabel("Mémoire Tabu:"), gbc);
+        gbc.gridx = 1;
+        memoryBox = new JComboBox<>(TabuMemoryMode.values());
+        paramPanel.add(memoryBox, gbc);
+
+        // Distance (réelle ou arrondie TSPLIB)
+        gbc.gridx = 0; gbc.gridy = 4;
+        paramPanel.add(new JLabel("Distance:"), gbc);
+        gbc.gridx = 1;
+        metricBox = new JComboBox<>(DistanceMetric.values());
+        paramPanel.add(metricBox, gbc);
+
+        // Listes de candidats (0 = voisinage complet)
+        gbc.gridx = 0; gbc.gridy = 5;
+        paramPanel.add(new JLabel("Voisins candidats k (0 = tous):"), gbc);
+        gbc.gridx = 1;
+        candidateField = new JTextField("0", 8);
+        paramPanel.add(candidateField, gbc);
+
+        // Voisinage
+        gbc.gridx = 0; gbc.gridy = 6;
+        paramPanel.add(new JLabel("Voisinage:"), gbc);
+        gbc.gridx = 1;
+        neighborhoodBox = new JComboBox<>(TSPNeighborhood.values());
+        paramPanel.add(neighborhoodBox, gbc);
+
+        // Construction de la route de départ
+        gbc.gridx = 0; gbc.gridy = 7;
+        paramPanel.add(new JLabel("Construction:"), gbc);
+        gbc.gridx = 1;
+        constructionBox = new JComboBox<>(TSPConstruction.values());
+        constructionBox.setSelectedItem(TSPConstruction.NEAREST_NEIGHBOR);
+        paramPanel.add(constructionBox, gbc);
+
+        // Threads (1 = séquentiel)
+        gbc.gridx = 0; gbc.gridy = 8;
+        paramPanel.add(new JLabel("Threads:"), gbc);
+        gbc.gridx = 1;
+        threadsField = new JTextField("1", 8);
+        paramPanel.add(threadsField, gbc);
+
+        // Îles (1 = recherche unique)
+        gbc.gridx = 0; gbc.gridy = 9;
+        paramPanel.add(new JLabel("Îles:"), gbc);
+        gbc.gridx = 1;
+        islandsField = new JTextField("1", 8);
+        paramPanel.add(islandsField, gbc);
+
+        // Graine (vide = aléatoire)
+        gbc.gridx = 0; gbc.gridy = 10;
+        paramPanel.add(new JLabel("Graine (vide = aléatoire):"), gbc);
+        gbc.gridx = 1;
+        seedField = new JTextField("", 8);
+        paramPanel.add(seedField, gbc);
+
+        // Durée tabou réactive
+        gbc.gridx = 1; gbc.gridy = 11;
+        reactiveBox = new JCheckBox("Tabou réactif");
+        paramPanel.add(reactiveBox, gbc);
+
+        // Mémoire à long terme (0 = désactivée)
+        gbc.gridx = 0; gbc.gridy = 12;
+        paramPanel.add(new JLabel("Stagnation long terme (0 = non):"), gbc);
+        gbc.gridx = 1;
+        longTermField = new JTextField("0", 8);
+        paramPanel.add(longTermField, gbc);
+
         add(paramPanel, BorderLayout.NORTH);
 
         // ===== Zone de sortie =====
@@ -68,8 +169,12 @@ public class TSPPanel extends JPanel {
         loadCSVButton.addActionListener(e -> onLoadCSV());
         runButton = new JButton("Exécuter Tabu Search TSP");
         runButton.addActionListener(e -> onRun());
+        stopButton = new JButton("Arrêter");
+        stopButton.setEnabled(false);
+        stopButton.addActionListener(e -> cancelToken.cancel());
         JPanel south = new JPanel(new FlowLayout(FlowLayout.CENTER));
         south.add(runButton);
+        south.add(stopButton);
         add(south, BorderLayout.SOUTH);
     }
 
@@ -78,20 +183,20 @@ public class TSPPanel extends JPanel {
         if (chooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
             File file = chooser.getSelectedFile();
             try {
-                List<String[]> data = CSVUtils.readCSV(file);
+                instancePath = file.toPath();
+                instance = InstanceCache.readTSP(instancePath);
                 cities.clear();
-                for (String[] line : data) {
-                    if (line.length >= 3) {
-                        int id = Integer.parseInt(line[0].trim());
-                        double x = Double.parseDouble(line[1].trim());
-                        double y = Double.parseDouble(line[2].trim());
-                        cities.add(new City(id, x, y));
-                    }
+                cities.addAll(instance.cities);
+                if (instance.metric != DistanceMetric.EUCLIDEAN) {
+                    metricBox.setSelectedItem(instance.metric);
                 }
                 outputArea.append(
-                    String.format("CSV chargé : %d villes.%n", cities.size())
+                    String.format("Instance chargée : %d villes.%n", cities.size())
                 );
-            } catch (IOException | NumberFormatException ex) {
+                for (String error : instance.errors) {
+                    outputArea.append("Ligne ignorée, " + error + "\n");
+                }
+            } catch (IOException ex) {
                 JOptionPane.showMessageDialog(
                     this,
                     "Erreur chargement CSV : " + ex.getMessage(),
@@ -115,19 +220,100 @@ public class TSPPanel extends JPanel {
         try {
             final int iterations = Integer.parseInt(iterField.getText().trim());
             final int tabuSize   = Integer.parseInt(tabuField.getText().trim());
+            final TabuMemoryMode memoryMode = (TabuMemoryMode) memoryBox.getSelectedItem();
+            final DistanceMetric metric = (DistanceMetric) metricBox.getSelectedItem();
+            final int candidateK = Integer.parseInt(candidateField.getText().trim());
+            final TSPNeighborhood neighborhood = (TSPNeighborhood) neighborhoodBox.getSelectedItem();
+            final TSPConstruction construction = (TSPConstruction) constructionBox.getSelectedItem();
+            final int threads    = Integer.parseInt(threadsField.getText().trim());
+            final int islands    = Integer.parseInt(islandsField.getText().trim());
+            final SplittableRandom random = Seeds.parse(seedField.getText());
+            final boolean reactive = reactiveBox.isSelected();
+            final int stagnation = Integer.parseInt(longTermField.getText().trim());
+            final ForkJoinPool pool = (threads > 1) ? new ForkJoinPool(threads) : null;
+
+            final CancelToken token = new CancelToken();
+            cancelToken = token;
 
             outputArea.setText("");
             runButton.setEnabled(false);
+            stopButton.setEnabled(true);
+
+            // instance figée pour la course : « Charger CSV » peut la remplacer entre-temps
+            final TSPInstance runInstance = instance;
+            final Path runPath = instancePath;
+            final List<City> runCities = runInstance.cities;
+
+            final IntFunction<TabuSearchTSP> newSolver = iters -> {
+                TabuSearchTSP s = new TabuSearchTSP(iters, tabuSize, runCities);
+                s.setMemoryMode(memoryMode);
+                s.setReactive(reactive);
+                s.setLongTermMemory(stagnation);
+                s.setDistanceMetric(metric);
+                if (candidateK > 0 && runInstance.candidateK == Math.min(candidateK, runCities.size() - 1)) {
+                    s.setCandidateLists(new CandidateLists(runInstance.candidateK, runInstance.candidates));
+                } else {
+                    s.setCandidateListSize(candidateK);
+                }
+                s.setNeighborhood(neighborhood);
+                s.setConstruction(construction);
+                s.setForkJoinPool(pool);
+                s.setRandom(random.split());
+                s.setStopCriteria(StopCriteria.cancelledBy(token));
+                return s;
+            };
+            final TabuSearchTSP ts = newSolver.apply(iterations);
 
             SwingWorker<List<City>, String> worker = new SwingWorker<>() {
+                /** Instance complétée par les listes de candidats enregistrées, ou null. */
+                private TSPInstance updated;
+
                 @Override
-                protected List<City> doInBackground() {
-                    TabuSearchTSP ts = new TabuSearchTSP(iterations, tabuSize, cities);
-                    return ts.optimize((iter, msg) -> {
-                        if (iter == 1 || iter == 2 || iter == 10 || iter == iterations) {
-                            publish(msg + "\n");
-                        }
+                protected List<City> doInBackground() throws Exception {
+                    if (islands > 1) {
+                        return runIslands();
+                    }
+                    // itérations 1, 2, 10 et dernière
+                    List<City> route = ts.optimize((iter, msg) -> publish(msg + "\n"));
+                    // réécriture de l'instantané hors de l'EDT
+                    try {
+                        updated = storeCandidates(runPath, runInstance, ts.getCandidateLists());
+                    } catch (IOException ex) {
+                        publish("Listes de candidats non enregistrées : " + ex.getMessage() + "\n");
+                    }
+                    return route;
+                }
+
+                /** Îles partageant le même oracle de distances, par époques. */
+                private List<City> runIslands() throws Exception {
+                    DistanceOracle oracle = DistanceOracle.of(runCities, metric);
+                    int epochIters = Math.max(1, iterations / ISLAND_EPOCHS);
+                    IslandRunner<List<City>> runner = new IslandRunner<>(islands, ISLAND_EPOCHS, 0);
+                    runner.setCancelToken(token);
+                    IslandRunner.Result<List<City>> result = runner.run(island -> {
+                        TabuSearchTSP its = newSolver.apply(epochIters);
+                        its.setDistanceOracle(oracle);
+                        return new IslandRunner.Search<>() {
+                            @Override
+                            public List<City> run(List<City> start) {
+                                its.setInitialRoute(start);
+                                return its.optimize();
+                            }
+
+                            @Override
+                            public double cost() {
+                                return its.getBestDistance();
+                            }
+                        };
                     });
+                    for (IslandStats st : result.islands) {
+                        publish(st + "\n");
+                    }
+                    // arrêt avant la fin de la première époque : aucune route
+                    if (result.best != null) {
+                        publish("Meilleure distance (îles) : " + result.bestCost + "\n");
+                    }
+                    return result.best;
                 }
 
                 @Override
@@ -139,11 +325,31 @@ public class TSPPanel extends JPanel {
                 protected void done() {
                     try {
                         List<City> bestRoute = get();
-                        String routeStr = new TabuSearchTSP(iterations, tabuSize, cities)
-                            .routeToString(bestRoute);
-                        outputArea.append(
-                            "Meilleure route trouvée : " + routeStr + "\n"
-                        );
+                        if (bestRoute == null) {
+                            outputArea.append("Aucune solution trouvée.\n");
+                        } else {
+                            outputArea.append(
+                                "Meilleure route trouvée : " + ts.routeToString(bestRoute) + "\n"
+                            );
+                        }
+                        if (token.isCancelled()) {
+                            outputArea.append("Recherche arrêtée à la demande.\n");
+                        }
+                        if (islands <= 1) {
+                            outputArea.append("Itérations : " + ts.getIterationCount() + "\n");
+                            outputArea.append("Revisites : " + ts.getRevisitCount() + "\n");
+                            if (reactive) {
+                                outputArea.append("Durée tabou finale : " + ts.getTenure()
+                                        + ", évasions : " + ts.getEscapeCount() + "\n");
+                            }
+                            if (stagnation > 0) {
+                                outputArea.append("Diversifications : " + ts.getDiversificationCount()
+                                        + ", relances d'élite : " + ts.getRestartCount() + "\n");
+                            }
+                            if (updated != null && instance == runInstance) {
+                                instance = updated;
+                            }
+                        }
                     } catch (InterruptedException | ExecutionException ex) {
                         JOptionPane.showMessageDialog(
                             TSPPanel.this,
@@ -152,7 +358,9 @@ public class TSPPanel extends JPanel {
                             JOptionPane.ERROR_MESSAGE
                         );
                     } finally {
+                        if (pool != null) pool.shutdown();
                         runButton.setEnabled(true);
+                        stopButton.setEnabled(false);
                     }
                 }
             };
@@ -167,4 +375,18 @@ public class TSPPanel extends JPanel {
             );
         }
     }
+
+    /**
+     * Enregistre les listes de candidats calculées avec l'instantané de
+     * l'instance (appelée hors de l'EDT) ; rend l'instance qui les porte, ou
+     * null s'il n'y avait rien à enregistrer.
+     */
+    private static TSPInstance storeCandidates(Path path, TSPInstance instance, CandidateLists lists)
+            throws IOException {
+        if (lists == null || lists.k() == instance.candidateK)
+            return null;
+        InstanceCache.storeCandidates(path, instance, lists.k(), lists.neighbors());
+        return new TSPInstance(instance.name, instance.cities, instance.metric, instance.errors,
+                               lists.k(), lists.neighbors());
+    }
 }
@@ -0,0 +1,20 @@
+package model;
+
+/**
+ * Demande d'arrêt transmise à une recherche depuis un autre thread (bouton
+ * Arrêter, délai d'un service...). La recherche la consulte avec ses autres
+ * critères d'arrêt ({@link StopCriteria#cancelledBy}) et rend la meilleure
+ * solution trouvée jusque-là.
+ */
+public final class CancelToken {
+    private volatile boolean cancelled;
+
+    /** Demande l'arrêt ; sans effet si c'est déjà fait. */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
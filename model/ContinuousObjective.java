@@ -0,0 +1,24 @@
+package model;
+
+/**
+ * Fonction à maximiser sur des vecteurs de réels. Les points sont lus dans un
+ * tampon à plat : le point k d'un lot occupe
+ * {@code buffer[k*dimension .. (k+1)*dimension)}. Une fonction évaluée sur un
+ * pool de threads doit pouvoir être appelée par plusieurs threads à la fois.
+ */
+@FunctionalInterface
+public interface ContinuousObjective {
+
+    /** Valeur au point {@code buffer[offset .. offset+dimension)}. */
+    double evaluate(double[] buffer, int offset, int dimension);
+
+    /**
+     * Évalue les points [from, to) d'un lot et écrit leurs valeurs dans
+     * {@code out[from..to)}. À redéfinir pour calculer le lot d'un seul
+     * appel (code vectorisé, bibliothèque externe...).
+     */
+    default void evaluateBatch(double[] buffer, int from, int to, int dimension, double[] out) {
+        for (int k = from; k < to; k++)
+            out[k] = evaluate(buffer, k * dimension, dimension);
+    }
+}
@@ -0,0 +1,31 @@
+package model;
+
+/**
+ * Matrice des distances précalculée, stockée à plat dans un {@code double[n*n]}.
+ */
+public class DenseDistanceMatrix implements DistanceOracle {
+    private final int n;
+    private final double[] matrix;
+
+    public DenseDistanceMatrix(double[] xs, double[] ys, DistanceMetric metric) {
+        this.n = xs.length;
+        this.matrix = new double[n * n];
+        for (int a = 0; a < n; a++) {
+            for (int b = a + 1; b < n; b++) {
+                double d = metric.distance(xs[a], ys[a], xs[b], ys[b]);
+                matrix[a * n + b] = d;
+                matrix[b * n + a] = d;
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return n;
+    }
+
+    @Override
+    public double distance(int a, int b) {
+        return matrix[a * n + b];
+    }
+}
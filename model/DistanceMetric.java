@@ -0,0 +1,68 @@
+package model;
+
+/**
+ * Fonction de distance entre deux points du plan.
+ */
+public enum DistanceMetric {
+    /** Distance euclidienne réelle, identique à {@link City#distanceTo(City)}. */
+    EUCLIDEAN {
+        @Override
+        public double distance(double x1, double y1, double x2, double y2) {
+            return Math.hypot(x1 - x2, y1 - y2);
+        }
+    },
+    /** Distance euclidienne arrondie à l'entier le plus proche (TSPLIB EUC_2D). */
+    EUC_2D {
+        @Override
+        public double distance(double x1, double y1, double x2, double y2) {
+            double dx = x1 - x2, dy = y1 - y2;
+            return (int) (Math.sqrt(dx * dx + dy * dy) + 0.5);
+        }
+    },
+    /** Distance euclidienne arrondie à l'entier supérieur (TSPLIB CEIL_2D). */
+    CEIL_2D {
+        @Override
+        public double distance(double x1, double y1, double x2, double y2) {
+            double dx = x1 - x2, dy = y1 - y2;
+            return Math.ceil(Math.sqrt(dx * dx + dy * dy));
+        }
+    },
+    /** Pseudo-euclidienne des instances att48 et att532 (TSPLIB ATT). */
+    ATT {
+        @Override
+        public double distance(double x1, double y1, double x2, double y2) {
+            double dx = x1 - x2, dy = y1 - y2;
+            double r = Math.sqrt((dx * dx + dy * dy) / 10.0);
+            int t = (int) (r + 0.5);
+            return (t < r) ? t + 1 : t;
+        }
+    },
+    /**
+     * Distance géographique en km (TSPLIB GEO) : x est la latitude et y la
+     * longitude, au format DDD.MM (degrés, minutes).
+     */
+    GEO {
+        @Override
+        public double distance(double x1, double y1, double x2, double y2) {
+            double lat1 = radians(x1), lon1 = radians(y1);
+            double lat2 = radians(x2), lon2 = radians(y2);
+            double q1 = Math.cos(lon1 - lon2);
+            double q2 = Math.cos(lat1 - lat2);
+            double q3 = Math.cos(lat1 + lat2);
+            return (int) (EARTH_RADIUS * Math.acos(0.5 * ((1 + q1) * q2 - (1 - q1) * q3)) + 1.0);
+        }
+    };
+
+    /** Rayon terrestre et valeur de π imposés par TSPLIB. */
+    private static final double EARTH_RADIUS = 6378.388;
+    private static final double TSPLIB_PI = 3.141592;
+
+    /** Coordonnée DDD.MM en radians, avec la troncature de TSPLIB. */
+    private static double radians(double coord) {
+        int deg = (int) coord;
+        double min = coord - deg;
+        return TSPLIB_PI * (deg + 5.0 * min / 3.0) / 180.0;
+    }
+
+    public abstract double distance(double x1, double y1, double x2, double y2);
+}
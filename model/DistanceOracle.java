@@ -0,0 +1,45 @@
+package model;
+
+import java.util.List;
+
+/**
+ * Accès aux distances entre villes, indexées par leur position dans l'instance.
+ */
+public interface DistanceOracle {
+
+    /**
+     * Au-delà de ce nombre de villes, la matrice dense n'est plus construite.
+     * Au seuil, elle occupe 32 Mo, et chaque recherche d'un lot en a une.
+     */
+    int DENSE_MAX_CITIES = 2048;
+
+    /** Nombre de villes. */
+    int size();
+
+    /** Distance entre les villes d'indices a et b. */
+    double distance(int a, int b);
+
+    /**
+     * Indique que les distances depuis la ville a vont être beaucoup
+     * utilisées ; sans effet pour une matrice précalculée.
+     */
+    default void prefetch(int a) {
+    }
+
+    /**
+     * Matrice dense précalculée pour les petites et moyennes instances,
+     * calcul à la demande avec un cache de lignes sans verrou au-delà.
+     */
+    static DistanceOracle of(List<City> cities, DistanceMetric metric) {
+        int n = cities.size();
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = cities.get(i).x;
+            ys[i] = cities.get(i).y;
+        }
+        return (n <= DENSE_MAX_CITIES)
+                ? new DenseDistanceMatrix(xs, ys, metric)
+                : new LazyDistanceOracle(xs, ys, metric);
+    }
+}
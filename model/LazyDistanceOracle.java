@@ -0,0 +1,132 @@
+package model;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Distances calculées à la demande pour les instances trop grandes pour une
+ * matrice dense. Un nombre borné de lignes est gardé en cache, évincées par
+ * l'algorithme de l'horloge (seconde chance).
+ * <p>
+ * Une lecture en cache ne prend aucun verrou : la ligne d'une ville est une
+ * référence publiée dans un tableau atomique, et son bit de référence est une
+ * simple écriture. Une ligne manquante est calculée hors de tout verrou puis
+ * publiée par CAS ; une ligne évincée n'est jamais réécrite, un thread qui la
+ * lit encore garde donc des valeurs justes.
+ */
+public class LazyDistanceOracle implements DistanceOracle {
+
+    /** Budget mémoire du cache, en nombre de {@code double}. */
+    public static final int CACHE_BUDGET = 1 << 23;
+
+    private final double[] xs;
+    private final double[] ys;
+    private final DistanceMetric metric;
+
+    private final AtomicReferenceArray<double[]> rowOf; // ligne en cache d'une ville, ou null
+    private final byte[] referenced;                    // bit de seconde chance, par ville
+    private final AtomicIntegerArray cityOfSlot;        // ville d'un emplacement, ou -1
+    private final AtomicInteger used = new AtomicInteger();
+    private final AtomicInteger hand = new AtomicInteger();
+
+    public LazyDistanceOracle(double[] xs, double[] ys, DistanceMetric metric) {
+        this(xs, ys, metric, Math.max(4, CACHE_BUDGET / Math.max(1, xs.length)));
+    }
+
+    public LazyDistanceOracle(double[] xs, double[] ys, DistanceMetric metric, int cachedRows) {
+        this.xs = xs;
+        this.ys = ys;
+        this.metric = metric;
+        int slots = Math.max(1, Math.min(cachedRows, xs.length));
+        this.rowOf = new AtomicReferenceArray<>(xs.length);
+        this.referenced = new byte[xs.length];
+        this.cityOfSlot = new AtomicIntegerArray(slots);
+        for (int s = 0; s < slots; s++)
+            cityOfSlot.set(s, -1);
+    }
+
+    @Override
+    public int size() {
+        return xs.length;
+    }
+
+    /**
+     * Ligne déjà en cache pour a ou b si elle existe, sinon calcul direct : un
+     * accès isolé ne fait pas évincer une ligne utile.
+     */
+    @Override
+    public double distance(int a, int b) {
+        double[] row = rowOf.get(a);
+        if (row != null) {
+            mark(a);
+            return row[b];
+        }
+        row = rowOf.get(b);
+        if (row != null) {
+            mark(b);
+            return row[a];
+        }
+        return metric.distance(xs[a], ys[a], xs[b], ys[b]);
+    }
+
+    @Override
+    public void prefetch(int a) {
+        row(a);
+    }
+
+    /**
+     * Ligne complète des distances depuis la ville a, calculée au besoin et
+     * mise en cache (une ligne non référencée depuis le dernier passage de
+     * l'horloge est évincée). Le tableau retourné ne doit pas être modifié.
+     */
+    public double[] row(int a) {
+        double[] row = rowOf.get(a);
+        if (row != null) {
+            mark(a);
+            return row;
+        }
+        row = new double[xs.length];
+        for (int b = 0; b < xs.length; b++)
+            row[b] = metric.distance(xs[a], ys[a], xs[b], ys[b]);
+        if (!rowOf.compareAndSet(a, null, row))
+            return rowOf.get(a);   // publiée entre-temps par un autre thread
+        mark(a);
+        claimSlot(a);
+        return row;
+    }
+
+    /** Bit de référence : n'écrit que s'il change, pour ne pas salir la ligne de cache. */
+    private void mark(int city) {
+        if (referenced[city] == 0)
+            referenced[city] = 1;
+    }
+
+    /** Donne un emplacement à la ligne de a, publiée, en évinçant une autre au besoin. */
+    private void claimSlot(int a) {
+        int slots = cityOfSlot.length();
+        if (used.get() < slots) {
+            int s = used.getAndIncrement();
+            if (s < slots) {
+                cityOfSlot.set(s, a);
+                return;
+            }
+        }
+        // horloge : une ville référencée perd son bit et garde sa ligne un tour
+        // de plus ; après deux tours sans victime, la première trouvée est prise
+        for (int step = 0; ; step++) {
+            int s = Math.floorMod(hand.getAndIncrement(), slots);
+            int victim = cityOfSlot.get(s);
+            if (victim < 0)
+                continue;  // emplacement en cours d'attribution
+            if (referenced[victim] != 0 && step < 2 * slots) {
+                referenced[victim] = 0;
+                continue;
+            }
+            if (cityOfSlot.compareAndSet(s, victim, a)) {
+                rowOf.set(victim, null);
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Choix des itérations notifiées à un {@link SearchListener} : toutes les k
+ * itérations, à chaque amélioration, à intervalle de temps, à des itérations
+ * données, ou toute combinaison par {@link #or}. Immuable.
+ */
+public final class SamplingPolicy {
+
+    /** Aucune itération notifiée. */
+    public static final SamplingPolicy NEVER = new SamplingPolicy(new int[0], false, 0, new int[0]);
+
+    private final int[] periods;
+    private final boolean onImprovement;
+    private final long intervalNanos;
+    private final int[] iterations;    // triées
+
+    private SamplingPolicy(int[] periods, boolean onImprovement, long intervalNanos, int[] iterations) {
+        this.periods = periods;
+        this.onImprovement = onImprovement;
+        this.intervalNanos = intervalNanos;
+        this.iterations = iterations;
+    }
+
+    /** Une itération sur k. */
+    public static SamplingPolicy everyIterations(int k) {
+        if (k <= 0)
+            throw new IllegalArgumentException("k doit être positif : " + k);
+        return new SamplingPolicy(new int[] { k }, false, 0, NEVER.iterations);
+    }
+
+    /** Chaque itération qui améliore la meilleure solution. */
+    public static SamplingPolicy onImprovement() {
+        return new SamplingPolicy(NEVER.periods, true, 0, NEVER.iterations);
+    }
+
+    /** Au plus une itération par intervalle de temps (en nanosecondes). */
+    public static SamplingPolicy everyNanos(long intervalNanos) {
+        if (intervalNanos <= 0)
+            throw new IllegalArgumentException("intervalle non positif : " + intervalNanos);
+        return new SamplingPolicy(NEVER.periods, false, intervalNanos, NEVER.iterations);
+    }
+
+    /** Les itérations données, par exemple 1, 2, 10 et la dernière. */
+    public static SamplingPolicy at(int... iterations) {
+        int[] sorted = iterations.clone();
+        Arrays.sort(sorted);
+        return new SamplingPolicy(NEVER.periods, false, 0, sorted);
+    }
+
+    /** Notifie les itérations retenues par cette politique ou par l'autre. */
+    public SamplingPolicy or(SamplingPolicy other) {
+        int[] merged = concat(iterations, other.iterations);
+        Arrays.sort(merged);
+        return new SamplingPolicy(
+                concat(periods, other.periods),
+                onImprovement || other.onImprovement,
+                (intervalNanos == 0) ? other.intervalNanos
+                        : (other.intervalNanos == 0) ? intervalNanos : Math.min(intervalNanos, other.intervalNanos),
+                merged);
+    }
+
+    /** Vrai si la décision dépend de l'horloge. */
+    public boolean usesClock() {
+        return intervalNanos > 0;
+    }
+
+    /**
+     * Vrai si l'itération doit être notifiée.
+     *
+     * @param sinceLastNanos durée depuis la dernière notification (ignorée sans intervalle)
+     */
+    public boolean samples(int iteration, boolean improved, long sinceLastNanos) {
+        for (int k : periods) {
+            if (iteration % k == 0)
+                return true;
+        }
+        return (onImprovement && improved)
+            || (intervalNanos > 0 && sinceLastNanos >= intervalNanos)
+            || (iterations.length > 0 && Arrays.binarySearch(iterations, iteration) >= 0);
+    }
+
+    private static int[] concat(int[] a, int[] b) {
+        int[] c = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, c, a.length, b.length);
+        return c;
+    }
+}
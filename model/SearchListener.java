@@ -0,0 +1,26 @@
+package model;
+
+/**
+ * Événements d'itération structurés d'une recherche, transmis sous forme de
+ * primitives : aucune chaîne ni objet n'est construit pour les notifier.
+ * Les compteurs sont cumulés depuis le début de la recherche.
+ */
+public interface SearchListener {
+
+    /** Aucun écouteur : la recherche ne lit pas l'horloge et n'appelle rien. */
+    SearchListener NONE = (iteration, currentCost, bestCost, neighborsEvaluated,
+                           tabuRejections, aspirationHits, elapsedNanos) -> { };
+
+    /**
+     * @param iteration          numéro d'itération (à partir de 1)
+     * @param currentCost        coût (ou valeur, pour un problème de maximisation) de la solution courante
+     * @param bestCost           meilleur coût (ou valeur) trouvé
+     * @param neighborsEvaluated nombre de voisins évalués
+     * @param tabuRejections     nombre de voisins écartés car tabous
+     * @param aspirationHits     nombre de voisins tabous acceptés par aspiration
+     * @param elapsedNanos       durée écoulée depuis le début de la recherche
+     */
+    void onIteration(int iteration, double currentCost, double bestCost,
+                     long neighborsEvaluated, long tabuRejections, long aspirationHits,
+                     long elapsedNanos);
+}
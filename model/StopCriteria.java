@@ -0,0 +1,124 @@
+package model;
+
+/**
+ * Critères d'arrêt d'une recherche, en plus de son nombre maximal
+ * d'itérations : durée, itérations sans amélioration, coût cible, jeton
+ * d'annulation, ou toute combinaison par {@link #or} (le premier critère
+ * atteint arrête la recherche). Immuable.
+ *
+ * <p>L'horloge et le jeton ne sont consultés que toutes les
+ * {@link #checkInterval()} évaluations de voisins, y compris au milieu d'un
+ * parcours du voisinage : le dépassement de la durée est donc de l'ordre du
+ * temps d'évaluation de ces voisins.
+ */
+public final class StopCriteria {
+
+    /** Raison de l'arrêt d'une recherche. */
+    public enum Reason { MAX_ITERATIONS, TIME_BUDGET, NO_IMPROVEMENT, TARGET_REACHED, CANCELLED }
+
+    /** Nombre d'évaluations entre deux lectures de l'horloge, par défaut. */
+    public static final int DEFAULT_CHECK_INTERVAL = 1024;
+
+    /** Aucun critère : la recherche fait toutes ses itérations. */
+    public static final StopCriteria NONE =
+            new StopCriteria(0, 0, Double.NaN, null, DEFAULT_CHECK_INTERVAL);
+
+    private final long budgetNanos;
+    private final int maxStale;
+    private final double target;
+    private final CancelToken token;
+    private final int checkInterval;
+
+    private StopCriteria(long budgetNanos, int maxStale, double target, CancelToken token, int checkInterval) {
+        this.budgetNanos = budgetNanos;
+        this.maxStale = maxStale;
+        this.target = target;
+        this.token = token;
+        this.checkInterval = checkInterval;
+    }
+
+    /** Arrêt après une durée (en nanosecondes) depuis le début de la recherche. */
+    public static StopCriteria timeBudgetNanos(long nanos) {
+        if (nanos <= 0)
+            throw new IllegalArgumentException("durée non positive : " + nanos);
+        return new StopCriteria(nanos, 0, Double.NaN, null, DEFAULT_CHECK_INTERVAL);
+    }
+
+    /** Arrêt après une durée en millisecondes. */
+    public static StopCriteria timeBudgetMillis(long millis) {
+        return timeBudgetNanos(millis * 1_000_000L);
+    }
+
+    /** Arrêt après k itérations consécutives sans amélioration de la meilleure solution. */
+    public static StopCriteria noImprovement(int k) {
+        if (k <= 0)
+            throw new IllegalArgumentException("k doit être positif : " + k);
+        return new StopCriteria(0, k, Double.NaN, null, DEFAULT_CHECK_INTERVAL);
+    }
+
+    /**
+     * Arrêt dès que la meilleure solution atteint ce coût : inférieure ou
+     * égale pour un problème de minimisation (TSP), supérieure ou égale pour
+     * un problème de maximisation (sac à dos, fonction continue).
+     */
+    public static StopCriteria targetCost(double target) {
+        if (Double.isNaN(target))
+            throw new IllegalArgumentException("coût cible invalide");
+        return new StopCriteria(0, 0, target, null, DEFAULT_CHECK_INTERVAL);
+    }
+
+    /** Arrêt à l'annulation du jeton. */
+    public static StopCriteria cancelledBy(CancelToken token) {
+        return new StopCriteria(0, 0, Double.NaN, token, DEFAULT_CHECK_INTERVAL);
+    }
+
+    /**
+     * Arrêt au premier critère atteint de l'un ou l'autre. Durées et seuils
+     * d'itérations : le plus petit ; un seul coût cible et un seul jeton sont
+     * conservés (ceux de cet objet en priorité).
+     */
+    public StopCriteria or(StopCriteria other) {
+        return new StopCriteria(
+                minPositive(budgetNanos, other.budgetNanos),
+                (int) minPositive(maxStale, other.maxStale),
+                Double.isNaN(target) ? other.target : target,
+                (token != null) ? token : other.token,
+                Math.min(checkInterval, other.checkInterval));
+    }
+
+    /** Mêmes critères, avec l'horloge et le jeton lus toutes les k évaluations. */
+    public StopCriteria checkingEvery(int k) {
+        if (k <= 0)
+            throw new IllegalArgumentException("k doit être positif : " + k);
+        return new StopCriteria(budgetNanos, maxStale, target, token, k);
+    }
+
+    /** Durée maximale en nanosecondes, 0 si aucune. */
+    public long budgetNanos() {
+        return budgetNanos;
+    }
+
+    /** Itérations sans amélioration tolérées, 0 si illimité. */
+    public int maxStaleIterations() {
+        return maxStale;
+    }
+
+    /** Coût cible, NaN si aucun. */
+    public double target() {
+        return target;
+    }
+
+    /** Jeton d'annulation, ou null. */
+    public CancelToken token() {
+        return token;
+    }
+
+    /** Nombre d'évaluations de voisins entre deux lectures de l'horloge et du jeton. */
+    public int checkInterval() {
+        return checkInterval;
+    }
+
+    private static long minPositive(long a, long b) {
+        return (a == 0) ? b : (b == 0) ? a : Math.min(a, b);
+    }
+}
@@ -0,0 +1,146 @@
+package algo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+import model.City;
+import model.Item;
+import model.SamplingPolicy;
+import model.SearchListener;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Une recherche arrêtée après K itérations puis reprise jusqu'à N suit la
+ * même trajectoire qu'une recherche de N itérations d'un seul tenant.
+ */
+class CheckpointResumeTest {
+
+    private static final int STOPPED = 150;
+    private static final int TOTAL = 400;
+    private static final long SEED = 7;
+
+    @TempDir
+    Path dir;
+
+    static Stream<Arguments> tspSettings() {
+        List<Arguments> settings = new ArrayList<>();
+        for (TSPNeighborhood neighborhood : TSPNeighborhood.values())
+            for (TabuMemoryMode mode : TabuMemoryMode.values())
+                for (boolean reactive : new boolean[] { false, true })
+                    for (int stagnation : new int[] { 0, 30 })
+                        settings.add(Arguments.of(neighborhood, mode, reactive, stagnation));
+        return settings.stream();
+    }
+
+    @ParameterizedTest
+    @MethodSource("tspSettings")
+    void tspResumeFollowsTheUninterruptedRun(TSPNeighborhood neighborhood, TabuMemoryMode mode,
+                                             boolean reactive, int stagnation) throws Exception {
+        List<City> cities = cities(60);
+        Path file = dir.resolve("tsp.ckpt");
+
+        List<String> straight = new ArrayList<>();
+        TabuSearchTSP whole = tsp(TOTAL, cities, neighborhood, mode, reactive, stagnation);
+        List<City> expected = whole.optimize(recorder(straight), SamplingPolicy.everyIterations(1));
+
+        List<String> resumed = new ArrayList<>();
+        TabuSearchTSP first = tsp(STOPPED, cities, neighborhood, mode, reactive, stagnation);
+        first.setCheckpoint(file, SamplingPolicy.NEVER);
+        first.optimize(recorder(resumed), SamplingPolicy.everyIterations(1));
+        assertNull(first.getCheckpointError());
+        TabuSearchTSP second = tsp(TOTAL, cities, neighborhood, mode, reactive, stagnation);
+        second.resumeFrom(file);
+        List<City> route = second.optimize(recorder(resumed), SamplingPolicy.everyIterations(1));
+
+        assertEquals(straight, resumed);
+        assertEquals(whole.getBestDistance(), second.getBestDistance());
+        assertEquals(whole.routeToString(expected), second.routeToString(route));
+    }
+
+    static Stream<Arguments> knapsackSettings() {
+        List<Arguments> settings = new ArrayList<>();
+        for (TabuMemoryMode mode : TabuMemoryMode.values())
+            for (boolean reactive : new boolean[] { false, true })
+                for (int stagnation : new int[] { 0, 30 })
+                    settings.add(Arguments.of(mode, reactive, stagnation));
+        return settings.stream();
+    }
+
+    @ParameterizedTest
+    @MethodSource("knapsackSettings")
+    void knapsackResumeFollowsTheUninterruptedRun(TabuMemoryMode mode, boolean reactive,
+                                                  int stagnation) throws Exception {
+        List<Item> items = items(80);
+        double capacity = 0.3 * items.stream().mapToDouble(item -> item.weight).sum();
+        Path file = dir.resolve("knapsack.ckpt");
+
+        List<String> straight = new ArrayList<>();
+        TabuSearchKnapsack whole = knapsack(TOTAL, items, capacity, mode, reactive, stagnation);
+        boolean[] expected = whole.optimize(recorder(straight), SamplingPolicy.everyIterations(1));
+
+        List<String> resumed = new ArrayList<>();
+        TabuSearchKnapsack first = knapsack(STOPPED, items, capacity, mode, reactive, stagnation);
+        first.setCheckpoint(file, SamplingPolicy.NEVER);
+        first.optimize(recorder(resumed), SamplingPolicy.everyIterations(1));
+        assertNull(first.getCheckpointError());
+        TabuSearchKnapsack second = knapsack(TOTAL, items, capacity, mode, reactive, stagnation);
+        second.resumeFrom(file);
+        boolean[] actual = second.optimize(recorder(resumed), SamplingPolicy.everyIterations(1));
+
+        assertEquals(straight, resumed);
+        assertEquals(whole.solutionToString(expected), second.solutionToString(actual));
+    }
+
+    /** Une ligne par itération : numéro, coût courant et meilleur coût. */
+    private static SearchListener recorder(List<String> trajectory) {
+        return (iteration, current, best, evaluated, rejected, aspirations, nanos) ->
+                trajectory.add(iteration + " " + current + " " + best);
+    }
+
+    private static TabuSearchTSP tsp(int iterations, List<City> cities, TSPNeighborhood neighborhood,
+                                     TabuMemoryMode mode, boolean reactive, int stagnation) {
+        TabuSearchTSP search = new TabuSearchTSP(iterations, 10, cities);
+        search.setNeighborhood(neighborhood);
+        search.setMemoryMode(mode);
+        search.setReactive(reactive);
+        search.setLongTermMemory(stagnation);
+        search.setSeed(SEED);
+        return search;
+    }
+
+    private static TabuSearchKnapsack knapsack(int iterations, List<Item> items, double capacity,
+                                               TabuMemoryMode mode, boolean reactive, int stagnation) {
+        TabuSearchKnapsack search = new TabuSearchKnapsack(iterations, 10, items, capacity);
+        search.setMemoryMode(mode);
+        search.setReactive(reactive);
+        search.setLongTermMemory(stagnation);
+        search.setSeed(SEED);
+        return search;
+    }
+
+    /** Villes à coordonnées entières : beaucoup de mouvements à égalité. */
+    static List<City> cities(int n) {
+        SplittableRandom random = new SplittableRandom(n);
+        List<City> cities = new ArrayList<>(n);
+        for (int i = 0; i < n; i++)
+            cities.add(new City(i, random.nextInt(40), random.nextInt(40)));
+        return cities;
+    }
+
+    /** Objets à poids et valeurs entiers. */
+    static List<Item> items(int n) {
+        SplittableRandom random = new SplittableRandom(n);
+        List<Item> items = new ArrayList<>(n);
+        for (int i = 0; i < n; i++)
+            items.add(new Item(i, 1 + random.nextInt(30), 1 + random.nextInt(30)));
+        return items;
+    }
+}
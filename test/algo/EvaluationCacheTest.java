@@ -0,0 +1,120 @@
+package algo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import model.ContinuousObjective;
+import org.junit.jupiter.api.Test;
+
+/** Valeurs servies par {@link EvaluationCache}, seul ou partagé entre threads. */
+class EvaluationCacheTest {
+
+    private static final int DIM = 2;
+
+    /** Fonction déterministe comptant ses appels. */
+    private static final class Counting implements ContinuousObjective {
+        final AtomicLong calls = new AtomicLong();
+
+        @Override
+        public double evaluate(double[] buffer, int offset, int dimension) {
+            calls.incrementAndGet();
+            return value(buffer, offset);
+        }
+
+        static double value(double[] buffer, int offset) {
+            return 31 * buffer[offset] + buffer[offset + 1] * buffer[offset + 1];
+        }
+    }
+
+    @Test
+    void exactCacheServesRepeatsWithoutCallingTheFunction() {
+        Counting f = new Counting();
+        EvaluationCache cache = new EvaluationCache(DIM, 0, 1 << 20);
+        double[] points = {1, 2, 3, 4, 1, 2, 1, 2.0000001};
+        for (int k = 0; k < 4; k++)
+            assertEquals(Counting.value(points, 2 * k), cache.evaluate(f, points, 2 * k));
+        assertEquals(3, f.calls.get());
+        assertEquals(1, cache.hits());
+        assertEquals(3, cache.misses());
+    }
+
+    @Test
+    void pointsOfTheSameCellShareTheFirstValue() {
+        Counting f = new Counting();
+        EvaluationCache cache = new EvaluationCache(DIM, 0.1, 1 << 20);
+        double[] points = {1.00, 2.00, 1.04, 1.96, 1.06, 2.00};
+        double first = cache.evaluate(f, points, 0);
+        assertEquals(first, cache.evaluate(f, points, 2));
+        assertEquals(Counting.value(points, 4), cache.evaluate(f, points, 4));
+        assertEquals(2, f.calls.get());
+    }
+
+    @Test
+    void batchEvaluatesOnlyTheMissingPoints() {
+        Counting f = new Counting();
+        EvaluationCache cache = new EvaluationCache(DIM, 0, 1 << 20);
+        double[] batch = {1, 1, 2, 2, 1, 1, 3, 3};
+        double[] out = new double[4];
+        cache.evaluate(f, batch, 2);
+        cache.evaluateBatch(f, batch, 0, 4, out);
+        for (int k = 0; k < 4; k++)
+            assertEquals(Counting.value(batch, 2 * k), out[k]);
+        // (2, 2) était en cache ; (1, 1) figure deux fois dans le lot des absents
+        assertEquals(4, f.calls.get());
+    }
+
+    /**
+     * Huit threads sur un cache de quelques entrées, évincées en permanence :
+     * aucune lecture ne renvoie la valeur d'un autre point.
+     */
+    @Test
+    void sharedTinyCacheNeverReturnsAWrongValue() throws Exception {
+        Counting f = new Counting();
+        EvaluationCache cache = new EvaluationCache(DIM, 0, 64 * 40);
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<String> failure = new AtomicReference<>();
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            long seed = t;
+            workers[t] = new Thread(() -> {
+                SplittableRandom random = new SplittableRandom(seed);
+                double[] batch = new double[16 * DIM];
+                double[] out = new double[16];
+                try {
+                    start.await();
+                } catch (InterruptedException ex) {
+                    return;
+                }
+                for (int round = 0; round < 20_000 && failure.get() == null; round++) {
+                    for (int i = 0; i < batch.length; i++)
+                        batch[i] = random.nextInt(24);
+                    if (round % 2 == 0) {
+                        cache.evaluateBatch(f, batch, 0, 16, out);
+                    } else {
+                        for (int k = 0; k < 16; k++)
+                            out[k] = cache.evaluate(f, batch, k * DIM);
+                    }
+                    for (int k = 0; k < 16; k++) {
+                        if (out[k] != Counting.value(batch, k * DIM))
+                            failure.compareAndSet(null, "(" + batch[k * DIM] + ", " + batch[k * DIM + 1] + ") -> " + out[k]);
+                    }
+                }
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        for (Thread w : workers)
+            w.join();
+
+        assertEquals(null, failure.get());
+        assertTrue(cache.size() <= cache.capacity());
+        assertTrue(cache.evictions() > 0, "aucune éviction");
+        assertTrue(cache.hits() > 0, "aucun succès");
+        assertEquals(cache.misses(), f.calls.get());
+    }
+}
@@ -0,0 +1,118 @@
+package algo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+import model.City;
+import model.Item;
+import model.SamplingPolicy;
+import model.SearchListener;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Le parcours du voisinage sur un pool retient le même mouvement que le
+ * parcours séquentiel, égalités comprises : les deux trajectoires coïncident.
+ */
+class ParallelSearchTest {
+
+    private static final int ITERATIONS = 300;
+    private static final long SEED = 3;
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    @AfterAll
+    static void shutdown() {
+        POOL.shutdown();
+    }
+
+    static Stream<Arguments> tspSettings() {
+        List<Arguments> settings = new ArrayList<>();
+        for (TSPNeighborhood neighborhood : TSPNeighborhood.values())
+            for (int k : new int[] { 0, 8 })
+                settings.add(Arguments.of(neighborhood, k));
+        return settings.stream();
+    }
+
+    @ParameterizedTest
+    @MethodSource("tspSettings")
+    void tspPoolFollowsTheSequentialRun(TSPNeighborhood neighborhood, int candidateK) {
+        List<City> cities = cities(120);
+        List<String> sequential = new ArrayList<>();
+        TabuSearchTSP alone = tsp(cities, neighborhood, candidateK);
+        List<City> expected = alone.optimize(recorder(sequential), SamplingPolicy.everyIterations(1));
+
+        List<String> parallel = new ArrayList<>();
+        TabuSearchTSP pooled = tsp(cities, neighborhood, candidateK);
+        pooled.setForkJoinPool(POOL);
+        List<City> actual = pooled.optimize(recorder(parallel), SamplingPolicy.everyIterations(1));
+
+        assertEquals(sequential, parallel);
+        assertEquals(alone.routeToString(expected), pooled.routeToString(actual));
+    }
+
+    @Test
+    void knapsackPoolFollowsTheSequentialRun() {
+        List<Item> items = items(150);
+        double capacity = 0.3 * items.stream().mapToDouble(item -> item.weight).sum();
+        List<String> sequential = new ArrayList<>();
+        TabuSearchKnapsack alone = knapsack(items, capacity);
+        boolean[] expected = alone.optimize(recorder(sequential), SamplingPolicy.everyIterations(1));
+
+        List<String> parallel = new ArrayList<>();
+        TabuSearchKnapsack pooled = knapsack(items, capacity);
+        pooled.setForkJoinPool(POOL);
+        boolean[] actual = pooled.optimize(recorder(parallel), SamplingPolicy.everyIterations(1));
+
+        assertEquals(sequential, parallel);
+        assertEquals(alone.solutionToString(expected), pooled.solutionToString(actual));
+    }
+
+    /**
+     * Une ligne par itération : numéro, coût courant et meilleur coût. Les
+     * compteurs de rejets tabou dépendent du découpage en blocs (un voisin
+     * n'est compté que s'il bat le meilleur de son bloc) et ne sont pas comparés.
+     */
+    private static SearchListener recorder(List<String> trajectory) {
+        return (iteration, current, best, evaluated, rejected, aspirations, nanos) ->
+                trajectory.add(iteration + " " + current + " " + best);
+    }
+
+    private static TabuSearchTSP tsp(List<City> cities, TSPNeighborhood neighborhood, int candidateK) {
+        TabuSearchTSP search = new TabuSearchTSP(ITERATIONS, 10, cities);
+        search.setNeighborhood(neighborhood);
+        search.setCandidateListSize(candidateK);
+        search.setSeed(SEED);
+        return search;
+    }
+
+    private static TabuSearchKnapsack knapsack(List<Item> items, double capacity) {
+        TabuSearchKnapsack search = new TabuSearchKnapsack(ITERATIONS, 10, items, capacity);
+        search.setSeed(SEED);
+        return search;
+    }
+
+    /** Coordonnées entières sur une petite grille (type EUC_2D) : beaucoup d'égalités. */
+    private static List<City> cities(int n) {
+        SplittableRandom random = new SplittableRandom(n);
+        List<City> cities = new ArrayList<>(n);
+        for (int i = 0; i < n; i++)
+            cities.add(new City(i, random.nextInt(20), random.nextInt(20)));
+        return cities;
+    }
+
+    /** Peu de poids et de valeurs distincts : beaucoup de flips à égalité. */
+    private static List<Item> items(int n) {
+        SplittableRandom random = new SplittableRandom(n);
+        List<Item> items = new ArrayList<>(n);
+        for (int i = 0; i < n; i++)
+            items.add(new Item(i, 1 + random.nextInt(5), 1 + random.nextInt(5)));
+        return items;
+    }
+}
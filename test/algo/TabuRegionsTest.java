@@ -0,0 +1,99 @@
+package algo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.SplittableRandom;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/** La grille de {@link TabuRegions} donne les mêmes réponses qu'un parcours linéaire des boules. */
+class TabuRegionsTest {
+
+    private static final int CAPACITY = 3000;
+    private static final int TENURE = 2500;
+    private static final int ITERATIONS = 6000;
+
+    /** Boule de référence : centre normalisé et itération d'expiration. */
+    private record Ball(double[] center, int expiresAt) { }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 5, 20, 100})
+    void matchesLinearScan(int dim) {
+        SplittableRandom random = new SplittableRandom(dim);
+        double[] lower = new double[dim];
+        double[] upper = new double[dim];
+        for (int d = 0; d < dim; d++) {
+            lower[d] = -1 - random.nextDouble();
+            upper[d] = 1 + 4 * random.nextDouble();
+        }
+        double radius = 0.05 * Math.sqrt(dim);
+        double step = 0.5 * radius;
+        TabuRegions regions = new TabuRegions(lower, upper, radius, CAPACITY);
+        Deque<Ball> balls = new ArrayDeque<>();
+
+        // marche aléatoire : chaque point visité devient une région tabou
+        double[] x = new double[dim];
+        for (int d = 0; d < dim; d++)
+            x[d] = lower[d] + random.nextDouble() * (upper[d] - lower[d]);
+        double[] query = new double[dim];
+        int inside = 0;
+        for (int iter = 1; iter <= ITERATIONS; iter++) {
+            regions.expire(iter);
+            while (!balls.isEmpty() && balls.peekFirst().expiresAt() <= iter)
+                balls.removeFirst();
+
+            for (int q = 0; q < 8; q++) {
+                // requêtes proches du point courant ou tirées dans tout le domaine
+                for (int d = 0; d < dim; d++) {
+                    double v = (q < 6)
+                            ? x[d] + (2 * random.nextDouble() - 1) * 2 * step * (upper[d] - lower[d]) / Math.sqrt(dim)
+                            : lower[d] + random.nextDouble() * (upper[d] - lower[d]);
+                    query[d] = Math.max(lower[d], Math.min(upper[d], v));
+                }
+                boolean expected = linearContains(balls, query, lower, upper, radius, iter);
+                assertEquals(expected, regions.contains(query, 0, iter), "itération " + iter + ", requête " + q);
+                if (expected)
+                    inside++;
+            }
+
+            for (int d = 0; d < dim; d++) {
+                double v = x[d] + (2 * random.nextDouble() - 1) * step * (upper[d] - lower[d]) / Math.sqrt(dim);
+                x[d] = Math.max(lower[d], Math.min(upper[d], v));
+            }
+            if (balls.size() == CAPACITY)
+                balls.removeFirst();
+            balls.addLast(new Ball(normalize(x, lower, upper), iter + TENURE));
+            regions.add(x, 0, iter + TENURE);
+            assertEquals(balls.size(), regions.size());
+        }
+        // les deux réponses ont été exercées
+        assertTrue(inside > 0 && inside < 8 * ITERATIONS, "requêtes dans une région : " + inside);
+    }
+
+    private static boolean linearContains(Deque<Ball> balls, double[] x, double[] lower, double[] upper,
+                                          double radius, int iter) {
+        double[] point = normalize(x, lower, upper);
+        for (Ball ball : balls) {
+            if (ball.expiresAt() <= iter)
+                continue;
+            double sum = 0;
+            for (int d = 0; d < point.length; d++) {
+                double diff = point[d] - ball.center()[d];
+                sum += diff * diff;
+            }
+            if (sum <= radius * radius)
+                return true;
+        }
+        return false;
+    }
+
+    private static double[] normalize(double[] x, double[] lower, double[] upper) {
+        double[] v = new double[x.length];
+        for (int d = 0; d < x.length; d++)
+            v[d] = (x[d] - lower[d]) * (1 / (upper[d] - lower[d]));
+        return v;
+    }
+}
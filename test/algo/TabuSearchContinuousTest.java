@@ -0,0 +1,38 @@
+package algo;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import model.ContinuousObjective;
+import model.SamplingPolicy;
+import org.junit.jupiter.api.Test;
+
+/** Effet des régions tabou avec le rayon par défaut. */
+class TabuSearchContinuousTest {
+
+    /** Rastrigin, au signe près : la recherche maximise. */
+    private static final ContinuousObjective RASTRIGIN = (x, offset, dimension) -> {
+        double s = 10 * dimension;
+        for (int d = 0; d < dimension; d++) {
+            double v = x[offset + d];
+            s += v * v - 10 * Math.cos(2 * Math.PI * v);
+        }
+        return -s;
+    };
+
+    @Test
+    void defaultRadiusRejectsCandidatesInHighDimension() {
+        int dim = 50, iterations = 2000;
+        double[] lower = new double[dim];
+        double[] upper = new double[dim];
+        Arrays.fill(lower, -5.12);
+        Arrays.fill(upper, 5.12);
+        TabuSearchContinuous search = new TabuSearchContinuous(iterations, 50);
+        search.setSeed(1);
+        long[] rejections = new long[1];
+        search.optimize(RASTRIGIN, lower, upper,
+                (iter, current, best, evaluated, rejected, aspirations, nanos) -> rejections[0] = rejected,
+                SamplingPolicy.at(iterations));
+        assertTrue(rejections[0] > 0, "aucun candidat tabou écarté en dimension " + dim);
+    }
+}
@@ -0,0 +1,54 @@
+package algo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+import model.City;
+import model.DistanceMetric;
+import model.LazyDistanceOracle;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/** Longueurs rendues par la recherche, tenues par deltas, face au calcul direct. */
+class TabuSearchTSPTest {
+
+    static Stream<Arguments> settings() {
+        List<Arguments> settings = new ArrayList<>();
+        for (TSPNeighborhood neighborhood : TSPNeighborhood.values())
+            for (int k : new int[] { 0, 8 })
+                for (boolean lazy : new boolean[] { false, true })
+                    settings.add(Arguments.of(neighborhood, k, lazy));
+        return settings.stream();
+    }
+
+    @ParameterizedTest
+    @MethodSource("settings")
+    void bestDistanceIsTheLengthOfTheReturnedRoute(TSPNeighborhood neighborhood, int candidateK, boolean lazy) {
+        SplittableRandom random = new SplittableRandom(11);
+        List<City> cities = new ArrayList<>();
+        for (int i = 0; i < 150; i++)
+            cities.add(new City(i, 1000 * random.nextDouble(), 1000 * random.nextDouble()));
+        TabuSearchTSP search = new TabuSearchTSP(500, 10, cities);
+        search.setNeighborhood(neighborhood);
+        search.setCandidateListSize(candidateK);
+        search.setLongTermMemory(50);
+        search.setSeed(5);
+        if (lazy) {
+            double[] xs = cities.stream().mapToDouble(c -> c.x).toArray();
+            double[] ys = cities.stream().mapToDouble(c -> c.y).toArray();
+            search.setDistanceOracle(new LazyDistanceOracle(xs, ys, DistanceMetric.EUCLIDEAN, 16));
+        }
+        List<City> route = search.optimize();
+
+        assertEquals(cities.size(), new HashSet<>(route).size());
+        double length = 0;
+        for (int i = 0; i < route.size(); i++)
+            length += route.get(i).distanceTo(route.get((i + 1) % route.size()));
+        assertEquals(length, search.getBestDistance());
+    }
+}
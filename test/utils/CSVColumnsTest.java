@@ -0,0 +1,52 @@
+package utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import utils.CSVColumns.Column;
+
+/** En-tête et lignes invalides d'un CSV numérique. */
+class CSVColumnsTest {
+
+    @TempDir
+    Path dir;
+
+    private CSVColumns read(String text) throws Exception {
+        Path file = dir.resolve("instance.csv");
+        Files.writeString(file, text);
+        return CSVColumns.read(file, Column.INT, Column.DOUBLE, Column.DOUBLE);
+    }
+
+    @Test
+    void textFirstLineIsAHeader() throws Exception {
+        CSVColumns table = read("id,x,y\n1,2.5,3\n2,4,5\n");
+        assertTrue(table.hasHeader());
+        assertEquals(2, table.rows());
+        assertEquals(List.of(), table.errors());
+        assertArrayEquals(new double[] { 2.5, 4 }, table.doubles(1));
+    }
+
+    @Test
+    void brokenNumericFirstLineIsReported() throws Exception {
+        CSVColumns table = read("1,2.5\n2,4,5\n3,6,7\n");
+        assertFalse(table.hasHeader());
+        assertEquals(2, table.rows());
+        assertEquals(1, table.malformedCount());
+        assertEquals(List.of("ligne 1 : 3 colonnes attendues"), table.errors());
+    }
+
+    @Test
+    void textAfterARejectedFirstLineIsAnError() throws Exception {
+        CSVColumns table = read("1,x,3\nid,x,y\n2,4,5\n");
+        assertFalse(table.hasHeader());
+        assertEquals(1, table.rows());
+        assertEquals(2, table.malformedCount());
+    }
+}
@@ -0,0 +1,114 @@
+package utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Lecture d'un fichier ligne par ligne dans un tampon NIO réutilisé : chaque
+ * ligne est exposée comme l'intervalle [{@link #start}, {@link #end}) de
+ * {@link #buffer}, sans fin de ligne, valable jusqu'au prochain {@link #next}.
+ */
+final class ByteLines implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private ByteBuffer wrapper;
+    private boolean eof;
+    private int limit;       // octets valides dans buffer
+    private int scan;        // début de la ligne suivante
+
+    /** Ligne courante. */
+    byte[] buffer = new byte[BUFFER_SIZE];
+    int start;
+    int end;
+    /** Numéro de la ligne courante (à partir de 1). */
+    int lineNumber;
+
+    ByteLines(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.wrapper = ByteBuffer.wrap(buffer);
+        fill();
+        if (limit >= 3 && buffer[0] == (byte) 0xEF && buffer[1] == (byte) 0xBB && buffer[2] == (byte) 0xBF)
+            scan = 3;    // BOM UTF-8
+    }
+
+    /** Passe à la ligne suivante ; faux en fin de fichier. */
+    boolean next() throws IOException {
+        while (true) {
+            for (int p = scan; p < limit; p++) {
+                if (buffer[p] == '\n') {
+                    setLine(scan, p);
+                    scan = p + 1;
+                    return true;
+                }
+            }
+            if (eof) {
+                if (scan < limit) {
+                    setLine(scan, limit);
+                    scan = limit;
+                    return true;
+                }
+                return false;
+            }
+            // ligne incomplète : ramenée en tête, tampon agrandi si elle le remplit
+            int rest = limit - scan;
+            if (rest == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                wrapper = ByteBuffer.wrap(buffer);
+            } else {
+                System.arraycopy(buffer, scan, buffer, 0, rest);
+            }
+            wrapper.position(rest);
+            limit = rest;
+            scan = 0;
+            fill();
+        }
+    }
+
+    private void setLine(int from, int to) {
+        if (to > from && buffer[to - 1] == '\r')
+            to--;
+        start = from;
+        end = to;
+        lineNumber++;
+    }
+
+    private void fill() throws IOException {
+        while (!eof && wrapper.hasRemaining()) {
+            int n = channel.read(wrapper);
+            if (n < 0)
+                eof = true;
+            else if (n == 0)
+                break;
+        }
+        limit = wrapper.position();
+    }
+
+    /** Vrai si la ligne courante ne contient que des blancs. */
+    boolean isBlank() {
+        return skipBlanks(start) == end;
+    }
+
+    /** Premier octet non blanc (espace, tabulation) à partir de p. */
+    int skipBlanks(int p) {
+        while (p < end && (buffer[p] == ' ' || buffer[p] == '\t'))
+            p++;
+        return p;
+    }
+
+    /** Texte de la ligne courante (pour les en-têtes et les messages). */
+    String text() {
+        return new String(buffer, start, end - start, StandardCharsets.ISO_8859_1);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,114 @@
+package utils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Analyse de nombres décimaux directement depuis des octets ASCII, sans
+ * création de {@code String}. Chaque méthode renvoie la position qui suit le
+ * nombre, ou -1 s'il est invalide ; la valeur lue est dans {@link #doubleValue}
+ * ou {@link #intValue}.
+ */
+final class ByteNumbers {
+
+    /** Puissances de 10 exactement représentables en double. */
+    private static final double[] POW10 = new double[23];
+    static {
+        POW10[0] = 1;
+        for (int i = 1; i < POW10.length; i++)
+            POW10[i] = POW10[i - 1] * 10;
+    }
+
+    double doubleValue;
+    int intValue;
+
+    /** Entier signé sur 32 bits lu dans a[p, to). */
+    int parseInt(byte[] a, int p, int to) {
+        boolean negative = false;
+        if (p < to && (a[p] == '-' || a[p] == '+'))
+            negative = a[p++] == '-';
+        int start = p;
+        long v = 0;
+        while (p < to && a[p] >= '0' && a[p] <= '9') {
+            v = v * 10 + (a[p++] - '0');
+            if (v > (long) Integer.MAX_VALUE + 1)
+                return -1;
+        }
+        if (p == start)
+            return -1;
+        v = negative ? -v : v;
+        if (v > Integer.MAX_VALUE)
+            return -1;
+        intValue = (int) v;
+        return p;
+    }
+
+    /**
+     * Réel décimal (signe, partie entière, fraction, exposant) lu dans a[p, to).
+     * Jusqu'à 15 chiffres significatifs et un exposant décimal de ±22, la
+     * mantisse et la puissance de 10 sont exactes et le résultat est calculé
+     * d'une seule opération ; au-delà, le nombre est relu par
+     * {@link Double#parseDouble}. Dans les deux cas, la valeur est celle
+     * qu'aurait donnée {@code Double.parseDouble} sur le même texte.
+     */
+    int parseDouble(byte[] a, int p, int to) {
+        int from = p;
+        boolean negative = false;
+        if (p < to && (a[p] == '-' || a[p] == '+'))
+            negative = a[p++] == '-';
+        long mantissa = 0;
+        int digits = 0;
+        int exp10 = 0;
+        boolean any = false;
+        while (p < to && a[p] >= '0' && a[p] <= '9') {
+            if (digits < 19) {
+                mantissa = mantissa * 10 + (a[p] - '0');
+                if (mantissa != 0) digits++;
+            } else {
+                exp10++;
+            }
+            any = true;
+            p++;
+        }
+        if (p < to && a[p] == '.') {
+            p++;
+            while (p < to && a[p] >= '0' && a[p] <= '9') {
+                if (digits < 19) {
+                    mantissa = mantissa * 10 + (a[p] - '0');
+                    if (mantissa != 0) digits++;
+                    exp10--;
+                }
+                any = true;
+                p++;
+            }
+        }
+        if (!any)
+            return -1;
+        if (p < to && (a[p] == 'e' || a[p] == 'E')) {
+            p++;
+            boolean negExp = false;
+            if (p < to && (a[p] == '-' || a[p] == '+'))
+                negExp = a[p++] == '-';
+            int start = p, e = 0;
+            while (p < to && a[p] >= '0' && a[p] <= '9') {
+                if (e < 10000) e = e * 10 + (a[p] - '0');
+                p++;
+            }
+            if (p == start)
+                return -1;
+            exp10 += negExp ? -e : e;
+        }
+
+        if (digits > 15 || exp10 >= POW10.length || -exp10 >= POW10.length) {
+            // mantisse ou puissance inexacte : arrondi correct par la bibliothèque
+            doubleValue = Double.parseDouble(new String(a, from, p - from, StandardCharsets.ISO_8859_1));
+            return p;
+        }
+        double v = mantissa;
+        if (mantissa != 0 && exp10 > 0)
+            v *= POW10[exp10];
+        else if (mantissa != 0 && exp10 < 0)
+            v /= POW10[-exp10];
+        doubleValue = negative ? -v : v;
+        return p;
+    }
+}
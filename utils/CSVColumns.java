@@ -0,0 +1,184 @@
+package utils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Fichier CSV numérique chargé en colonnes primitives ({@code int[]} ou
+ * {@code double[]}). Le fichier est lu par blocs dans un tampon NIO réutilisé
+ * et les nombres sont analysés directement depuis les octets, sans créer de
+ * {@code String} par ligne ni par cellule.
+ *
+ * <p>Une première ligne invalide dont le premier champ est du texte (il
+ * commence par une lettre ou un guillemet) est prise pour un en-tête. Les
+ * lignes vides sont ignorées ; les autres lignes invalides, première ligne
+ * numérique comprise, sont écartées et signalées par {@link #errors()}. Les
+ * colonnes en trop sont ignorées.
+ */
+public final class CSVColumns {
+
+    /** Type d'une colonne. */
+    public enum Column { INT, DOUBLE }
+
+    /** Nombre maximal de messages d'erreur conservés (toutes sont comptées). */
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final Column[] types;
+    private final int[][] ints;
+    private final double[][] doubles;
+    private int rows;
+    private boolean header;
+    private int malformed;
+    private final List<String> errors = new ArrayList<>();
+
+    // valeurs de la ligne en cours d'analyse
+    private final int[] rowInts;
+    private final double[] rowDoubles;
+    private final ByteNumbers numbers = new ByteNumbers();
+
+    private CSVColumns(Column[] types) {
+        this.types = types.clone();
+        this.ints = new int[types.length][];
+        this.doubles = new double[types.length][];
+        for (int c = 0; c < types.length; c++) {
+            if (types[c] == Column.INT)
+                ints[c] = new int[64];
+            else
+                doubles[c] = new double[64];
+        }
+        this.rowInts = new int[types.length];
+        this.rowDoubles = new double[types.length];
+    }
+
+    /**
+     * Charge les premières colonnes d'un fichier CSV.
+     *
+     * @param types type de chacune des colonnes lues, dans l'ordre du fichier
+     */
+    public static CSVColumns read(Path file, Column... types) throws IOException {
+        CSVColumns table = new CSVColumns(types);
+        table.load(file);
+        return table;
+    }
+
+    /** Nombre de lignes valides. */
+    public int rows() {
+        return rows;
+    }
+
+    /** Vrai si la première ligne était un en-tête. */
+    public boolean hasHeader() {
+        return header;
+    }
+
+    /** Colonne entière c (tableau de taille {@link #rows()}). */
+    public int[] ints(int c) {
+        if (types[c] != Column.INT)
+            throw new IllegalArgumentException("colonne " + c + " non entière");
+        return Arrays.copyOf(ints[c], rows);
+    }
+
+    /** Colonne réelle c (tableau de taille {@link #rows()}). */
+    public double[] doubles(int c) {
+        if (types[c] != Column.DOUBLE)
+            throw new IllegalArgumentException("colonne " + c + " non réelle");
+        return Arrays.copyOf(doubles[c], rows);
+    }
+
+    /** Nombre de lignes invalides écartées. */
+    public int malformedCount() {
+        return malformed;
+    }
+
+    /** Messages des premières lignes invalides (« ligne N : ... »). */
+    public List<String> errors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    private void load(Path file) throws IOException {
+        try (ByteLines lines = new ByteLines(file)) {
+            while (lines.next())
+                parseLine(lines);
+        }
+    }
+
+    private void parseLine(ByteLines lines) {
+        byte[] a = lines.buffer;
+        int to = lines.end;
+        int p = lines.skipBlanks(lines.start);
+        if (p == to)
+            return;
+
+        for (int c = 0; c < types.length; c++) {
+            if (c > 0) {
+                if (p == to || a[p] != ',') {
+                    reject(lines, types.length + " colonnes attendues");
+                    return;
+                }
+                p = lines.skipBlanks(p + 1);
+            }
+            int end = (types[c] == Column.INT) ? numbers.parseInt(a, p, to) : numbers.parseDouble(a, p, to);
+            if (end < 0) {
+                reject(lines, "colonne " + (c + 1) + " invalide");
+                return;
+            }
+            if (types[c] == Column.INT)
+                rowInts[c] = numbers.intValue;
+            else
+                rowDoubles[c] = numbers.doubleValue;
+            p = lines.skipBlanks(end);
+        }
+        if (p != to && a[p] != ',') {
+            reject(lines, "colonne " + types.length + " invalide");
+            return;
+        }
+        append();
+    }
+
+    /**
+     * Une première ligne invalide commençant par du texte est un en-tête ;
+     * toute autre ligne invalide est une erreur.
+     */
+    private void reject(ByteLines lines, String reason) {
+        if (rows == 0 && malformed == 0 && !header && startsWithText(lines)) {
+            header = true;
+            return;
+        }
+        malformed++;
+        if (errors.size() < MAX_REPORTED_ERRORS)
+            errors.add("ligne " + lines.lineNumber + " : " + reason);
+    }
+
+    /** Vrai si le premier champ de la ligne commence par une lettre ou un guillemet. */
+    private static boolean startsWithText(ByteLines lines) {
+        byte b = lines.buffer[lines.skipBlanks(lines.start)];
+        return (b >= 'A' && b <= 'Z') || (b >= 'a' && b <= 'z') || b == '"' || b < 0;
+    }
+
+    private void append() {
+        if (rows == capacity()) {
+            int n = rows * 2;
+            for (int c = 0; c < types.length; c++) {
+                if (types[c] == Column.INT)
+                    ints[c] = Arrays.copyOf(ints[c], n);
+                else
+                    doubles[c] = Arrays.copyOf(doubles[c], n);
+            }
+        }
+        for (int c = 0; c < types.length; c++) {
+            if (types[c] == Column.INT)
+                ints[c][rows] = rowInts[c];
+            else
+                doubles[c][rows] = rowDoubles[c];
+        }
+        rows++;
+    }
+
+    private int capacity() {
+        return (types[0] == Column.INT) ? ints[0].length : doubles[0].length;
+    }
+}
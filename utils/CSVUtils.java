@@ -2,6 +2,8 @@ package utils;
 
 import java.io.*;
 import java.util.*;
+import model.City;
+import model.Item;
 
 public class CSVUtils {
     public static List<String[]> readCSV(File file) throws IOException {
@@ -14,4 +16,30 @@ public class CSVUtils {
         br.close();
         return data;
     }
-}
\ No newline at end of file
+
+    /** Colonnes (id, x, y) ou (id, poids, valeur) d'un fichier d'instance. */
+    public static CSVColumns readInstance(File file) throws IOException {
+        return CSVColumns.read(file.toPath(),
+                CSVColumns.Column.INT, CSVColumns.Column.DOUBLE, CSVColumns.Column.DOUBLE);
+    }
+
+    /** Villes d'un fichier lu par {@link #readInstance}. */
+    public static List<City> toCities(CSVColumns table) {
+        int[] ids = table.ints(0);
+        double[] xs = table.doubles(1), ys = table.doubles(2);
+        List<City> cities = new ArrayList<>(ids.length);
+        for (int i = 0; i < ids.length; i++)
+            cities.add(new City(ids[i], xs[i], ys[i]));
+        return cities;
+    }
+
+    /** Items d'un fichier lu par {@link #readInstance}. */
+    public static List<Item> toItems(CSVColumns table) {
+        int[] ids = table.ints(0);
+        double[] ws = table.doubles(1), vs = table.doubles(2);
+        List<Item> items = new ArrayList<>(ids.length);
+        for (int i = 0; i < ids.length; i++)
+            items.add(new Item(ids[i], ws[i], vs[i]));
+        return items;
+    }
+}
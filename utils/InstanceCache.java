@@ -0,0 +1,318 @@
+package utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import model.City;
+import model.DistanceMetric;
+import model.Item;
+
+/**
+ * Instantané binaire des instances, écrit à côté du fichier source
+ * ({@code <fichier>.bin}) lors de sa première lecture, puis projeté en mémoire
+ * aux lectures suivantes au lieu de réanalyser le texte. L'instantané n'est
+ * utilisé que si la taille, la date de modification et l'empreinte du source
+ * (son premier et son dernier bloc) n'ont pas changé ; sinon il est réécrit.
+ * Seuls les sources d'au moins {@link #MIN_SOURCE_BYTES} octets sont mis en
+ * cache.
+ *
+ * <p>Format (petit-boutiste) : en-tête de {@value #HEADER_BYTES} octets, nom
+ * UTF-8, puis les colonnes alignées sur 8 octets : ids {@code int[n]},
+ * x/poids {@code double[n]}, y/valeurs {@code double[n]}, et pour le TSP les
+ * listes de candidats {@code int[n*k]} si elles ont été enregistrées.
+ */
+public final class InstanceCache {
+
+    /** Taille minimale d'un source mis en cache ; en dessous, l'analyse du texte est immédiate. */
+    public static final long MIN_SOURCE_BYTES = 1 << 20;
+
+    private static final int MAGIC = 0x4E494254;     // "TBIN"
+    private static final int VERSION = 2;
+    private static final int KIND_TSP = 0;
+    private static final int KIND_KNAPSACK = 1;
+    private static final int HEADER_BYTES = 60;
+
+    /** Taille des blocs écrits. */
+    private static final int CHUNK = 1 << 24;
+
+    /** Octets lus au début et à la fin du source pour son empreinte. */
+    private static final int SAMPLE = 1 << 16;
+
+    private InstanceCache() { }
+
+    /** Fichier d'instantané associé à un source. */
+    public static Path cacheFile(Path source) {
+        return source.resolveSibling(source.getFileName() + ".bin");
+    }
+
+    /** Instance de TSP, depuis l'instantané s'il est valide (voir {@link InstanceReader#readTSP}). */
+    public static TSPInstance readTSP(Path source) throws IOException {
+        Source src = Source.of(source);
+        if (src.size < MIN_SOURCE_BYTES)
+            return InstanceReader.readTSP(source);
+        TSPInstance cached = (TSPInstance) load(cacheFile(source), src, KIND_TSP);
+        if (cached != null)
+            return cached;
+        TSPInstance instance = InstanceReader.readTSP(source);
+        write(source, src, instance, 0, null);
+        return instance;
+    }
+
+    /** Instance de sac à dos, depuis l'instantané s'il est valide (voir {@link InstanceReader#readKnapsack}). */
+    public static KnapsackInstance readKnapsack(Path source) throws IOException {
+        Source src = Source.of(source);
+        if (src.size < MIN_SOURCE_BYTES)
+            return InstanceReader.readKnapsack(source);
+        KnapsackInstance cached = (KnapsackInstance) load(cacheFile(source), src, KIND_KNAPSACK);
+        if (cached != null)
+            return cached;
+        KnapsackInstance instance = InstanceReader.readKnapsack(source);
+        write(source, src, instance);
+        return instance;
+    }
+
+    /**
+     * Ajoute des listes de candidats (k voisins par ville, à plat) à
+     * l'instantané d'une instance de TSP, qui est réécrit.
+     */
+    public static void storeCandidates(Path source, TSPInstance instance, int k, int[] neighbors)
+            throws IOException {
+        Source src = Source.of(source);
+        if (src.size >= MIN_SOURCE_BYTES)
+            write(source, src, instance, k, neighbors);
+    }
+
+    // ----- lecture -----
+
+    /** Instance lue dans l'instantané, ou null s'il est absent, invalide ou périmé. */
+    private static Object load(Path cache, Source src, int kind) throws IOException {
+        if (!Files.isRegularFile(cache))
+            return null;
+        try (FileChannel channel = FileChannel.open(cache, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < HEADER_BYTES || length > Integer.MAX_VALUE)
+                return null;
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            map.order(ByteOrder.LITTLE_ENDIAN);
+            if (map.getInt(0) != MAGIC || map.getInt(4) != VERSION || map.getInt(8) != kind)
+                return null;
+            if (map.getLong(16) != src.size || map.getLong(24) != src.modified)
+                return null;
+            int metric = map.getInt(12);
+            int n = map.getInt(40);
+            int k = map.getInt(44);
+            double capacity = map.getDouble(48);
+            int nameLength = map.getInt(56);
+            long expected = align(HEADER_BYTES + (long) nameLength) + align(4L * n) + 16L * n + 4L * n * k;
+            if (n < 0 || k < 0 || nameLength < 0 || expected != length)
+                return null;
+            if (kind == KIND_TSP && (metric < 0 || metric >= DistanceMetric.values().length))
+                return null;
+            // empreinte vérifiée en dernier : c'est le seul contrôle qui lit le source (deux blocs)
+            if (map.getLong(32) != src.hash())
+                return null;
+
+            byte[] nameBytes = new byte[nameLength];
+            map.get(HEADER_BYTES, nameBytes);
+            String name = new String(nameBytes, StandardCharsets.UTF_8);
+            int offset = (int) align(HEADER_BYTES + (long) nameLength);
+            int[] ids = new int[n];
+            map.slice(offset, 4 * n).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(ids);
+            offset += (int) align(4L * n);
+            double[] c1 = new double[n];
+            map.slice(offset, 8 * n).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().get(c1);
+            offset += 8 * n;
+            double[] c2 = new double[n];
+            map.slice(offset, 8 * n).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().get(c2);
+            offset += 8 * n;
+
+            if (kind == KIND_KNAPSACK) {
+                List<Item> items = new ArrayList<>(n);
+                for (int i = 0; i < n; i++)
+                    items.add(new Item(ids[i], c1[i], c2[i]));
+                return new KnapsackInstance(name, items, capacity, Collections.emptyList());
+            }
+            List<City> cities = new ArrayList<>(n);
+            for (int i = 0; i < n; i++)
+                cities.add(new City(ids[i], c1[i], c2[i]));
+            int[] candidates = null;
+            if (k > 0) {
+                candidates = new int[n * k];
+                map.slice(offset, 4 * n * k).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(candidates);
+            }
+            return new TSPInstance(name, cities, DistanceMetric.values()[metric],
+                    Collections.emptyList(), k, candidates);
+        }
+    }
+
+    // ----- écriture -----
+
+    private static void write(Path source, Source src, TSPInstance instance, int k, int[] neighbors) {
+        int n = instance.cities.size();
+        int[] ids = new int[n];
+        double[] xs = new double[n], ys = new double[n];
+        for (int i = 0; i < n; i++) {
+            City c = instance.cities.get(i);
+            ids[i] = c.id;
+            xs[i] = c.x;
+            ys[i] = c.y;
+        }
+        write(source, src, KIND_TSP, instance.metric.ordinal(), Double.NaN, instance.name,
+                ids, xs, ys, k, neighbors);
+    }
+
+    private static void write(Path source, Source src, KnapsackInstance instance) {
+        int n = instance.items.size();
+        int[] ids = new int[n];
+        double[] ws = new double[n], vs = new double[n];
+        for (int i = 0; i < n; i++) {
+            Item it = instance.items.get(i);
+            ids[i] = it.id;
+            ws[i] = it.weight;
+            vs[i] = it.value;
+        }
+        write(source, src, KIND_KNAPSACK, -1, instance.capacity, instance.name, ids, ws, vs, 0, null);
+    }
+
+    /**
+     * Écrit l'instantané dans un fichier temporaire renommé ensuite, pour qu'un
+     * autre processus ne lise jamais un fichier partiel. Le cache étant
+     * facultatif, un échec d'écriture (répertoire en lecture seule...) est ignoré.
+     */
+    private static void write(Path source, Source src, int kind, int metric, double capacity, String name,
+                              int[] ids, double[] c1, double[] c2, int k, int[] neighbors) {
+        Path cache = cacheFile(source);
+        Path tmp = null;
+        try {
+            // nom propre au processus, droits par défaut (umask) pour que l'instantané soit partageable
+            tmp = cache.resolveSibling(cache.getFileName() + "." + ProcessHandle.current().pid() + ".tmp");
+            byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+            int n = ids.length;
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buf = ByteBuffer.allocateDirect(CHUNK).order(ByteOrder.LITTLE_ENDIAN);
+                buf.putInt(MAGIC).putInt(VERSION).putInt(kind).putInt(metric)
+                   .putLong(src.size).putLong(src.modified).putLong(src.hash())
+                   .putInt(n).putInt(neighbors == null ? 0 : k).putDouble(capacity)
+                   .putInt(nameBytes.length).put(nameBytes);
+                pad(buf);
+                for (int v : ids) {
+                    if (!buf.hasRemaining()) flush(channel, buf);
+                    buf.putInt(v);
+                }
+                pad(buf);
+                for (double[] column : new double[][] { c1, c2 }) {
+                    for (double v : column) {
+                        if (!buf.hasRemaining()) flush(channel, buf);
+                        buf.putDouble(v);
+                    }
+                }
+                if (neighbors != null) {
+                    for (int v : neighbors) {
+                        if (!buf.hasRemaining()) flush(channel, buf);
+                        buf.putInt(v);
+                    }
+                }
+                flush(channel, buf);
+            }
+            try {
+                Files.move(tmp, cache, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tmp, cache, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException ex) {
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException ignored) { }
+            }
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buf) throws IOException {
+        buf.flip();
+        while (buf.hasRemaining())
+            channel.write(buf);
+        buf.clear();
+    }
+
+    /** Complète par des zéros jusqu'au prochain multiple de 8 (CHUNK en est un). */
+    private static void pad(ByteBuffer buf) {
+        while ((buf.position() & 7) != 0)
+            buf.put((byte) 0);
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    /** Taille, date et empreinte (calculée à la demande) d'un fichier source. */
+    private static final class Source {
+        final Path path;
+        final long size;
+        final long modified;
+        private long hash;
+        private boolean hashed;
+
+        private Source(Path path, long size, long modified) {
+            this.path = path;
+            this.size = size;
+            this.modified = modified;
+        }
+
+        static Source of(Path path) throws IOException {
+            return new Source(path, Files.size(path), Files.getLastModifiedTime(path).toMillis());
+        }
+
+        /**
+         * Empreinte 64 bits du premier et du dernier bloc de {@link #SAMPLE}
+         * octets : la taille et la date sont déjà comparées, l'empreinte ne fait
+         * que rattraper une réécriture de même taille dans la même milliseconde,
+         * sans relire tout le source à chaque chargement.
+         */
+        long hash() throws IOException {
+            if (hashed)
+                return hash;
+            long h = size * 0x9E3779B97F4A7C15L;
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                long head = Math.min(SAMPLE, size);
+                long tail = Math.max(head, size - SAMPLE);
+                h = hashRange(channel, 0, head, h);
+                h = hashRange(channel, tail, size - tail, h);
+            }
+            hash = h;
+            hashed = true;
+            return h;
+        }
+
+        /** Mélange les octets [pos, pos+len) dans h, lus par mots de 8 octets. */
+        private static long hashRange(FileChannel channel, long pos, long len, long h) throws IOException {
+            if (len == 0)
+                return h;
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, pos, len);
+            map.order(ByteOrder.LITTLE_ENDIAN);
+            int i = 0;
+            for (; i + 8 <= len; i += 8)
+                h = mix(h ^ map.getLong(i));
+            for (; i < len; i++)
+                h = mix(h ^ map.get(i));
+            return h;
+        }
+
+        private static long mix(long z) {
+            z *= 0xBF58476D1CE4E5B9L;
+            return z ^ (z >>> 31);
+        }
+    }
+}
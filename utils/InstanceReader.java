@@ -0,0 +1,286 @@
+package utils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import model.City;
+import model.DistanceMetric;
+import model.Item;
+
+/**
+ * Lecture des instances dans leurs formats usuels, reconnus d'après le début
+ * du fichier :
+ * <ul>
+ *   <li>CSV {@code id,x,y} ou {@code id,poids,valeur} (voir {@link CSVColumns}) ;</li>
+ *   <li>TSPLIB {@code .tsp} : en-tête {@code CLÉ : valeur}, puis
+ *       {@code NODE_COORD_SECTION} ({@code EUC_2D}, {@code CEIL_2D}, {@code ATT}, {@code GEO}) ;</li>
+ *   <li>sac à dos « n W » : première ligne {@code n capacité}, puis n lignes {@code valeur poids} ;</li>
+ *   <li>OR-Library mknap : nombre de problèmes, puis {@code n m optimum}, les n
+ *       valeurs, les m×n poids et les m capacités (premier problème, m = 1).</li>
+ * </ul>
+ * Les fichiers sont lus ligne à ligne dans un tampon réutilisé, sans charger
+ * leur texte en mémoire. Un format invalide lève une {@link IOException}.
+ */
+public final class InstanceReader {
+
+    /** Formats reconnus. */
+    public enum Format { CSV, TSPLIB, KNAPSACK_N_W, ORLIB_MKNAP }
+
+    private InstanceReader() { }
+
+    /** Format du fichier, d'après sa première ligne non vide. */
+    public static Format detect(Path file) throws IOException {
+        try (ByteLines lines = new ByteLines(file)) {
+            while (lines.next()) {
+                if (!lines.isBlank())
+                    return detect(lines);
+            }
+        }
+        throw new IOException("fichier vide");
+    }
+
+    private static Format detect(ByteLines lines) throws IOException {
+        byte[] a = lines.buffer;
+        int p = lines.skipBlanks(lines.start);
+        if ((a[p] >= 'A' && a[p] <= 'Z') || (a[p] >= 'a' && a[p] <= 'z')) {
+            // mot-clé TSPLIB, ou en-tête CSV
+            for (int q = p; q < lines.end; q++) {
+                if (a[q] == ':')
+                    return Format.TSPLIB;
+                if (a[q] == ',')
+                    return Format.CSV;
+            }
+            String keyword = lines.text().trim().toUpperCase(Locale.ROOT);
+            if (keyword.equals("NODE_COORD_SECTION"))
+                return Format.TSPLIB;
+            throw new IOException("ligne " + lines.lineNumber + " : format non reconnu");
+        }
+        int tokens = 0;
+        for (int q = p; q < lines.end; ) {
+            if (a[q] == ',')
+                return Format.CSV;
+            if (a[q] == ' ' || a[q] == '\t') {
+                q++;
+                continue;
+            }
+            tokens++;
+            while (q < lines.end && a[q] != ' ' && a[q] != '\t' && a[q] != ',')
+                q++;
+        }
+        if (tokens == 1)
+            return Format.ORLIB_MKNAP;
+        if (tokens == 2)
+            return Format.KNAPSACK_N_W;
+        throw new IOException("ligne " + lines.lineNumber + " : format non reconnu");
+    }
+
+    /** Villes d'un CSV ou d'un fichier TSPLIB. */
+    public static TSPInstance readTSP(Path file) throws IOException {
+        Format format = detect(file);
+        switch (format) {
+            case CSV: {
+                CSVColumns table = CSVUtils.readInstance(file.toFile());
+                return new TSPInstance(name(file), CSVUtils.toCities(table), DistanceMetric.EUCLIDEAN, table.errors());
+            }
+            case TSPLIB:
+                return readTSPLIB(file);
+            default:
+                throw new IOException("instance de sac à dos, pas de TSP");
+        }
+    }
+
+    /** Items d'un CSV, d'un fichier « n W » ou d'un fichier mknap d'OR-Library. */
+    public static KnapsackInstance readKnapsack(Path file) throws IOException {
+        Format format = detect(file);
+        switch (format) {
+            case CSV: {
+                CSVColumns table = CSVUtils.readInstance(file.toFile());
+                return new KnapsackInstance(name(file), CSVUtils.toItems(table), Double.NaN, table.errors());
+            }
+            case KNAPSACK_N_W:
+                return readKnapsackNW(file);
+            case ORLIB_MKNAP:
+                return readMknap(file);
+            default:
+                throw new IOException("instance de TSP, pas de sac à dos");
+        }
+    }
+
+    private static String name(Path file) {
+        return String.valueOf(file.getFileName());
+    }
+
+    // ----- TSPLIB -----
+
+    private static TSPInstance readTSPLIB(Path file) throws IOException {
+        String name = name(file);
+        DistanceMetric metric = null;
+        int dimension = -1;
+        ByteNumbers numbers = new ByteNumbers();
+        try (ByteLines lines = new ByteLines(file)) {
+            // en-tête : quelques lignes « CLÉ : valeur », lues comme du texte
+            boolean section = false;
+            while (!section && lines.next()) {
+                if (lines.isBlank())
+                    continue;
+                String text = lines.text().trim();
+                int colon = text.indexOf(':');
+                String key = ((colon < 0) ? text : text.substring(0, colon)).trim().toUpperCase(Locale.ROOT);
+                String value = (colon < 0) ? "" : text.substring(colon + 1).trim();
+                switch (key) {
+                    case "NAME":
+                        name = value;
+                        break;
+                    case "TYPE":
+                        if (!value.toUpperCase(Locale.ROOT).startsWith("TSP"))
+                            throw new IOException("ligne " + lines.lineNumber + " : type " + value + " non pris en charge");
+                        break;
+                    case "DIMENSION":
+                        dimension = parsePositive(value, lines);
+                        break;
+                    case "EDGE_WEIGHT_TYPE":
+                        metric = metric(value, lines);
+                        break;
+                    case "NODE_COORD_SECTION":
+                        section = true;
+                        break;
+                    case "EOF":
+                        throw new IOException("ligne " + lines.lineNumber + " : NODE_COORD_SECTION absente");
+                    default:
+                        break;  // COMMENT, NODE_COORD_TYPE, DISPLAY_DATA_TYPE...
+                }
+            }
+            if (!section)
+                throw new IOException("NODE_COORD_SECTION absente");
+            if (metric == null)
+                throw new IOException("EDGE_WEIGHT_TYPE absent");
+
+            // section des coordonnées : « id x y » par ligne
+            List<City> cities = new ArrayList<>(Math.max(dimension, 16));
+            while (lines.next()) {
+                if (lines.isBlank())
+                    continue;
+                byte[] a = lines.buffer;
+                int p = lines.skipBlanks(lines.start);
+                if (a[p] == 'E' || a[p] == 'D')
+                    break;  // EOF, ou section suivante (DISPLAY_DATA_SECTION)
+                p = numbers.parseInt(a, p, lines.end);
+                int id = numbers.intValue;
+                if (p >= 0)
+                    p = numbers.parseDouble(a, lines.skipBlanks(p), lines.end);
+                double x = numbers.doubleValue;
+                if (p >= 0)
+                    p = numbers.parseDouble(a, lines.skipBlanks(p), lines.end);
+                if (p < 0 || lines.skipBlanks(p) != lines.end)
+                    throw new IOException("ligne " + lines.lineNumber + " : « id x y » attendu");
+                cities.add(new City(id, x, numbers.doubleValue));
+            }
+            if (dimension >= 0 && cities.size() != dimension)
+                throw new IOException("" + cities.size() + " villes lues, DIMENSION = " + dimension);
+            return new TSPInstance(name, cities, metric, Collections.emptyList());
+        }
+    }
+
+    private static DistanceMetric metric(String value, ByteLines lines) throws IOException {
+        switch (value.toUpperCase(Locale.ROOT)) {
+            case "EUC_2D": return DistanceMetric.EUC_2D;
+            case "CEIL_2D": return DistanceMetric.CEIL_2D;
+            case "ATT": return DistanceMetric.ATT;
+            case "GEO": return DistanceMetric.GEO;
+            default:
+                throw new IOException("ligne " + lines.lineNumber + " : EDGE_WEIGHT_TYPE " + value + " non pris en charge");
+        }
+    }
+
+    private static int parsePositive(String value, ByteLines lines) throws IOException {
+        try {
+            int n = Integer.parseInt(value);
+            if (n > 0)
+                return n;
+        } catch (NumberFormatException ignored) { }
+        throw new IOException("ligne " + lines.lineNumber + " : entier positif attendu, lu « " + value + " »");
+    }
+
+    // ----- sac à dos -----
+
+    private static KnapsackInstance readKnapsackNW(Path file) throws IOException {
+        try (Tokens tokens = new Tokens(file)) {
+            int n = tokens.nextCount();
+            double capacity = tokens.nextDouble();
+            List<Item> items = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                double value = tokens.nextDouble();
+                double weight = tokens.nextDouble();
+                items.add(new Item(i + 1, weight, value));
+            }
+            return new KnapsackInstance(name(file), items, capacity, Collections.emptyList());
+        }
+    }
+
+    private static KnapsackInstance readMknap(Path file) throws IOException {
+        try (Tokens tokens = new Tokens(file)) {
+            tokens.nextCount();                 // nombre de problèmes : seul le premier est lu
+            int n = tokens.nextCount();
+            int m = tokens.nextCount();
+            tokens.nextDouble();                // valeur optimale
+            if (m != 1)
+                throw new IOException("" + m + " contraintes, sac à dos multidimensionnel non pris en charge");
+            double[] values = new double[n];
+            for (int i = 0; i < n; i++)
+                values[i] = tokens.nextDouble();
+            List<Item> items = new ArrayList<>(n);
+            for (int i = 0; i < n; i++)
+                items.add(new Item(i + 1, tokens.nextDouble(), values[i]));
+            double capacity = tokens.nextDouble();
+            return new KnapsackInstance(name(file), items, capacity, Collections.emptyList());
+        }
+    }
+
+    /** Suite de nombres séparés par des blancs, sur une ou plusieurs lignes. */
+    private static final class Tokens implements AutoCloseable {
+        private final ByteLines lines;
+        private final ByteNumbers numbers = new ByteNumbers();
+        private int p;
+        private boolean started;
+
+        Tokens(Path file) throws IOException {
+            this.lines = new ByteLines(file);
+        }
+
+        /** Positionne p sur le prochain nombre, en passant les lignes vides. */
+        private void advance() throws IOException {
+            if (started)
+                p = lines.skipBlanks(p);
+            while (!started || p == lines.end) {
+                if (!lines.next())
+                    throw new IOException("fin de fichier inattendue à la ligne " + lines.lineNumber);
+                started = true;
+                p = lines.skipBlanks(lines.start);
+            }
+        }
+
+        double nextDouble() throws IOException {
+            advance();
+            int q = numbers.parseDouble(lines.buffer, p, lines.end);
+            if (q < 0 || (q < lines.end && lines.buffer[q] != ' ' && lines.buffer[q] != '\t'))
+                throw new IOException("ligne " + lines.lineNumber + " : nombre attendu");
+            p = q;
+            return numbers.doubleValue;
+        }
+
+        int nextCount() throws IOException {
+            double v = nextDouble();
+            if (v < 0 || v != Math.rint(v) || v > Integer.MAX_VALUE)
+                throw new IOException("ligne " + lines.lineNumber + " : entier positif attendu");
+            return (int) v;
+        }
+
+        @Override
+        public void close() throws IOException {
+            lines.close();
+        }
+    }
+}
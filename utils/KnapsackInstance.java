@@ -0,0 +1,25 @@
+package utils;
+
+import java.util.List;
+import model.Item;
+
+/** Instance de sac à dos lue par {@link InstanceReader}. */
+public class KnapsackInstance {
+    public final String name;
+    public final List<Item> items;
+    /** Capacité donnée par le fichier, NaN s'il n'en donne pas (CSV). */
+    public final double capacity;
+    /** Lignes ignorées à la lecture (« ligne N : ... »). */
+    public final List<String> errors;
+
+    public KnapsackInstance(String name, List<Item> items, double capacity, List<String> errors) {
+        this.name = name;
+        this.items = items;
+        this.capacity = capacity;
+        this.errors = errors;
+    }
+
+    public boolean hasCapacity() {
+        return !Double.isNaN(capacity);
+    }
+}
@@ -0,0 +1,35 @@
+package utils;
+
+import java.util.List;
+import model.City;
+import model.DistanceMetric;
+
+/** Instance de TSP lue par {@link InstanceReader}. */
+public class TSPInstance {
+    public final String name;
+    public final List<City> cities;
+    /** Distance imposée par le fichier (EUCLIDEAN pour un CSV). */
+    public final DistanceMetric metric;
+    /** Lignes ignorées à la lecture (« ligne N : ... »). */
+    public final List<String> errors;
+    /**
+     * Listes de candidats enregistrées avec l'instance ({@link InstanceCache}) :
+     * candidateK voisins par ville, à plat ; candidateK = 0 s'il n'y en a pas.
+     */
+    public final int candidateK;
+    public final int[] candidates;
+
+    public TSPInstance(String name, List<City> cities, DistanceMetric metric, List<String> errors) {
+        this(name, cities, metric, errors, 0, null);
+    }
+
+    public TSPInstance(String name, List<City> cities, DistanceMetric metric, List<String> errors,
+                       int candidateK, int[] candidates) {
+        this.name = name;
+        this.cities = cities;
+        this.metric = metric;
+        this.errors = errors;
+        this.candidateK = candidateK;
+        this.candidates = candidates;
+    }
+}